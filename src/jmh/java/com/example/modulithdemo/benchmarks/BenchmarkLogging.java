@@ -0,0 +1,19 @@
+package com.example.modulithdemo.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmarks measure the code, not the console appender: logback's default configuration logs
+ * DEBUG to stdout, which would dominate every score. Spring Boot benchmarks use logging.level.root.
+ */
+public final class BenchmarkLogging {
+
+  private BenchmarkLogging() {
+  }
+
+  public static void quiet() {
+    ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.modulithdemo.benchmarks;
+
+import com.example.modulithdemo.inventory.app.OrderCreatedEventListener;
+import com.example.modulithdemo.inventory.app.StockLedger;
+import com.example.modulithdemo.order.domain.Customer;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApplicationEventPublisher dispatch of OrderCreatedEvent to the synchronous
+ * OrderCreatedEventListener (listener resolution, invocation, in-memory stock ledger lookup) in a
+ * bare application context. The ledger has no DataSource, so there is no write-behind.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+  private AnnotationConfigApplicationContext context;
+  private OrderCreatedEvent event;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    BenchmarkLogging.quiet();
+    context = new AnnotationConfigApplicationContext();
+    context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+    context.register(StockLedger.class, OrderCreatedEventListener.class);
+    context.refresh();
+    event = new OrderCreatedEvent("A1", "BOOK-1", 2, new Customer("Alice", "alice@example.com", "123"));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void publishOrderCreated() {
+    context.publishEvent(event);
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.modulithdemo.benchmarks;
+
+import com.example.modulithdemo.DemoApplication;
+import com.example.modulithdemo.order.domain.OrderCompleted;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing OrderCompleted in a transaction with the JDBC event publication registry on H2
+ * (the test application.yml): registry insert(s) at commit plus the asynchronous completion by
+ * InventoryManagement. Compares the plain JdbcEventPublicationRepository with group commit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPublicationRegistryBenchmark {
+
+  @Param({"false", "true"})
+  boolean groupCommit;
+
+  @Param({"1", "10"})
+  int eventsPerTransaction;
+
+  private ConfigurableApplicationContext context;
+  private ApplicationEventPublisher events;
+  private TransactionTemplate tx;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // No broker: the new-orders listener containers keep retrying their connection in the background
+    context = new SpringApplicationBuilder(DemoApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "logging.level.root=ERROR",
+            "app.events.registry.group-commit.enabled=" + groupCommit,
+            "app.events.registry.purge.enabled=false")
+        .run();
+    events = context;
+    tx = context.getBean(TransactionTemplate.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void publishInTransaction() {
+    tx.executeWithoutResult(status -> {
+      for (int i = 0; i < eventsPerTransaction; i++) {
+        events.publishEvent(new OrderCompleted(UUID.randomUUID()));
+      }
+    });
+  }
+}
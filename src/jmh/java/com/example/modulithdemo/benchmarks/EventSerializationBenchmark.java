@@ -0,0 +1,76 @@
+package com.example.modulithdemo.benchmarks;
+
+import com.example.modulithdemo.messaging.inbound.amqp.NewOrderMessage;
+import com.example.modulithdemo.messaging.outbound.amqp.SmileMessageConverter;
+import com.example.modulithdemo.order.domain.Customer;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderCreatedEvent encode/decode cost per AMQP format (MessageConverter out, the listener's
+ * ObjectReader in). The payload size is printed once per trial, e.g. {@code format=smile amqp=... bytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+  @Param({"json", "smile"})
+  public String format;
+
+  private final OrderCreatedEvent event = new OrderCreatedEvent("A-1000042", "BOOK-0042", 3,
+      new Customer("Alice Example", "alice.example@example.com", "+886-2-1234-5678"));
+
+  private MessageConverter converter;
+  private ObjectReader inboundReader;
+  private byte[] amqpBody;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    BenchmarkLogging.quiet();
+    ObjectMapper mapper = new ObjectMapper();
+    if ("smile".equals(format)) {
+      converter = new SmileMessageConverter(mapper);
+      inboundReader = mapper.copyWith(new SmileFactory()).readerFor(NewOrderMessage.class);
+    } else {
+      converter = new Jackson2JsonMessageConverter(mapper);
+      inboundReader = mapper.readerFor(NewOrderMessage.class);
+    }
+    amqpBody = converter.toMessage(event, new MessageProperties()).getBody();
+    System.out.printf("%nformat=%s amqp=%d bytes%n", format, amqpBody.length);
+  }
+
+  @Benchmark
+  public Message amqpEncode() {
+    return converter.toMessage(event, new MessageProperties());
+  }
+
+  @Benchmark
+  public Object amqpDecode() throws IOException {
+    return inboundReader.readValue(amqpBody);
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.modulithdemo.benchmarks;
+
+import com.example.modulithdemo.inventory.app.StockLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contended reserve + cancel on the in-memory stock ledger (no DataSource, so no write-behind).
+ * {@code products=1} makes every thread CAS the same counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class StockLedgerBenchmark {
+
+  @Param({"1", "64"})
+  public int products;
+
+  private StockLedger ledger;
+  private final AtomicLong orders = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    BenchmarkLogging.quiet();
+    ledger = new StockLedger(false, null, new SimpleMeterRegistry(), "always", "", Duration.ofSeconds(30));
+    for (int i = 0; i < products; i++) {
+      ledger.restock("BOOK-" + i, 1_000_000);
+    }
+  }
+
+  @Benchmark
+  public boolean reserveAndCancel() {
+    long n = orders.incrementAndGet();
+    String orderNumber = "A" + n;
+    ledger.reserve(orderNumber, "BOOK-" + (n % products), 1);
+    return ledger.cancel(orderNumber);
+  }
+}
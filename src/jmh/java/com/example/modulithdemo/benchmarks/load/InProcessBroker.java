@@ -0,0 +1,185 @@
+package com.example.modulithdemo.benchmarks.load;
+
+import com.rabbitmq.client.Channel;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * Stand-in for the 'new-orders' queue plus a SimpleMessageListenerContainer, so the listener can be
+ * loaded without RabbitMQ. A dispatcher pushes deliveries to {@code consumers} threads, each holding
+ * at most {@code prefetch} unacknowledged messages (basic.qos semantics); the listener settles them
+ * through a {@link Channel} proxy that understands basicAck, basicNack and basicReject.
+ */
+final class InProcessBroker implements AutoCloseable {
+
+  /** One published message; {@code intendedNanos} is when the load generator meant to send it. */
+  record Delivery(byte[] body, long intendedNanos) {}
+
+  interface SettlementListener {
+    void settled(Delivery delivery, boolean acked, long settledNanos);
+  }
+
+  private final BlockingQueue<Delivery> queue = new LinkedBlockingQueue<>();
+  private final ConsumerLane[] lanes;
+  private final Thread dispatcher;
+  private volatile boolean running = true;
+
+  InProcessBroker(int consumers, int prefetch, boolean virtualThreads,
+      BiConsumer<Message, Channel> listener, SettlementListener settlements) {
+    lanes = new ConsumerLane[consumers];
+    // Same switch as the real listener containers (RabbitListenerConfig)
+    TaskExecutor threads;
+    if (virtualThreads) {
+      threads = new VirtualThreadTaskExecutor("load-consumer-");
+    } else {
+      SimpleAsyncTaskExecutor platform = new SimpleAsyncTaskExecutor("load-consumer-");
+      platform.setDaemon(true);
+      threads = platform;
+    }
+    for (int i = 0; i < consumers; i++) {
+      lanes[i] = new ConsumerLane(prefetch, listener, settlements);
+      threads.execute(lanes[i]::run);
+    }
+    dispatcher = new Thread(this::dispatch, "load-dispatcher");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+  }
+
+  void publish(Delivery delivery) {
+    queue.add(delivery);
+  }
+
+  /** Messages not yet pushed to a consumer. */
+  int ready() {
+    return queue.size();
+  }
+
+  /** Messages pushed to consumers but not yet settled. */
+  int unacked() {
+    int sum = 0;
+    for (ConsumerLane lane : lanes) sum += lane.unacked.size();
+    return sum;
+  }
+
+  // Round-robin over consumers with free prefetch credit, like the broker does per channel
+  private void dispatch() {
+    int next = 0;
+    while (running) {
+      Delivery delivery;
+      try {
+        delivery = queue.poll(100, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (delivery == null) continue;
+      while (running) {
+        ConsumerLane lane = null;
+        for (int i = 0; i < lanes.length && lane == null; i++) {
+          ConsumerLane candidate = lanes[(next + i) % lanes.length];
+          if (candidate.credits.tryAcquire()) lane = candidate;
+        }
+        if (lane != null) {
+          lane.inbox.add(delivery);
+          next++;
+          break;
+        }
+        LockSupport.parkNanos(20_000); // every consumer is at its prefetch limit
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    dispatcher.interrupt();
+    for (ConsumerLane lane : lanes) lane.inbox.add(ConsumerLane.STOP);
+  }
+
+  private final class ConsumerLane {
+
+    static final Delivery STOP = new Delivery(new byte[0], 0);
+
+    final Semaphore credits;
+    final BlockingQueue<Delivery> inbox = new LinkedBlockingQueue<>();
+    final ConcurrentSkipListMap<Long, Delivery> unacked = new ConcurrentSkipListMap<>();
+    final BiConsumer<Message, Channel> listener;
+    final SettlementListener settlements;
+    final Channel channel;
+    long nextTag = 1;
+
+    ConsumerLane(int prefetch, BiConsumer<Message, Channel> listener, SettlementListener settlements) {
+      this.credits = new Semaphore(prefetch);
+      this.listener = listener;
+      this.settlements = settlements;
+      this.channel = (Channel) Proxy.newProxyInstance(Channel.class.getClassLoader(), new Class<?>[] {Channel.class},
+          (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "basicAck" -> settle((Long) args[0], (Boolean) args[1], true, false);
+              case "basicNack" -> settle((Long) args[0], (Boolean) args[1], false, (Boolean) args[2]);
+              case "basicReject" -> settle((Long) args[0], false, false, (Boolean) args[1]);
+              case "isOpen" -> { return true; }
+              case "toString" -> { return "InProcessBroker.Channel"; }
+              case "hashCode" -> { return System.identityHashCode(proxy); }
+              case "equals" -> { return proxy == args[0]; }
+              default -> { }
+            }
+            return null;
+          });
+    }
+
+    void run() {
+      while (true) {
+        Delivery delivery;
+        try {
+          delivery = inbox.take();
+        } catch (InterruptedException e) {
+          return;
+        }
+        if (delivery == STOP) return;
+        long tag = nextTag++;
+        unacked.put(tag, delivery);
+        MessageProperties props = new MessageProperties();
+        props.setDeliveryTag(tag);
+        props.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        props.setConsumerQueue("new-orders");
+        listener.accept(new Message(delivery.body(), props), channel);
+      }
+    }
+
+    private void settle(long tag, boolean multiple, boolean acked, boolean requeue) {
+      long now = System.nanoTime();
+      if (multiple) {
+        for (Iterator<Delivery> it = unacked.headMap(tag, true).values().iterator(); it.hasNext(); ) {
+          Delivery delivery = it.next();
+          it.remove();
+          complete(delivery, acked, requeue, now);
+        }
+      } else {
+        Delivery delivery = unacked.remove(tag);
+        if (delivery != null) complete(delivery, acked, requeue, now);
+      }
+    }
+
+    private void complete(Delivery delivery, boolean acked, boolean requeue, long now) {
+      credits.release();
+      if (requeue) {
+        queue.add(delivery);
+      } else {
+        settlements.settled(delivery, acked, now);
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.modulithdemo.benchmarks.load;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Records every latency sample (nanoseconds) of the measurement window, so percentiles are exact,
+ * and prints them together with a log2-bucketed histogram in milliseconds.
+ */
+final class LatencyHistogram {
+
+  private long[] samples = new long[1 << 16];
+  private int count;
+
+  synchronized void record(long nanos) {
+    if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+    samples[count++] = nanos;
+  }
+
+  synchronized int count() {
+    return count;
+  }
+
+  synchronized void print(PrintStream out) {
+    if (count == 0) {
+      out.println("latency: no samples");
+      return;
+    }
+    long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    out.printf("latency (ms, intended send -> settle): p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f%n",
+        millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)), millis(percentile(sorted, 0.99)),
+        millis(percentile(sorted, 0.999)), millis(sorted[sorted.length - 1]));
+
+    // Buckets: <= 0.125 ms, <= 0.25 ms, ... doubling up to the maximum
+    double upper = 0.125;
+    int from = 0;
+    while (from < sorted.length) {
+      int to = from;
+      while (to < sorted.length && millis(sorted[to]) <= upper) to++;
+      if (to > from) {
+        int width = (int) Math.ceil(50.0 * (to - from) / sorted.length);
+        out.printf("  <= %9.3f ms %9d %s%n", upper, to - from, "#".repeat(width));
+      }
+      from = to;
+      upper *= 2;
+    }
+  }
+
+  private static long percentile(long[] sorted, double p) {
+    int index = (int) Math.ceil(p * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.modulithdemo.benchmarks.load;
+
+import com.example.modulithdemo.DemoApplication;
+import com.example.modulithdemo.messaging.inbound.amqp.InboundNewOrderListener;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offline load test of new-orders -> InboundNewOrderListener -> OrderCreatedEvent -> listeners,
+ * on the full application context with the H2 test configuration and {@link InProcessBroker} in
+ * place of RabbitMQ. Synthetic NewOrderMessage payloads are offered at a fixed rate; latency is
+ * measured from the intended send time (so a stalled consumer cannot hide queueing delay) to the ack.
+ *
+ * <p>Every argument is a Spring property, so application settings can be varied alongside the load:
+ * <pre>
+ * ./mvnw -Pbenchmarks test-compile exec:exec \
+ *   -Dbenchmark.main=com.example.modulithdemo.benchmarks.load.NewOrdersLoadHarness \
+ *   -Dbenchmark.args="--load.rate=2000 --load.consumers=16 --load.prefetch=50 \
+ *     --spring.datasource.hikari.maximum-pool-size=20 --app.amqp.new-orders.idempotency.enabled=true"
+ * </pre>
+ * load.rate (msgs/s, 1000), load.duration (30s), load.warmup (10s), load.consumers (8),
+ * load.prefetch (20), load.invalid-percent (0); invalid payloads exercise the retry/reject path.
+ */
+public final class NewOrdersLoadHarness {
+
+  private NewOrdersLoadHarness() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "logging.level.root=WARN",
+            "app.amqp.new-orders.payload-log.sample-every=0",
+            "app.events.registry.purge.enabled=false")
+        .run(args);
+    // There is no broker: stop the real listener containers, the stand-in drives the listener directly
+    context.getBean(RabbitListenerEndpointRegistry.class).stop();
+
+    Environment env = context.getEnvironment();
+    int rate = env.getProperty("load.rate", Integer.class, 1000);
+    Duration duration = env.getProperty("load.duration", Duration.class, Duration.ofSeconds(30));
+    Duration warmup = env.getProperty("load.warmup", Duration.class, Duration.ofSeconds(10));
+    int consumers = env.getProperty("load.consumers", Integer.class, 8);
+    int prefetch = env.getProperty("load.prefetch", Integer.class, 20);
+    int invalidPercent = env.getProperty("load.invalid-percent", Integer.class, 0);
+    boolean virtualThreads = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+    InboundNewOrderListener listener = context.getBean(InboundNewOrderListener.class);
+    LatencyHistogram latencies = new LatencyHistogram();
+    AtomicLong acked = new AtomicLong();
+    AtomicLong rejected = new AtomicLong();
+    AtomicLong lastSettled = new AtomicLong();
+
+    long start = System.nanoTime();
+    long measureFrom = start + warmup.toNanos();
+    long measureTo = measureFrom + duration.toNanos();
+
+    try (InProcessBroker broker = new InProcessBroker(consumers, prefetch, virtualThreads, listener::onMessage,
+        (delivery, ack, settledAt) -> {
+          if (delivery.intendedNanos() < measureFrom || delivery.intendedNanos() >= measureTo) return;
+          (ack ? acked : rejected).incrementAndGet();
+          latencies.record(settledAt - delivery.intendedNanos());
+          lastSettled.accumulateAndGet(settledAt, Math::max);
+        })) {
+
+      System.out.printf("new-orders load: rate=%d/s warmup=%s duration=%s consumers=%d prefetch=%d invalid=%d%% virtualThreads=%b%n",
+          rate, warmup, duration, consumers, prefetch, invalidPercent, virtualThreads);
+
+      // Fixed-rate schedule; if the generator falls behind it catches up instead of skipping sends
+      long periodNanos = 1_000_000_000L / Math.max(1, rate);
+      long offered = 0;
+      for (long seq = 0; ; seq++) {
+        long intended = start + seq * periodNanos;
+        if (intended >= measureTo) break;
+        long wait = intended - System.nanoTime();
+        if (wait > 0) LockSupport.parkNanos(wait);
+        broker.publish(new InProcessBroker.Delivery(payload(seq, invalidPercent), intended));
+        if (intended >= measureFrom) offered++;
+      }
+
+      // Drain whatever is still queued or unacked, bounded so an overloaded run still reports
+      long drainDeadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+      while ((broker.ready() > 0 || broker.unacked() > 0) && System.nanoTime() < drainDeadline) {
+        Thread.sleep(50);
+      }
+      long settled = acked.get() + rejected.get();
+      double seconds = duration.toNanos() / 1e9;
+      System.out.printf("offered %d msgs (%.1f/s); settled %d: %d acked, %d rejected; left in queue %d, unacked %d%n",
+          offered, offered / seconds, settled, acked.get(), rejected.get(), broker.ready(), broker.unacked());
+      // Messages offered in the window over the time it took to settle them (>= the window itself)
+      double busySeconds = Math.max(seconds, (lastSettled.get() - measureFrom) / 1e9);
+      System.out.printf("sustained throughput: %.1f msgs/s%n", settled / busySeconds);
+      latencies.print(System.out);
+    } finally {
+      context.close();
+    }
+  }
+
+  private static byte[] payload(long seq, int invalidPercent) {
+    if (invalidPercent > 0 && ThreadLocalRandom.current().nextInt(100) < invalidPercent) {
+      return ("not-json-" + seq).getBytes(StandardCharsets.UTF_8);
+    }
+    return ("{\"orderNumber\":\"LT-" + seq + "\",\"productCode\":\"BOOK-" + (seq % 100) + "\",\"quantity\":"
+        + (1 + seq % 5) + ",\"customer\":{\"name\":\"Load Test\",\"email\":\"load" + (seq % 1000)
+        + "@example.com\",\"phone\":\"555-0100\"}}").getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.modulithdemo.benchmarks.load;
+
+import com.example.modulithdemo.DemoApplication;
+import com.example.modulithdemo.messaging.inbound.amqp.InboundNewOrderListener;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first consumed message: JVM start -> main -> context ready -> first new-orders message
+ * acked, on the H2 test configuration with {@link InProcessBroker} in place of RabbitMQ. Run it once
+ * per configuration (it measures a cold start, so one JVM per sample):
+ * <pre>
+ * ./mvnw -Pbenchmarks test-compile exec:exec \
+ *   -Dbenchmark.main=com.example.modulithdemo.benchmarks.load.StartupHarness
+ * ./mvnw -Pbenchmarks test-compile exec:exec \
+ *   -Dbenchmark.main=com.example.modulithdemo.benchmarks.load.StartupHarness \
+ *   -Dbenchmark.args="--spring.profiles.active=fast-startup"
+ * </pre>
+ * This compares the profile's runtime settings; AOT and CDS need the packaged application
+ * ({@code ./mvnw -Pfast-startup package}), e.g. with
+ * {@code -Dbenchmark.jvmArgs="-XX:SharedArchiveFile=target/application/application.jsa -Dspring.aot.enabled=true"}
+ * against its classpath. The report says whether either was active.
+ */
+public final class StartupHarness {
+
+  private StartupHarness() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    long mainNanos = System.nanoTime();
+    RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    long jvmToMainMillis = System.currentTimeMillis() - runtime.getStartTime();
+
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "logging.level.root=WARN",
+            "app.amqp.new-orders.payload-log.sample-every=0",
+            // H2 in memory starts empty in every mode, including if-missing
+            "spring.modulith.events.jdbc.schema-initialization.enabled=true")
+        .run(args);
+    long readyNanos = System.nanoTime();
+    // There is no broker: stop the real listener containers, the stand-in drives the listener directly
+    context.getBean(RabbitListenerEndpointRegistry.class).stop();
+
+    InboundNewOrderListener listener = context.getBean(InboundNewOrderListener.class);
+    CountDownLatch settled = new CountDownLatch(1);
+    long[] settledAt = new long[1];
+    boolean[] acked = new boolean[1];
+
+    try (InProcessBroker broker = new InProcessBroker(1, 1, false, listener::onMessage,
+        (delivery, ack, at) -> {
+          settledAt[0] = at;
+          acked[0] = ack;
+          settled.countDown();
+        })) {
+      long published = System.nanoTime();
+      broker.publish(new InProcessBroker.Delivery(payload(), published));
+      if (!settled.await(60, TimeUnit.SECONDS)) {
+        System.out.println("first message not settled within 60s");
+        return;
+      }
+
+      boolean cds = runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+      System.out.printf("startup: profiles=%s aot=%b cds=%b%n",
+          String.join(",", context.getEnvironment().getActiveProfiles()), AotDetector.useGeneratedArtifacts(), cds);
+      System.out.printf("  jvm start -> main:          %6d ms%n", jvmToMainMillis);
+      System.out.printf("  main -> context ready:      %6d ms%n", toMillis(readyNanos - mainNanos));
+      System.out.printf("  ready -> first message %s: %6d ms%n", acked[0] ? "acked" : "rejected",
+          toMillis(settledAt[0] - readyNanos));
+      System.out.printf("  jvm start -> first message: %6d ms%n", jvmToMainMillis + toMillis(settledAt[0] - mainNanos));
+    } finally {
+      context.close();
+    }
+  }
+
+  private static long toMillis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  private static byte[] payload() {
+    return ("{\"orderNumber\":\"ST-1\",\"productCode\":\"BOOK-1\",\"quantity\":1,\"customer\":{\"name\":"
+        + "\"Startup Test\",\"email\":\"startup@example.com\",\"phone\":\"555-0100\"}}").getBytes(StandardCharsets.UTF_8);
+  }
+}
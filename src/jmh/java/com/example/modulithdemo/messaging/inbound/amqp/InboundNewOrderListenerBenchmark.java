@@ -0,0 +1,86 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import com.example.modulithdemo.benchmarks.BenchmarkLogging;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer hot path without a broker: body bytes -> NewOrderMessage -> OrderCreatedEvent -> publisher,
+ * and processWithAck's in-thread retry loop under a mix of valid and poison payloads.
+ * Lives in the listener's package because processWithAck is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InboundNewOrderListenerBenchmark {
+
+  private static final int PAYLOADS = 100;
+
+  // Share of payloads that fail on every attempt (invalid JSON) and end up rejected after retries
+  @Param({"0", "10", "50"})
+  int failurePercent;
+
+  private InboundNewOrderListener listener;
+  private byte[] body;
+  private String[] mix;
+  private int next;
+  private volatile Object lastEvent;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    BenchmarkLogging.quiet();
+    listener = InboundNewOrderListenerBuilder.listener(event -> lastEvent = event)
+        .metrics(new InboundNewOrderMetrics(new SimpleMeterRegistry()))
+        .build();
+
+    String json = order(0);
+    body = json.getBytes(StandardCharsets.UTF_8);
+
+    List<String> payloads = new ArrayList<>(PAYLOADS);
+    for (int i = 0; i < PAYLOADS; i++) {
+      payloads.add(i < failurePercent ? "not-json-" + i : order(i));
+    }
+    Collections.shuffle(payloads, new Random(42));
+    mix = payloads.toArray(String[]::new);
+  }
+
+  @Benchmark
+  public Object handle() throws IOException {
+    listener.handle(body);
+    return lastEvent;
+  }
+
+  @Benchmark
+  public void processWithAck(Blackhole bh) {
+    String payload = mix[next++ % PAYLOADS];
+    listener.processWithAck(payload, () -> bh.consume(true), () -> bh.consume(false));
+  }
+
+  private static String order(int i) {
+    return "{\"orderNumber\":\"A" + i + "\",\"productCode\":\"BOOK-" + (i % 10) + "\",\"quantity\":2,"
+        + "\"customer\":{\"name\":\"Alice\",\"email\":\"alice@example.com\",\"phone\":\"123\"}}";
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.example.modulithdemo.config.JsonLogEncoder;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message logging cost on the consumer path (onMessage -> parse -> OrderCreatedEvent -> ack),
+ * with logback writing to a discarding stream so the score is the work done on the consumer thread:
+ * <ul>
+ *   <li>off: no logging at all, the reference the others are compared to</li>
+ *   <li>stages: the per-stage INFO lines the pipeline used to write (the full event in the listener,
+ *   the stock reservation), reproduced here, with the 1-in-100 payload sample, pattern layout</li>
+ *   <li>summary: one OrderPipelineLog line per delivery, pattern layout, synchronous</li>
+ *   <li>summary-json-async: the json-logs profile: key-value summary, ids in the MDC, ECS JSON
+ *   (JsonLogEncoder) encoded by an AsyncAppender thread (blocking when full, so dropped events cannot
+ *   flatter the score)</li>
+ *   <li>summary-boot-ecs-async: the same with Spring Boot's StructuredLogEncoder ("ecs"), for comparison;
+ *   its encoding is slow enough to make the writer thread, and through the full queue the consumer, the
+ *   bottleneck</li>
+ * </ul>
+ * Overhead per message = score - off. Run with {@code -t 8} to see contention on a synchronous appender.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPipelineLoggingBenchmark {
+
+  private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %-40.40logger{39} : %m%n";
+
+  @Param({"off", "stages", "summary", "summary-json-async", "summary-boot-ecs-async"})
+  String logging;
+
+  private InboundNewOrderListener listener;
+  private Channel channel;
+  private Message message;
+  private volatile OrderCreatedEvent lastEvent;
+  private boolean stages;
+  private org.slf4j.Logger listenerLog;
+  private org.slf4j.Logger reservationLog;
+  private LoggerContext context;
+
+  @Setup
+  public void setUp() {
+    context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    context.reset();
+    // StructuredLogEncoder resolves its formatter from the Spring Environment
+    context.putObject(Environment.class.getName(), new StandardEnvironment());
+    Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    root.setLevel("off".equals(logging) ? Level.OFF : Level.INFO);
+    boolean json = logging.endsWith("-async");
+    Encoder<ILoggingEvent> encoder = switch (logging) {
+      case "summary-json-async" -> json();
+      case "summary-boot-ecs-async" -> bootEcs();
+      default -> pattern();
+    };
+    root.addAppender(json ? async(discarding(encoder)) : discarding(encoder));
+
+    stages = "stages".equals(logging);
+    listenerLog = LoggerFactory.getLogger(InboundNewOrderListener.class);
+    reservationLog = LoggerFactory.getLogger("com.example.modulithdemo.inventory.app.OrderCreatedEventListener");
+    OrderPipelineLog pipelineLog = logging.startsWith("summary") ? new OrderPipelineLog(1, json) : OrderPipelineLog.disabled();
+    listener = InboundNewOrderListenerBuilder.listener(event -> lastEvent = (OrderCreatedEvent) event)
+        .payloadLog(new PayloadLogSampler(json ? 0 : 100, 512))
+        .metrics(new InboundNewOrderMetrics(new SimpleMeterRegistry()))
+        .pipelineLog(pipelineLog)
+        .build();
+    channel = (Channel) Proxy.newProxyInstance(Channel.class.getClassLoader(), new Class<?>[] {Channel.class},
+        (proxy, method, args) -> null);
+
+    MessageProperties props = new MessageProperties();
+    props.setMessageId("5f0c6e1e-6f5b-4f7e-9a59-0d7f4b1f2c3a");
+    props.setCorrelationId("checkout-42");
+    props.setDeliveryTag(1);
+    message = new Message(("{\"orderNumber\":\"A1\",\"productCode\":\"BOOK-1\",\"quantity\":2,"
+        + "\"customer\":{\"name\":\"Alice\",\"email\":\"alice@example.com\",\"phone\":\"123\"}}")
+        .getBytes(StandardCharsets.UTF_8), props);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.stop();
+  }
+
+  @Benchmark
+  public Object onMessage() {
+    listener.onMessage(message, channel);
+    if (stages) {
+      OrderCreatedEvent event = lastEvent;
+      listenerLog.info("[InboundNewOrderListener] published OrderCreatedEvent: {}", event);
+      reservationLog.info("Reserved stock for orderNumber={}, productCode={}, quantity={}",
+          event.orderNumber(), event.productCode(), event.quantity());
+    }
+    return lastEvent;
+  }
+
+  private Encoder<ILoggingEvent> pattern() {
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern(PATTERN);
+    encoder.start();
+    return encoder;
+  }
+
+  private Encoder<ILoggingEvent> json() {
+    JsonLogEncoder encoder = new JsonLogEncoder();
+    encoder.setContext(context);
+    encoder.setServiceName("demo");
+    encoder.start();
+    return encoder;
+  }
+
+  private Encoder<ILoggingEvent> bootEcs() {
+    StructuredLogEncoder encoder = new StructuredLogEncoder();
+    encoder.setContext(context);
+    encoder.setFormat("ecs");
+    encoder.start();
+    return encoder;
+  }
+
+  private Appender<ILoggingEvent> discarding(Encoder<ILoggingEvent> encoder) {
+    OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+    appender.setContext(context);
+    appender.setEncoder(encoder);
+    appender.setOutputStream(OutputStream.nullOutputStream());
+    appender.start();
+    return appender;
+  }
+
+  private Appender<ILoggingEvent> async(Appender<ILoggingEvent> delegate) {
+    AsyncAppender appender = new AsyncAppender();
+    appender.setContext(context);
+    appender.setQueueSize(8192);
+    appender.setDiscardingThreshold(0);
+    appender.setNeverBlock(false);
+    appender.setIncludeCallerData(false);
+    appender.addAppender(delegate);
+    appender.start();
+    return appender;
+  }
+}
@@ -0,0 +1,198 @@
+package com.example.modulithdemo.config;
+
+import com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runtime sizing of the 'new-orders' listener containers from {@link InboundLoadSignals}, in place
+ * of the container's own idle/active based scaling (both bounds are pinned to the chosen count).
+ * Each interval one decision is taken, in order of precedence:
+ * <ol>
+ *   <li>DB pool saturated (threads waiting for a connection, or usage above pool-saturation): halve
+ *   consumers and prefetch. More consumers would only queue up on Hikari.</li>
+ *   <li>Event registry backlog above backlog-high, or handler latency above target: one consumer less.</li>
+ *   <li>Queue depth beyond what the consumers hold in prefetch: one consumer more; with latency
+ *   well under target also a larger prefetch.</li>
+ *   <li>Empty queue: one consumer less, down to the minimum.</li>
+ * </ol>
+ * Consumer changes apply immediately; a new prefetch applies to consumers started after the change.
+ * With ordered lanes there is a single consumer that is never restarted, so neither setting could
+ * take effect: adaptation is disabled then and the endpoint only reports the signals.
+ * {@link AdaptiveConsumerEndpoint} shows the state and can pin an override.
+ */
+@Component
+@ConditionalOnProperty(name = "app.amqp.new-orders.adaptive.enabled", havingValue = "true")
+public class AdaptiveConsumerController {
+
+  private static final Logger log = LoggerFactory.getLogger(AdaptiveConsumerController.class);
+
+  /** Outcome of one evaluation. */
+  record Decision(int consumers, int prefetch, String reason) {}
+
+  private final RabbitListenerEndpointRegistry registry;
+  private final InboundLoadSignals signals;
+  private final int minConsumers;
+  private final int maxConsumers;
+  private final int minPrefetch;
+  private final int maxPrefetch;
+  private final double targetLatencyMs;
+  private final double poolSaturation;
+  private final long backlogHigh;
+  private final boolean orderedLanes;
+
+  private int consumers;
+  private int prefetch;
+  private int appliedConsumers;
+  private boolean overridden;
+  private String lastReason = "initial";
+  private double lastLatencyMs = -1;
+  private InboundLoadSignals.Snapshot previous;
+
+  public AdaptiveConsumerController(
+      RabbitListenerEndpointRegistry registry,
+      InboundLoadSignals signals,
+      @Value("${app.amqp.new-orders.concurrency.min:2}") int minConsumers,
+      @Value("${app.amqp.new-orders.concurrency.max:8}") int maxConsumers,
+      @Value("${app.amqp.new-orders.adaptive.prefetch.min:5}") int minPrefetch,
+      @Value("${app.amqp.new-orders.adaptive.prefetch.max:250}") int maxPrefetch,
+      @Value("${app.amqp.new-orders.adaptive.target-latency-ms:200}") double targetLatencyMs,
+      @Value("${app.amqp.new-orders.adaptive.pool-saturation:0.9}") double poolSaturation,
+      @Value("${app.amqp.new-orders.adaptive.backlog-high:10000}") long backlogHigh,
+      @Value("${app.amqp.new-orders.ordering.mode:none}") String orderingMode
+  ) {
+    this.registry = registry;
+    this.signals = signals;
+    // Ordered lanes need the single consumer (see RabbitListenerConfig)
+    this.orderedLanes = "lanes".equalsIgnoreCase(orderingMode);
+    this.minConsumers = orderedLanes ? 1 : Math.max(1, minConsumers);
+    this.maxConsumers = orderedLanes ? 1 : Math.max(this.minConsumers, maxConsumers);
+    this.minPrefetch = Math.max(1, minPrefetch);
+    this.maxPrefetch = Math.max(this.minPrefetch, maxPrefetch);
+    this.targetLatencyMs = targetLatencyMs;
+    this.poolSaturation = poolSaturation;
+    this.backlogHigh = backlogHigh;
+    // Starting point: what RabbitListenerConfig configured
+    this.consumers = this.minConsumers;
+    this.appliedConsumers = this.minConsumers;
+    this.prefetch = Math.min(Math.max(20, this.minPrefetch), this.maxPrefetch);
+    if (orderedLanes) {
+      this.lastReason = "disabled: ordered lanes";
+      log.warn("[AdaptiveConsumerController] ordering.mode=lanes: consumers and prefetch stay as configured");
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.amqp.new-orders.adaptive.interval-ms:5000}",
+      fixedDelayString = "${app.amqp.new-orders.adaptive.interval-ms:5000}")
+  public synchronized void adjust() {
+    InboundLoadSignals.Snapshot now = signals.sample();
+    lastLatencyMs = now.meanLatencyMsSince(previous);
+    previous = now;
+    if (overridden || orderedLanes) {
+      return;
+    }
+    Decision decision = decide(now, lastLatencyMs, consumers, prefetch);
+    if (decision.consumers() != consumers || decision.prefetch() != prefetch) {
+      log.info("[AdaptiveConsumerController] consumers {} -> {}, prefetch {} -> {} ({})",
+          consumers, decision.consumers(), prefetch, decision.prefetch(), decision.reason());
+      apply(decision.consumers(), decision.prefetch());
+    }
+    lastReason = decision.reason();
+  }
+
+  // Package-private for tests: the policy, free of side effects
+  Decision decide(InboundLoadSignals.Snapshot s, double latencyMs, int consumers, int prefetch) {
+    boolean poolSaturated = s.poolPending() > 0 || s.poolUsage() >= poolSaturation;
+    if (poolSaturated) {
+      return new Decision(Math.max(minConsumers, consumers / 2), Math.max(minPrefetch, prefetch / 2),
+          "db pool saturated (active " + s.poolActive() + "/" + s.poolMax() + ", pending " + s.poolPending() + ")");
+    }
+    if (s.registryBacklog() > backlogHigh) {
+      return new Decision(Math.max(minConsumers, consumers - 1), prefetch,
+          "event registry backlog " + s.registryBacklog());
+    }
+    if (latencyMs > targetLatencyMs) {
+      return new Decision(Math.max(minConsumers, consumers - 1), prefetch,
+          String.format("handler latency %.1fms above target", latencyMs));
+    }
+    if (s.queueDepth() > (long) consumers * prefetch) {
+      int nextPrefetch = latencyMs >= 0 && latencyMs < targetLatencyMs / 2
+          ? Math.min(maxPrefetch, prefetch + Math.max(1, prefetch / 2)) : prefetch;
+      return new Decision(Math.min(maxConsumers, consumers + 1), nextPrefetch, "queue depth " + s.queueDepth());
+    }
+    if (s.queueDepth() == 0) {
+      return new Decision(Math.max(minConsumers, consumers - 1), prefetch, "queue empty");
+    }
+    return new Decision(consumers, prefetch, "steady");
+  }
+
+  /**
+   * Pins consumers (within the consumer bounds) and/or prefetch (null keeps the current value) and
+   * suspends adaptation.
+   */
+  public synchronized void override(Integer consumers, Integer prefetch) {
+    if (orderedLanes) {
+      return; // nothing can be applied, see the class comment
+    }
+    overridden = true;
+    lastReason = "override";
+    apply(consumers != null ? Math.max(minConsumers, Math.min(maxConsumers, consumers)) : this.consumers,
+        prefetch != null ? Math.max(1, prefetch) : this.prefetch);
+  }
+
+  /**
+   * Drops an override; the next interval decides from the signals again.
+   */
+  public synchronized void resume() {
+    if (orderedLanes) {
+      return;
+    }
+    overridden = false;
+    lastReason = "resumed";
+  }
+
+  public synchronized Map<String, Object> state() {
+    Map<String, Object> state = new LinkedHashMap<>();
+    state.put("mode", orderedLanes ? "disabled" : overridden ? "override" : "adaptive");
+    if (!orderedLanes) {
+      state.put("consumers", consumers);
+      state.put("prefetch", prefetch);
+      state.put("consumerBounds", minConsumers + ".." + maxConsumers);
+      state.put("prefetchBounds", minPrefetch + ".." + maxPrefetch);
+    }
+    state.put("targetLatencyMs", targetLatencyMs);
+    state.put("lastDecision", lastReason);
+    state.put("lastLatencyMs", lastLatencyMs);
+    if (previous != null) state.put("signals", previous.toMap());
+    return state;
+  }
+
+  private void apply(int consumers, int prefetch) {
+    for (MessageListenerContainer container : registry.getListenerContainers()) {
+      if (container instanceof SimpleMessageListenerContainer smlc
+          && Arrays.asList(smlc.getQueueNames()).contains(AmqpConstants.NEW_ORDERS_QUEUE)) {
+        // Keep concurrent <= max at every step (the container may have scaled itself up to the
+        // configured max before the first decision); pinning both disables its own scaling
+        smlc.setMaxConcurrentConsumers(Math.max(consumers, Math.max(appliedConsumers, maxConsumers)));
+        smlc.setConcurrentConsumers(consumers);
+        smlc.setMaxConcurrentConsumers(consumers);
+        smlc.setPrefetchCount(prefetch);
+      }
+    }
+    this.appliedConsumers = consumers;
+    this.consumers = consumers;
+    this.prefetch = prefetch;
+  }
+}
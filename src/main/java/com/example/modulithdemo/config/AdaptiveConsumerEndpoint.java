@@ -0,0 +1,43 @@
+package com.example.modulithdemo.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET    /actuator/newordersconsumers -> current consumers/prefetch, last decision and signals
+// POST   /actuator/newordersconsumers {"consumers":4,"prefetch":50} -> pin an override
+// DELETE /actuator/newordersconsumers -> back to adaptive
+@Component
+@Endpoint(id = "newordersconsumers")
+@ConditionalOnProperty(name = "app.amqp.new-orders.adaptive.enabled", havingValue = "true")
+public class AdaptiveConsumerEndpoint {
+
+  private final AdaptiveConsumerController controller;
+
+  public AdaptiveConsumerEndpoint(AdaptiveConsumerController controller) {
+    this.controller = controller;
+  }
+
+  @ReadOperation
+  public Map<String, Object> state() {
+    return controller.state();
+  }
+
+  @WriteOperation
+  public Map<String, Object> override(@Nullable Integer consumers, @Nullable Integer prefetch) {
+    controller.override(consumers, prefetch);
+    return controller.state();
+  }
+
+  @DeleteOperation
+  public Map<String, Object> resume() {
+    controller.resume();
+    return controller.state();
+  }
+}
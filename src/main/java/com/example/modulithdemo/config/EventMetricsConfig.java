@@ -0,0 +1,39 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+
+/**
+ * Event pipeline meters that apply to every registry and module listener: {@code events.registry.write}
+ * around the default publication repository (group commit records it per batch itself) and
+ * {@code modulith.listener.handling} around every {@code @ApplicationModuleListener}.
+ */
+@Configuration
+public class EventMetricsConfig {
+
+  @Bean
+  static ModuleListenerTimingPostProcessor moduleListenerTimingPostProcessor(ObjectProvider<MeterRegistry> meters) {
+    return new ModuleListenerTimingPostProcessor(meters);
+  }
+
+  @Bean
+  static BeanPostProcessor timedEventPublicationRepositoryPostProcessor(Environment env,
+      ObjectProvider<MeterRegistry> meters) {
+    boolean groupCommit = env.getProperty("app.events.registry.group-commit.enabled", Boolean.class, false);
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (groupCommit || !(bean instanceof EventPublicationRepository repository)
+            || bean instanceof TimedEventPublicationRepository) {
+          return bean;
+        }
+        return new TimedEventPublicationRepository(repository, meters.getObject());
+      }
+    };
+  }
+}
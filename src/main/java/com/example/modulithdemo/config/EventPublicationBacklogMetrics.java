@@ -0,0 +1,67 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Backlog of incomplete event publications, per target listener ({@code events.registry.incomplete},
+ * tagged listener) and in total ({@code events.registry.incomplete.total}). The count is refreshed on a
+ * schedule rather than per scrape, so a slow scrape never turns into a table scan storm.
+ */
+@Component
+public class EventPublicationBacklogMetrics {
+
+  private static final Logger log = LoggerFactory.getLogger(EventPublicationBacklogMetrics.class);
+
+  private final String sqlBacklog;
+  private final JdbcTemplate jdbc;
+  private final MultiGauge perListener;
+  private final AtomicLong total = new AtomicLong();
+
+  public EventPublicationBacklogMetrics(JdbcTemplate jdbc, EventPublicationTables tables, MeterRegistry meters) {
+    this.sqlBacklog = "SELECT LISTENER_ID, COUNT(*) FROM " + tables.publication()
+        + " WHERE COMPLETION_DATE IS NULL GROUP BY LISTENER_ID";
+    this.jdbc = jdbc;
+    this.perListener = MultiGauge.builder("events.registry.incomplete")
+        .description("Incomplete event publications per listener")
+        .register(meters);
+    Gauge.builder("events.registry.incomplete.total", total, AtomicLong::get)
+        .description("Incomplete event publications")
+        .register(meters);
+  }
+
+  /**
+   * Last observed number of incomplete publications across all listeners.
+   */
+  public long incompleteTotal() {
+    return total.get();
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.events.registry.backlog.refresh-interval-ms:5000}",
+      fixedDelayString = "${app.events.registry.backlog.refresh-interval-ms:5000}")
+  public void refresh() {
+    try {
+      List<Backlog> backlog = jdbc.query(sqlBacklog, (rs, i) -> new Backlog(rs.getString(1), rs.getLong(2)));
+      perListener.register(backlog.stream()
+          .map(it -> MultiGauge.Row.of(Tags.of("listener", it.listenerId()), it.count()))
+          .collect(Collectors.toList()), true);
+      total.set(backlog.stream().mapToLong(Backlog::count).sum());
+    } catch (RuntimeException e) {
+      log.debug("Could not refresh event publication backlog: {}", e.getMessage());
+    }
+  }
+
+  private record Backlog(String listenerId, long count) {}
+}
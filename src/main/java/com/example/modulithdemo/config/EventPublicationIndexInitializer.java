@@ -0,0 +1,54 @@
+package com.example.modulithdemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Adds the partial "incomplete publications" index on Postgres once the Modulith schema exists.
+ * Other databases (H2 in tests) are skipped; the partitioned schema ships the index itself.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.registry.incomplete-index.enabled", havingValue = "true")
+public class EventPublicationIndexInitializer implements SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(EventPublicationIndexInitializer.class);
+
+  private final DataSource dataSource;
+  private final boolean partitioned;
+
+  public EventPublicationIndexInitializer(
+      DataSource dataSource,
+      @Value("${app.events.registry.partitioning.enabled:false}") boolean partitioned
+  ) {
+    this.dataSource = dataSource;
+    this.partitioned = partitioned;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (partitioned) {
+      return;
+    }
+    try {
+      String product = JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> metaData.getDatabaseProductName());
+      if (!"PostgreSQL".equalsIgnoreCase(product)) {
+        log.debug("Skipping event_publication_incomplete_idx on {}", product);
+        return;
+      }
+      new ResourceDatabasePopulator(new ClassPathResource("db/event-publication-indexes-postgresql.sql"))
+          .execute(dataSource);
+      log.info("Ensured index event_publication_incomplete_idx");
+    } catch (Exception e) {
+      log.warn("Could not create event_publication_incomplete_idx: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.modulithdemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lease-based ownership of incomplete event publications, so replicas sharing one database resubmit
+ * disjoint sets of publications. A claim is a conditional UPDATE of an expired lease, or an INSERT
+ * guarded by the primary key; each runs in its own auto-committed statement, so exactly one node wins
+ * per publication and a crashed node's leases simply expire. A live lease is never re-claimed, not
+ * even by its owner, so a later pass does not re-dispatch a publication that is still in flight; the
+ * lease is released once the publication completes, and expired leases are cleaned up periodically.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.republish.leases.enabled", havingValue = "true")
+public class EventPublicationLeases implements InitializingBean {
+
+  private static final Logger log = LoggerFactory.getLogger(EventPublicationLeases.class);
+
+  private final String sqlTakeOver;
+  private final String sqlInsert;
+  private final String sqlRelease;
+  private final String sqlDeleteExpired;
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbc;
+  private final String table;
+  private final String owner;
+  private final Duration leaseDuration;
+  private final String schemaInitialization;
+
+  public EventPublicationLeases(
+      DataSource dataSource,
+      EventPublicationTables tables,
+      @Value("${app.events.node-id:}") String nodeId,
+      @Value("${app.events.republish.leases.duration:5m}") Duration leaseDuration,
+      @Value("${app.schema.initialization:always}") String schemaInitialization
+  ) {
+    this.table = tables.lease();
+    this.sqlTakeOver = "UPDATE " + table + " SET OWNER = ?, LEASED_UNTIL = ? WHERE PUBLICATION_ID = ? AND LEASED_UNTIL < ?";
+    this.sqlInsert = "INSERT INTO " + table + " (PUBLICATION_ID, OWNER, LEASED_UNTIL) VALUES (?, ?, ?)";
+    this.sqlRelease = "DELETE FROM " + table + " WHERE PUBLICATION_ID = ? AND OWNER = ?";
+    this.sqlDeleteExpired = "DELETE FROM " + table + " WHERE LEASED_UNTIL < ?";
+    this.dataSource = dataSource;
+    this.schemaInitialization = schemaInitialization;
+    this.jdbc = new JdbcTemplate(dataSource);
+    this.owner = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    this.leaseDuration = leaseDuration;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    SchemaScripts.apply(dataSource, schemaInitialization, "db/event-publication-lease.sql", "EVENT_PUBLICATION_LEASE",
+        table);
+    log.info("Event publication leases enabled: table={}, owner={}, duration={}", table, owner, leaseDuration);
+  }
+
+  public String owner() {
+    return owner;
+  }
+
+  /**
+   * @return {@code true} if this node now holds the lease for the publication
+   */
+  public boolean claim(UUID publicationId) {
+    Instant now = Instant.now();
+    Timestamp until = Timestamp.from(now.plus(leaseDuration));
+    if (jdbc.update(sqlTakeOver, owner, until, publicationId, Timestamp.from(now)) == 1) {
+      return true;
+    }
+    try {
+      return jdbc.update(sqlInsert, publicationId, owner, until) == 1;
+    } catch (DuplicateKeyException e) {
+      return false; // a live lease exists
+    }
+  }
+
+  public void release(UUID publicationId) {
+    jdbc.update(sqlRelease, publicationId, owner);
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.events.republish.leases.cleanup-interval-ms:60000}",
+      fixedDelayString = "${app.events.republish.leases.cleanup-interval-ms:60000}")
+  public int deleteExpired() {
+    return jdbc.update(sqlDeleteExpired, Timestamp.from(Instant.now()));
+  }
+}
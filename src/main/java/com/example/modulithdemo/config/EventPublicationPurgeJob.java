@@ -0,0 +1,121 @@
+package com.example.modulithdemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Removes completed event publications older than {@code spring.modulith.events.time-to-live}.
+ * Rows are deleted in chunks, each in its own short transaction, so the purge never holds long locks
+ * or a huge undo log. When {@code archive-table} is set, every chunk is copied there first in the same
+ * transaction. With the partitioned Postgres schema, whole expired partitions are dropped before
+ * falling back to row deletes. The table honours Modulith's schema and table-prefix settings.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.registry.purge.enabled", havingValue = "true")
+public class EventPublicationPurgeJob {
+
+  private static final Logger log = LoggerFactory.getLogger(EventPublicationPurgeJob.class);
+
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_.]*");
+
+  private static final String COLUMNS = "ID, LISTENER_ID, EVENT_TYPE, SERIALIZED_EVENT, PUBLICATION_DATE, COMPLETION_DATE";
+
+  private final JdbcTemplate jdbc;
+  private final NamedParameterJdbcTemplate named;
+  private final TransactionTemplate tx;
+  private final ObjectProvider<PartitionedEventPublicationSchema> partitions;
+  private final Duration timeToLive;
+  private final int chunkSize;
+  private final String selectExpired;
+  private final String deleteByIds;
+  private final String archiveInsert;
+
+  public EventPublicationPurgeJob(
+      JdbcTemplate jdbc,
+      TransactionTemplate tx,
+      EventPublicationTables tables,
+      ObjectProvider<PartitionedEventPublicationSchema> partitions,
+      @Value("${spring.modulith.events.time-to-live:7d}") Duration timeToLive,
+      @Value("${app.events.registry.purge.chunk-size:1000}") int chunkSize,
+      @Value("${app.events.registry.purge.archive-table:}") String archiveTable
+  ) {
+    this.jdbc = jdbc;
+    this.named = new NamedParameterJdbcTemplate(jdbc);
+    this.tx = tx;
+    this.partitions = partitions;
+    this.timeToLive = timeToLive;
+    this.chunkSize = chunkSize;
+    String table = tables.publication();
+    this.selectExpired =
+        "SELECT ID FROM " + table + " WHERE COMPLETION_DATE IS NOT NULL AND COMPLETION_DATE < ? LIMIT ?";
+    this.deleteByIds = "DELETE FROM " + table + " WHERE ID IN (:ids)";
+    if (StringUtils.hasText(archiveTable)) {
+      if (!IDENTIFIER.matcher(archiveTable).matches()) {
+        throw new IllegalArgumentException("Invalid archive table name: " + archiveTable);
+      }
+      this.archiveInsert = "INSERT INTO " + archiveTable + " (" + COLUMNS + ") SELECT " + COLUMNS
+          + " FROM " + table + " WHERE ID IN (:ids)";
+    } else {
+      this.archiveInsert = null;
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.events.registry.purge.initial-delay-ms:60000}",
+      fixedDelayString = "${app.events.registry.purge.interval-ms:600000}")
+  public void purge() {
+    purgeCompletedBefore(Instant.now().minus(timeToLive));
+  }
+
+  /**
+   * @return number of publications removed row by row (dropped partitions are not counted)
+   */
+  public long purgeCompletedBefore(Instant cutoff) {
+    PartitionedEventPublicationSchema schema = partitions.getIfAvailable();
+    if (schema != null && archiveInsert == null) {
+      schema.dropPartitionsBefore(cutoff);
+    }
+    long total = 0;
+    int removed;
+    do {
+      removed = purgeChunk(cutoff);
+      total += removed;
+    } while (removed == chunkSize);
+    if (total > 0) {
+      log.info("[EventPublicationPurge] removed {} completed publication(s) older than {}", total, cutoff);
+    }
+    return total;
+  }
+
+  private int purgeChunk(Instant cutoff) {
+    Integer removed = tx.execute(status -> {
+      List<Object> ids = jdbc.queryForList(selectExpired, Object.class, Timestamp.from(cutoff), chunkSize);
+      if (ids.isEmpty()) {
+        return 0;
+      }
+      Map<String, Object> params = Map.of("ids", ids);
+      if (archiveInsert != null) {
+        named.update(archiveInsert, params);
+      }
+      named.update(deleteByIds, params);
+      return ids.size();
+    });
+    return removed == null ? 0 : removed;
+  }
+}
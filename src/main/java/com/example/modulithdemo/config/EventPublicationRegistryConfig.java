@@ -0,0 +1,51 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.jdbc.JdbcEventPublicationRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Opt-in group commit for the JDBC event publication registry
+ * ({@code app.events.registry.group-commit.enabled=true}).
+ * The decorator is {@link Primary}, so the Modulith registry picks it over the plain JDBC repository it wraps.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.events.registry.group-commit.enabled", havingValue = "true")
+public class EventPublicationRegistryConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(EventPublicationRegistryConfig.class);
+
+  @Bean
+  @Primary
+  GroupCommitEventPublicationRepository groupCommitEventPublicationRepository(
+      JdbcEventPublicationRepository jdbcRepository,
+      JdbcTemplate jdbcTemplate,
+      EventSerializer serializer,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meters,
+      @Value("${spring.modulith.events.completion-mode:UPDATE}") String completionMode,
+      EventPublicationTables tables,
+      @Value("${app.events.registry.group-commit.batch-size:200}") int batchSize,
+      @Value("${app.events.registry.group-commit.flush-interval-ms:50}") long flushIntervalMs
+  ) {
+    boolean delete = "DELETE".equalsIgnoreCase(completionMode);
+    if (!delete && !"UPDATE".equalsIgnoreCase(completionMode)) {
+      throw new IllegalStateException("Group commit supports completion-mode UPDATE or DELETE, not " + completionMode);
+    }
+    String table = tables.publication();
+    log.info("Configured event publication group commit: table={}, batchSize={}, flushInterval={}ms, completionMode={}",
+        table, batchSize, flushIntervalMs, completionMode);
+    return new GroupCommitEventPublicationRepository(jdbcRepository, jdbcTemplate, table, serializer,
+        new TransactionTemplate(transactionManager), delete, batchSize, flushIntervalMs, meters);
+  }
+}
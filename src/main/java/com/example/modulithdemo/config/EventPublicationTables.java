@@ -0,0 +1,43 @@
+package com.example.modulithdemo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Names of the event publication tables as Spring Modulith's JDBC repository resolves them:
+ * {@code spring.modulith.events.jdbc.schema} and {@code table-prefix} applied to EVENT_PUBLICATION.
+ * Everything in this application that queries the registry directly takes its table names from here;
+ * the application's own EVENT_PUBLICATION_LEASE table sits next to it under the same schema and prefix.
+ */
+@Component
+public class EventPublicationTables {
+
+  private final String schema;
+  private final String tablePrefix;
+
+  public EventPublicationTables(
+      @Value("${spring.modulith.events.jdbc.schema:}") String schema,
+      @Value("${spring.modulith.events.jdbc.table-prefix:}") String tablePrefix
+  ) {
+    this.schema = schema == null ? "" : schema.trim();
+    this.tablePrefix = tablePrefix == null ? "" : tablePrefix.trim();
+  }
+
+  /** The unqualified, unprefixed names, as with the default settings. */
+  public static EventPublicationTables defaults() {
+    return new EventPublicationTables("", "");
+  }
+
+  public String publication() {
+    return qualified("EVENT_PUBLICATION");
+  }
+
+  public String lease() {
+    return qualified("EVENT_PUBLICATION_LEASE");
+  }
+
+  String qualified(String table) {
+    String prefixed = tablePrefix + table;
+    return schema.isEmpty() ? prefixed : schema + "." + prefixed;
+  }
+}
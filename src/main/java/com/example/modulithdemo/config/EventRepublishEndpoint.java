@@ -0,0 +1,26 @@
+package com.example.modulithdemo.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/eventrepublish -> progress of the startup republish of outstanding publications
+@Component
+@Endpoint(id = "eventrepublish")
+@ConditionalOnProperty(name = "app.events.republish.enabled", havingValue = "true")
+public class EventRepublishEndpoint {
+
+  private final EventRepublishProgress progress;
+
+  public EventRepublishEndpoint(EventRepublishProgress progress) {
+    this.progress = progress;
+  }
+
+  @ReadOperation
+  public Map<String, Object> progress() {
+    return progress.snapshot();
+  }
+}
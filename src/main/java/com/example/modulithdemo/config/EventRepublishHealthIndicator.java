@@ -0,0 +1,34 @@
+package com.example.modulithdemo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health contributor "eventRepublish". With {@code app.events.republish.readiness=wait} it reports
+ * OUT_OF_SERVICE until the backlog has been processed, so adding it to the readiness group keeps the
+ * node out of rotation meanwhile; with {@code ignore} it is always UP and only carries the progress.
+ */
+@Component("eventRepublish")
+@ConditionalOnProperty(name = "app.events.republish.enabled", havingValue = "true")
+public class EventRepublishHealthIndicator implements HealthIndicator {
+
+  private final EventRepublishProgress progress;
+  private final boolean waitForBacklog;
+
+  public EventRepublishHealthIndicator(
+      EventRepublishProgress progress,
+      @Value("${app.events.republish.readiness:ignore}") String readiness
+  ) {
+    this.progress = progress;
+    this.waitForBacklog = "wait".equalsIgnoreCase(readiness);
+  }
+
+  @Override
+  public Health health() {
+    Health.Builder builder = waitForBacklog && !progress.initialRunDone() ? Health.outOfService() : Health.up();
+    return builder.withDetails(progress.snapshot()).build();
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.modulithdemo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the latest republish run (startup or scheduled resubmission), shared by the republisher, the actuator endpoint and the
+ * readiness health indicator.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.republish.enabled", havingValue = "true")
+public class EventRepublishProgress {
+
+  public enum State { PENDING, RUNNING, COMPLETED, FAILED }
+
+  private volatile State state = State.PENDING;
+  private volatile long total;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile String error;
+  private volatile boolean initialRunDone;
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong succeeded = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong skipped = new AtomicLong();
+
+  void started(long total) {
+    submitted.set(0);
+    succeeded.set(0);
+    failed.set(0);
+    skipped.set(0);
+    this.finishedAt = null;
+    this.error = null;
+    this.total = total;
+    this.startedAt = Instant.now();
+    this.state = State.RUNNING;
+  }
+
+  void submitted() {
+    submitted.incrementAndGet();
+  }
+
+  void succeeded() {
+    succeeded.incrementAndGet();
+  }
+
+  void failed() {
+    failed.incrementAndGet();
+  }
+
+  void skipped() {
+    skipped.incrementAndGet();
+  }
+
+  void finished() {
+    this.finishedAt = Instant.now();
+    this.state = State.COMPLETED;
+    this.initialRunDone = true;
+  }
+
+  void failed(Exception e) {
+    this.finishedAt = Instant.now();
+    this.error = e.toString();
+    this.state = State.FAILED;
+    this.initialRunDone = true;
+  }
+
+  public State state() {
+    return state;
+  }
+
+  // True once the startup run has ended; later scheduled resubmissions do not affect readiness
+  public boolean initialRunDone() {
+    return initialRunDone;
+  }
+
+  public Map<String, Object> snapshot() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("state", state);
+    map.put("total", total);
+    map.put("submitted", submitted.get());
+    map.put("succeeded", succeeded.get());
+    map.put("failed", failed.get());
+    map.put("skipped", skipped.get());
+    map.put("remaining", Math.max(0, total - succeeded.get() - failed.get() - skipped.get()));
+    if (startedAt != null) map.put("startedAt", startedAt);
+    if (finishedAt != null) map.put("finishedAt", finishedAt);
+    if (error != null) map.put("error", error);
+    return map;
+  }
+}
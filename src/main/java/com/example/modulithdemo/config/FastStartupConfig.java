@@ -0,0 +1,87 @@
+package com.example.modulithdemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.lang.reflect.Method;
+
+/**
+ * Support for the fast-startup profile (application-fast-startup.yml).
+ * <ul>
+ *   <li>With {@code spring.main.lazy-initialization=true} beans are created on first use, but beans
+ *   with {@code @Scheduled} or {@code @RabbitListener} methods are only discovered when they are
+ *   created, so they stay eager.</li>
+ *   <li>{@code app.amqp.topology.declaration=deferred} stops RabbitAdmin from declaring every
+ *   exchange, queue and binding on each new connection. A listener container still declares the
+ *   topology itself if its queue is missing. The full declaration runs in the background once the
+ *   application is ready, so changed arguments are still applied without delaying the first consumer.</li>
+ * </ul>
+ */
+@Configuration
+public class FastStartupConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(FastStartupConfig.class);
+
+  @Bean
+  static LazyInitializationExcludeFilter eagerScheduledAndListenerBeans() {
+    return (beanName, beanDefinition, beanType) -> beanType != null && hasEagerMethods(beanType);
+  }
+
+  // Package-private for tests
+  static boolean hasEagerMethods(Class<?> beanType) {
+    return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+        isEagerTrigger(method) ? Boolean.TRUE : null).isEmpty();
+  }
+
+  private static boolean isEagerTrigger(Method method) {
+    return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+        || AnnotatedElementUtils.hasAnnotation(method, RabbitListener.class);
+  }
+
+  @Configuration
+  @ConditionalOnProperty(name = "app.amqp.topology.declaration", havingValue = "deferred")
+  static class DeferredTopologyConfig {
+
+    @Bean
+    static BeanPostProcessor deferredRabbitAdmin() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+          if (bean instanceof RabbitAdmin admin) {
+            admin.setAutoStartup(false);
+          }
+          return bean;
+        }
+      };
+    }
+
+    @Bean
+    ApplicationListener<ApplicationReadyEvent> deferredTopologyDeclaration(ObjectProvider<RabbitAdmin> admins) {
+      return event -> admins.ifAvailable(admin -> {
+        Thread declaring = new Thread(() -> {
+          try {
+            admin.initialize();
+            log.info("Declared AMQP topology (deferred)");
+          } catch (RuntimeException e) {
+            log.warn("Deferred AMQP topology declaration failed: {}", e.getMessage());
+          }
+        }, "amqp-topology-declaration");
+        declaring.setDaemon(true);
+        declaring.start();
+      });
+    }
+  }
+}
@@ -0,0 +1,333 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group-commit decorator for the Spring Modulith JDBC event publication repository.
+ *
+ * <ul>
+ *   <li>Inserts made inside a transaction are buffered and written as one JDBC batch in
+ *   {@code beforeCommit}, i.e. still atomically with the business change.</li>
+ *   <li>Inserts made outside a transaction are handed to a flusher thread that writes whatever has
+ *   queued up as one batch; the caller blocks until its row is committed, so {@code publishEvent}
+ *   never returns before the publication is durable.</li>
+ *   <li>Completions (UPDATE or DELETE, per {@code completion-mode}) are coalesced in memory and
+ *   flushed on size or time. A crash loses the pending ones: publications completed within the last
+ *   flush interval are still incomplete after a restart and are delivered again, which at-least-once
+ *   delivery allows. Lookups flush pending completions first.</li>
+ * </ul>
+ * Writes go to the table the Modulith JDBC repository uses ({@link EventPublicationTables#publication}); everything else is
+ * delegated unchanged.
+ */
+public class GroupCommitEventPublicationRepository implements EventPublicationRepository, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(GroupCommitEventPublicationRepository.class);
+
+  private static final String SQL_INSERT =
+      "INSERT INTO %s (ID, EVENT_TYPE, LISTENER_ID, PUBLICATION_DATE, SERIALIZED_EVENT) VALUES (?, ?, ?, ?, ?)";
+  private static final String SQL_COMPLETE_UPDATE = "UPDATE %s SET COMPLETION_DATE = ? WHERE ID = ?";
+  private static final String SQL_COMPLETE_DELETE = "DELETE FROM %s WHERE ID = ?";
+
+  private final String sqlInsert;
+  private final String sqlCompleteUpdate;
+  private final String sqlCompleteDelete;
+  private final EventPublicationRepository delegate;
+  private final JdbcOperations jdbc;
+  private final EventSerializer serializer;
+  private final TransactionTemplate tx;
+  private final boolean deleteOnCompletion;
+  private final int batchSize;
+  private final long flushIntervalMs;
+
+  private final BlockingQueue<PendingInsert> inserts = new LinkedBlockingQueue<>();
+  private final BlockingQueue<PendingCompletion> completions = new LinkedBlockingQueue<>();
+  private final Thread flusher;
+  private volatile boolean running = true;
+
+  private final AtomicLong insertBatches = new AtomicLong();
+  private final AtomicLong insertedPublications = new AtomicLong();
+  private final AtomicLong completionBatches = new AtomicLong();
+  private final Timer insertTimer;
+  private final Timer completionTimer;
+
+  public GroupCommitEventPublicationRepository(EventPublicationRepository delegate, JdbcOperations jdbc, String table,
+      EventSerializer serializer, TransactionTemplate tx, boolean deleteOnCompletion, int batchSize, long flushIntervalMs,
+      MeterRegistry meters) {
+    this.sqlInsert = SQL_INSERT.formatted(table);
+    this.sqlCompleteUpdate = SQL_COMPLETE_UPDATE.formatted(table);
+    this.sqlCompleteDelete = SQL_COMPLETE_DELETE.formatted(table);
+    this.delegate = delegate;
+    this.jdbc = jdbc;
+    this.serializer = serializer;
+    this.tx = tx;
+    this.deleteOnCompletion = deleteOnCompletion;
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+    this.insertTimer = writeTimer(meters, "insert");
+    this.completionTimer = writeTimer(meters, "complete");
+    Gauge.builder("events.registry.pending.completions", completions, BlockingQueue::size)
+        .description("Completions waiting for the next group-commit flush").register(meters);
+    this.flusher = new Thread(this::runFlusher, "event-publication-group-commit");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  private static Timer writeTimer(MeterRegistry meters, String op) {
+    return Timer.builder("events.registry.write")
+        .tag("op", op)
+        .description("Event publication registry JDBC batch write")
+        .register(meters);
+  }
+
+  @Override
+  public TargetEventPublication create(TargetEventPublication publication) {
+    PendingInsert insert = PendingInsert.of(publication, serializer);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      transactionBuffer().add(insert);
+      return publication;
+    }
+    inserts.add(insert);
+    try {
+      insert.done().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
+    }
+    return publication;
+  }
+
+  @Override
+  public void markCompleted(UUID identifier, Instant completionDate) {
+    completions.add(new PendingCompletion(identifier, completionDate));
+  }
+
+  @Override
+  public void markCompleted(TargetEventPublication publication, Instant completionDate) {
+    markCompleted(publication.getIdentifier(), completionDate);
+  }
+
+  @Override
+  public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+    // Looked up by serialized event, not id: cannot be coalesced, but must not overtake pending ones
+    flushCompletions();
+    delegate.markCompleted(event, identifier, completionDate);
+  }
+
+  @Override
+  public List<TargetEventPublication> findIncompletePublications() {
+    flushCompletions();
+    return delegate.findIncompletePublications();
+  }
+
+  @Override
+  public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+    flushCompletions();
+    return delegate.findIncompletePublicationsPublishedBefore(instant);
+  }
+
+  @Override
+  public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+      PublicationTargetIdentifier targetIdentifier) {
+    flushCompletions();
+    return delegate.findIncompletePublicationsByEventAndTargetIdentifier(event, targetIdentifier);
+  }
+
+  @Override
+  public List<TargetEventPublication> findCompletedPublications() {
+    flushCompletions();
+    return delegate.findCompletedPublications();
+  }
+
+  @Override
+  public void deletePublications(List<UUID> identifiers) {
+    flushCompletions();
+    delegate.deletePublications(identifiers);
+  }
+
+  @Override
+  public void deleteCompletedPublications() {
+    flushCompletions();
+    delegate.deleteCompletedPublications();
+  }
+
+  @Override
+  public void deleteCompletedPublicationsBefore(Instant instant) {
+    flushCompletions();
+    delegate.deleteCompletedPublicationsBefore(instant);
+  }
+
+  public long insertBatches() {
+    return insertBatches.get();
+  }
+
+  public long insertedPublications() {
+    return insertedPublications.get();
+  }
+
+  public long completionBatches() {
+    return completionBatches.get();
+  }
+
+  public int pendingCompletions() {
+    return completions.size();
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    running = false;
+    flusher.interrupt();
+    flusher.join(TimeUnit.SECONDS.toMillis(5));
+    drainInserts();
+    flushCompletions();
+  }
+
+  // --- transaction-bound inserts ---
+
+  private List<PendingInsert> transactionBuffer() {
+    @SuppressWarnings("unchecked")
+    List<PendingInsert> buffer = (List<PendingInsert>) TransactionSynchronizationManager.getResource(this);
+    if (buffer == null) {
+      List<PendingInsert> created = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(this, created);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+          // Same connection and transaction as the business change
+          writeInserts(created);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(GroupCommitEventPublicationRepository.this);
+        }
+      });
+      buffer = created;
+    }
+    return buffer;
+  }
+
+  // --- flusher thread ---
+
+  private void runFlusher() {
+    long lastCompletionFlush = System.nanoTime();
+    while (running) {
+      try {
+        PendingInsert first = inserts.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first != null) {
+          // Group commit: everything that queued up while the previous batch was being written
+          List<PendingInsert> batch = new ArrayList<>();
+          batch.add(first);
+          inserts.drainTo(batch, batchSize - 1);
+          commitInserts(batch);
+        }
+        long sinceLast = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastCompletionFlush);
+        if (completions.size() >= batchSize || sinceLast >= flushIntervalMs) {
+          flushCompletions();
+          lastCompletionFlush = System.nanoTime();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        log.error("[GroupCommit] flusher iteration failed", e);
+      }
+    }
+  }
+
+  private void drainInserts() {
+    List<PendingInsert> batch = new ArrayList<>();
+    while (inserts.drainTo(batch, batchSize) > 0) {
+      commitInserts(batch);
+      batch = new ArrayList<>();
+    }
+  }
+
+  private void commitInserts(List<PendingInsert> batch) {
+    try {
+      tx.executeWithoutResult(status -> writeInserts(batch));
+      batch.forEach(it -> it.done().complete(null));
+    } catch (RuntimeException e) {
+      batch.forEach(it -> it.done().completeExceptionally(e));
+    }
+  }
+
+  private void writeInserts(List<PendingInsert> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    insertTimer.record(() -> jdbc.batchUpdate(sqlInsert, batch, batch.size(), (ps, it) -> {
+      ps.setObject(1, it.id());
+      ps.setString(2, it.eventType());
+      ps.setString(3, it.listenerId());
+      ps.setTimestamp(4, Timestamp.from(it.publicationDate()));
+      ps.setString(5, it.serializedEvent());
+    }));
+    insertBatches.incrementAndGet();
+    insertedPublications.addAndGet(batch.size());
+  }
+
+  synchronized void flushCompletions() {
+    List<PendingCompletion> batch = new ArrayList<>();
+    while (completions.drainTo(batch, batchSize) > 0) {
+      List<PendingCompletion> current = batch;
+      try {
+        completionTimer.record(() -> {
+          if (deleteOnCompletion) {
+            jdbc.batchUpdate(sqlCompleteDelete, current, current.size(), (ps, it) -> ps.setObject(1, it.id()));
+          } else {
+            jdbc.batchUpdate(sqlCompleteUpdate, current, current.size(), (ps, it) -> {
+              ps.setTimestamp(1, Timestamp.from(it.completionDate()));
+              ps.setObject(2, it.id());
+            });
+          }
+        });
+        completionBatches.incrementAndGet();
+      } catch (RuntimeException e) {
+        // Publications stay incomplete and will be resubmitted: at-least-once is preserved
+        log.warn("[GroupCommit] failed to flush {} completion(s); they will be resubmitted", current.size(), e);
+      }
+      batch = new ArrayList<>();
+    }
+  }
+
+  record PendingInsert(UUID id, String eventType, String listenerId, Instant publicationDate, String serializedEvent,
+      CompletableFuture<Void> done) {
+
+    static PendingInsert of(TargetEventPublication publication, EventSerializer serializer) {
+      Object event = publication.getEvent();
+      return new PendingInsert(publication.getIdentifier(), event.getClass().getName(),
+          publication.getTargetIdentifier().getValue(), publication.getPublicationDate(),
+          serializer.serialize(event).toString(), new CompletableFuture<>());
+    }
+  }
+
+  record PendingCompletion(UUID id, Instant completionDate) {}
+}
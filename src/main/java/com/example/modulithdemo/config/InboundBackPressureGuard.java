@@ -0,0 +1,164 @@
+package com.example.modulithdemo.config;
+
+import com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pauses intake from 'new-orders' while the application cannot keep up, so the backlog waits in the
+ * broker queue instead of as incomplete event publications in the database and in our heap.
+ * <ul>
+ *   <li>Pause when the event registry backlog reaches backlog-high, or pool-pending-high threads wait
+ *   for a Hikari connection.</li>
+ *   <li>Resume once both are at or below their low-water marks (backlog-low, pool-pending-low) and
+ *   the pause has lasted at least min-pause, so a pool that drains as soon as intake stops does not
+ *   restart the consumers every interval.</li>
+ * </ul>
+ * Pausing stops the listener containers of 'new-orders' (unacked prefetched deliveries go back to the
+ * queue); resuming starts only the containers paused here, never one stopped by someone else. Signals
+ * that cannot be read (-1) neither pause nor hold a pause.
+ * <p>
+ * Meters: {@code orders.inbound.backpressure.paused} (1 while paused) and
+ * {@code orders.inbound.backpressure.pauses} tagged with the reason (registry-backlog | db-pool).
+ * The health contributor {@link InboundBackPressureHealthIndicator} carries the state.
+ */
+@Component
+@ConditionalOnProperty(name = "app.amqp.new-orders.back-pressure.enabled", havingValue = "true")
+public class InboundBackPressureGuard {
+
+  private static final Logger log = LoggerFactory.getLogger(InboundBackPressureGuard.class);
+
+  static final String REGISTRY_BACKLOG = "registry-backlog";
+  static final String DB_POOL = "db-pool";
+
+  private final RabbitListenerEndpointRegistry registry;
+  private final InboundLoadSignals signals;
+  private final long backlogHigh;
+  private final long backlogLow;
+  private final int poolPendingHigh;
+  private final int poolPendingLow;
+  private final long minPauseNanos;
+
+  private final MeterRegistry meters;
+  private final List<MessageListenerContainer> pausedContainers = new ArrayList<>();
+  private volatile boolean paused;
+  private String reason = "none";
+  private long pausedAtNanos;
+  private long pauses;
+  private InboundLoadSignals.Snapshot last;
+
+  public InboundBackPressureGuard(
+      RabbitListenerEndpointRegistry registry,
+      InboundLoadSignals signals,
+      MeterRegistry meters,
+      @Value("${app.amqp.new-orders.back-pressure.backlog-high:20000}") long backlogHigh,
+      @Value("${app.amqp.new-orders.back-pressure.backlog-low:5000}") long backlogLow,
+      @Value("${app.amqp.new-orders.back-pressure.pool-pending-high:5}") int poolPendingHigh,
+      @Value("${app.amqp.new-orders.back-pressure.pool-pending-low:0}") int poolPendingLow,
+      @Value("${app.amqp.new-orders.back-pressure.min-pause:10s}") Duration minPause
+  ) {
+    this.registry = registry;
+    this.signals = signals;
+    this.meters = meters;
+    this.backlogHigh = Math.max(1, backlogHigh);
+    this.backlogLow = Math.min(Math.max(0, backlogLow), this.backlogHigh - 1);
+    this.poolPendingHigh = Math.max(1, poolPendingHigh);
+    this.poolPendingLow = Math.min(Math.max(0, poolPendingLow), this.poolPendingHigh - 1);
+    this.minPauseNanos = minPause.toNanos();
+    Gauge.builder("orders.inbound.backpressure.paused", this, guard -> guard.paused ? 1 : 0)
+        .description("1 while intake from new-orders is paused by back-pressure")
+        .register(meters);
+  }
+
+  // Queue depth is not needed for the decision, so no broker round trip per interval
+  @Scheduled(
+      initialDelayString = "${app.amqp.new-orders.back-pressure.interval-ms:1000}",
+      fixedDelayString = "${app.amqp.new-orders.back-pressure.interval-ms:1000}")
+  public void check() {
+    evaluate(signals.sample(false), System.nanoTime());
+  }
+
+  // Package-private for tests
+  synchronized void evaluate(InboundLoadSignals.Snapshot s, long nowNanos) {
+    last = s;
+    if (!paused) {
+      String cause = s.registryBacklog() >= backlogHigh ? REGISTRY_BACKLOG
+          : s.poolPending() >= poolPendingHigh ? DB_POOL : null;
+      if (cause != null) {
+        pause(cause, s, nowNanos);
+      }
+    } else if (nowNanos - pausedAtNanos >= minPauseNanos
+        && s.registryBacklog() <= backlogLow && s.poolPending() <= poolPendingLow) {
+      resume(s);
+    }
+  }
+
+  public boolean isPaused() {
+    return paused;
+  }
+
+  public synchronized Map<String, Object> state() {
+    Map<String, Object> state = new LinkedHashMap<>();
+    state.put("state", paused ? "paused" : "flowing");
+    state.put("reason", reason);
+    state.put("pauses", pauses);
+    state.put("backlogMarks", backlogLow + ".." + backlogHigh);
+    state.put("poolPendingMarks", poolPendingLow + ".." + poolPendingHigh);
+    if (last != null) state.put("signals", last.toMap());
+    return state;
+  }
+
+  private void pause(String cause, InboundLoadSignals.Snapshot s, long nowNanos) {
+    paused = true;
+    reason = cause;
+    pausedAtNanos = nowNanos;
+    pauses++;
+    Counter.builder("orders.inbound.backpressure.pauses")
+        .tag("reason", cause)
+        .description("Times intake from new-orders was paused by back-pressure")
+        .register(meters)
+        .increment();
+    log.warn("[InboundBackPressureGuard] Pausing '{}' intake ({}): registry backlog {}, db pool pending {}",
+        AmqpConstants.NEW_ORDERS_QUEUE, cause, s.registryBacklog(), s.poolPending());
+    for (MessageListenerContainer container : registry.getListenerContainers()) {
+      if (consumesNewOrders(container) && container.isRunning()) {
+        // Asynchronous stop: in-flight deliveries finish without holding up the scheduler thread
+        container.stop(() -> log.debug("[InboundBackPressureGuard] Listener container stopped"));
+        pausedContainers.add(container);
+      }
+    }
+  }
+
+  private void resume(InboundLoadSignals.Snapshot s) {
+    log.info("[InboundBackPressureGuard] Resuming '{}' intake: registry backlog {}, db pool pending {}",
+        AmqpConstants.NEW_ORDERS_QUEUE, s.registryBacklog(), s.poolPending());
+    for (MessageListenerContainer container : pausedContainers) {
+      container.start();
+    }
+    pausedContainers.clear();
+    paused = false;
+    reason = "none";
+  }
+
+  private static boolean consumesNewOrders(MessageListenerContainer container) {
+    return container instanceof AbstractMessageListenerContainer amlc
+        && Arrays.asList(amlc.getQueueNames()).contains(AmqpConstants.NEW_ORDERS_QUEUE);
+  }
+}
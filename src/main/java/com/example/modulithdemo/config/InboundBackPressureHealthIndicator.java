@@ -0,0 +1,34 @@
+package com.example.modulithdemo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health contributor "newOrdersBackPressure". With {@code app.amqp.new-orders.back-pressure.readiness=out-of-service}
+ * it reports OUT_OF_SERVICE while intake is paused, so the readiness group also sheds HTTP traffic
+ * from an overloaded node; with {@code ignore} it is always UP and only carries the state.
+ */
+@Component("newOrdersBackPressure")
+@ConditionalOnProperty(name = "app.amqp.new-orders.back-pressure.enabled", havingValue = "true")
+public class InboundBackPressureHealthIndicator implements HealthIndicator {
+
+  private final InboundBackPressureGuard guard;
+  private final boolean outOfServiceWhilePaused;
+
+  public InboundBackPressureHealthIndicator(
+      InboundBackPressureGuard guard,
+      @Value("${app.amqp.new-orders.back-pressure.readiness:ignore}") String readiness
+  ) {
+    this.guard = guard;
+    this.outOfServiceWhilePaused = "out-of-service".equalsIgnoreCase(readiness);
+  }
+
+  @Override
+  public Health health() {
+    Health.Builder builder = outOfServiceWhilePaused && guard.isPaused() ? Health.outOfService() : Health.up();
+    return builder.withDetails(guard.state()).build();
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.modulithdemo.config;
+
+import com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples what actually limits the 'new-orders' pipeline: handler latency (from the
+ * {@code orders.inbound.processing} timers), Hikari pool usage, the event publication backlog and
+ * the broker-side queue depth. Consumers of the signals keep their previous {@link Snapshot} to
+ * compute per-interval rates.
+ */
+@Component
+public class InboundLoadSignals {
+
+  private static final Logger log = LoggerFactory.getLogger(InboundLoadSignals.class);
+
+  private final MeterRegistry meters;
+  private final ObjectProvider<DataSource> dataSource;
+  private final ObjectProvider<AmqpAdmin> amqpAdmin;
+  private final EventPublicationBacklogMetrics backlog;
+
+  public InboundLoadSignals(MeterRegistry meters, ObjectProvider<DataSource> dataSource,
+      ObjectProvider<AmqpAdmin> amqpAdmin, EventPublicationBacklogMetrics backlog) {
+    this.meters = meters;
+    this.dataSource = dataSource;
+    this.amqpAdmin = amqpAdmin;
+    this.backlog = backlog;
+  }
+
+  /**
+   * Point-in-time view. Counters are cumulative; -1 marks a signal that could not be read.
+   */
+  public record Snapshot(
+      long handled,
+      double handledTimeMs,
+      int poolActive,
+      int poolMax,
+      int poolPending,
+      long registryBacklog,
+      long queueDepth
+  ) {
+
+    /** Mean receive-to-settle latency of the deliveries handled since {@code previous}, or -1. */
+    public double meanLatencyMsSince(Snapshot previous) {
+      long count = handled - (previous != null ? previous.handled : 0);
+      double time = handledTimeMs - (previous != null ? previous.handledTimeMs : 0);
+      return count > 0 ? time / count : -1;
+    }
+
+    /** Fraction of the pool in use, or -1 if unknown. */
+    public double poolUsage() {
+      return poolMax > 0 ? (double) poolActive / poolMax : -1;
+    }
+
+    public Map<String, Object> toMap() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("handled", handled);
+      map.put("poolActive", poolActive);
+      map.put("poolMax", poolMax);
+      map.put("poolPending", poolPending);
+      map.put("registryBacklog", registryBacklog);
+      map.put("queueDepth", queueDepth);
+      return map;
+    }
+  }
+
+  public Snapshot sample() {
+    return sample(true);
+  }
+
+  /**
+   * @param includeQueueDepth false skips the broker round trip (queueDepth is then -1), for callers
+   *                          sampling more often than the queue depth is worth reading
+   */
+  public Snapshot sample(boolean includeQueueDepth) {
+    long handled = 0;
+    double handledTimeMs = 0;
+    for (Timer timer : meters.find("orders.inbound.processing").timers()) {
+      handled += timer.count();
+      handledTimeMs += timer.totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    int active = -1;
+    int max = -1;
+    int pending = -1;
+    HikariDataSource hikari = hikari();
+    HikariPoolMXBean pool = hikari != null ? hikari.getHikariPoolMXBean() : null;
+    if (pool != null) {
+      active = pool.getActiveConnections();
+      max = hikari.getMaximumPoolSize();
+      pending = pool.getThreadsAwaitingConnection();
+    }
+
+    return new Snapshot(handled, handledTimeMs, active, max, pending, backlog.incompleteTotal(),
+        includeQueueDepth ? queueDepth() : -1);
+  }
+
+  private HikariDataSource hikari() {
+    DataSource ds = dataSource.getIfAvailable();
+    try {
+      return ds != null && ds.isWrapperFor(HikariDataSource.class) ? ds.unwrap(HikariDataSource.class) : null;
+    } catch (SQLException e) {
+      return null;
+    }
+  }
+
+  // One passive queue declare against the broker; -1 while it is unreachable
+  private long queueDepth() {
+    AmqpAdmin admin = amqpAdmin.getIfAvailable();
+    if (admin == null) return -1;
+    try {
+      QueueInformation info = admin.getQueueInfo(AmqpConstants.NEW_ORDERS_QUEUE);
+      return info != null ? info.getMessageCount() : -1;
+    } catch (RuntimeException e) {
+      log.debug("Could not read depth of '{}': {}", AmqpConstants.NEW_ORDERS_QUEUE, e.getMessage());
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.modulithdemo.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates INBOUND_MESSAGE_DEDUP for the persistent tier of the new-orders deduplicator
+ * (messaging.inbound.amqp.NewOrderDeduplicator), according to {@code app.schema.initialization}.
+ * It lives here rather than in the deduplicator because messaging does not depend on config.
+ */
+@Component
+@ConditionalOnProperty(name = "app.amqp.new-orders.idempotency.jdbc.enabled", havingValue = "true")
+public class InboundMessageDedupSchema implements InitializingBean {
+
+  private final DataSource dataSource;
+  private final String schemaInitialization;
+
+  public InboundMessageDedupSchema(
+      DataSource dataSource,
+      @Value("${app.schema.initialization:always}") String schemaInitialization
+  ) {
+    this.dataSource = dataSource;
+    this.schemaInitialization = schemaInitialization;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    SchemaScripts.apply(dataSource, schemaInitialization, "db/inbound-message-dedup.sql", "INBOUND_MESSAGE_DEDUP");
+  }
+}
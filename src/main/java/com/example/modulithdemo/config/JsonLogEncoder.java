@@ -0,0 +1,126 @@
+package com.example.modulithdemo.config;
+
+import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import org.slf4j.event.KeyValuePair;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logback encoder writing one JSON object per line with the field names of Elastic Common Schema
+ * (the same layout as Spring Boot's {@code logging.structured.format.console=ecs}): @timestamp,
+ * log.level, log.logger, process.thread.name, service.name, message, error.*, and MDC entries and
+ * SLF4J key-value pairs as top-level fields.
+ * <p>
+ * Written with a Jackson generator straight into a byte buffer; Boot's structured encoder appends
+ * the JSON one character at a time through an unbuffered writer, which costs several times more
+ * per event (OrderPipelineLoggingBenchmark). Used by logback-async-json.xml (json-logs profile).
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+  private static final JsonFactory JSON = new JsonFactory();
+  private static final byte[] LINE = {'\n'};
+
+  private final ThrowableProxyConverter throwables = new ThrowableProxyConverter();
+  private String serviceName;
+
+  public void setServiceName(String serviceName) {
+    this.serviceName = serviceName;
+  }
+
+  @Override
+  public void start() {
+    throwables.setContext(getContext());
+    throwables.start();
+    super.start();
+  }
+
+  @Override
+  public byte[] headerBytes() {
+    return null;
+  }
+
+  @Override
+  public byte[] footerBytes() {
+    return null;
+  }
+
+  @Override
+  public byte[] encode(ILoggingEvent event) {
+    try (ByteArrayBuilder out = new ByteArrayBuilder(512);
+         JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+      json.writeStartObject();
+      json.writeStringField("@timestamp", DateTimeFormatter.ISO_INSTANT.format(event.getInstant()));
+      json.writeObjectFieldStart("log");
+      json.writeStringField("level", event.getLevel().toString());
+      json.writeStringField("logger", event.getLoggerName());
+      json.writeEndObject();
+      json.writeObjectFieldStart("process");
+      json.writeObjectFieldStart("thread");
+      json.writeStringField("name", event.getThreadName());
+      json.writeEndObject();
+      json.writeEndObject();
+      if (serviceName != null && !serviceName.isEmpty()) {
+        json.writeObjectFieldStart("service");
+        json.writeStringField("name", serviceName);
+        json.writeEndObject();
+      }
+      json.writeStringField("message", event.getFormattedMessage());
+      Map<String, String> mdc = event.getMDCPropertyMap();
+      if (mdc != null) {
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+          json.writeStringField(entry.getKey(), entry.getValue());
+        }
+      }
+      List<KeyValuePair> pairs = event.getKeyValuePairs();
+      if (pairs != null) {
+        for (KeyValuePair pair : pairs) {
+          json.writeFieldName(pair.key);
+          writeValue(json, pair.value);
+        }
+      }
+      IThrowableProxy thrown = event.getThrowableProxy();
+      if (thrown != null) {
+        json.writeObjectFieldStart("error");
+        json.writeStringField("type", thrown.getClassName());
+        json.writeStringField("message", thrown.getMessage());
+        json.writeStringField("stack_trace", throwables.convert(event));
+        json.writeEndObject();
+      }
+      json.writeObjectFieldStart("ecs");
+      json.writeStringField("version", "8.11");
+      json.writeEndObject();
+      json.writeEndObject();
+      json.flush();
+      out.write(LINE);
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Numbers and booleans stay JSON numbers/booleans; anything else is written as its string form
+  private static void writeValue(JsonGenerator json, Object value) throws IOException {
+    if (value == null) {
+      json.writeNull();
+    } else if (value instanceof Boolean b) {
+      json.writeBoolean(b);
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+      json.writeNumber(((Number) value).longValue());
+    } else if (value instanceof Number n) {
+      json.writeNumber(n.doubleValue());
+    } else {
+      json.writeString(value.toString());
+    }
+  }
+}
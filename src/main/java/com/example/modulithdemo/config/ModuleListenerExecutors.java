@@ -0,0 +1,87 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+
+/**
+ * Bulkheads for {@code @ApplicationModuleListener} handlers: every module gets its own bounded pool,
+ * picked by putting {@code @Async("<module>ListenerExecutor")} next to the annotation, so a slow
+ * module can only exhaust its own capacity.
+ * <p>
+ * A full pool rejects the hand-off instead of queueing without bound. The listener then never
+ * runs, so its event publication stays incomplete and is resubmitted later (restart republish or
+ * app.events.resubmission) rather than lost.
+ * <p>
+ * Meters per module: {@code modulith.listener.executor.rejected} and
+ * {@code modulith.listener.executor.saturation} ((active + queued) / (max + queue capacity));
+ * the actuator adds the usual {@code executor.*} meters tagged with the bean name.
+ */
+@Configuration
+public class ModuleListenerExecutors {
+
+  private static final Logger log = LoggerFactory.getLogger(ModuleListenerExecutors.class);
+
+  public static final String INVENTORY = "inventoryListenerExecutor";
+
+  @Bean(INVENTORY)
+  ThreadPoolTaskExecutor inventoryListenerExecutor(
+      @Value("${app.events.listeners.inventory.core-size:2}") int coreSize,
+      @Value("${app.events.listeners.inventory.max-size:8}") int maxSize,
+      @Value("${app.events.listeners.inventory.queue-capacity:1000}") int queueCapacity,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      MeterRegistry meters
+  ) {
+    return bounded("inventory", coreSize, maxSize, queueCapacity, virtualThreads, meters);
+  }
+
+  // Package-private for tests
+  static ThreadPoolTaskExecutor bounded(String module, int coreSize, int maxSize, int queueCapacity,
+      boolean virtualThreads, MeterRegistry meters) {
+    int max = Math.max(1, maxSize);
+    int capacity = Math.max(0, queueCapacity);
+    Counter rejected = Counter.builder("modulith.listener.executor.rejected")
+        .tag("module", module)
+        .description("Module listener invocations rejected by a full executor (publication left incomplete)")
+        .register(meters);
+
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix(module + "-listener-");
+    executor.setCorePoolSize(Math.min(Math.max(1, coreSize), max));
+    executor.setMaxPoolSize(max);
+    executor.setQueueCapacity(capacity);
+    executor.setVirtualThreads(virtualThreads);
+    executor.setRejectedExecutionHandler(rejecting(module, rejected));
+    // Queued and running listeners get up to 30s on shutdown; whatever is cut off stays incomplete
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    executor.initialize();
+
+    Gauge.builder("modulith.listener.executor.saturation", executor,
+            e -> (double) (e.getActiveCount() + e.getQueueSize()) / (max + capacity))
+        .tag("module", module)
+        .description("Busy threads plus queued invocations relative to the executor's capacity")
+        .register(meters);
+    log.info("Configured '{}' module listener executor: core={}, max={}, queue={}", module,
+        executor.getCorePoolSize(), max, capacity);
+    return executor;
+  }
+
+  private static RejectedExecutionHandler rejecting(String module, Counter rejected) {
+    return (task, pool) -> {
+      rejected.increment();
+      log.warn("[ModuleListenerExecutors] '{}' listener executor saturated (active={}, queued={}); "
+          + "publication left incomplete for resubmission", module, pool.getActiveCount(), pool.getQueue().size());
+      throw new RejectedExecutionException("'" + module + "' listener executor saturated");
+    };
+  }
+}
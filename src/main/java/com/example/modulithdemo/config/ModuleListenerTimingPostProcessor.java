@@ -0,0 +1,52 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.modulith.events.ApplicationModuleListener;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every {@code @ApplicationModuleListener} method as {@code modulith.listener.handling}, tagged
+ * {@code listener=<Class>.<method>(<Event>)}, so new listeners are measured without wiring a timer.
+ * The advice is added after existing ones: behind {@code @Async} it runs on the module's executor and
+ * measures the handling (inside the listener's transaction), not the hand-off.
+ */
+public class ModuleListenerTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+  public ModuleListenerTimingPostProcessor(ObjectProvider<MeterRegistry> meters) {
+    Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    MethodInterceptor timing = invocation -> {
+      Timer timer = timers.computeIfAbsent(invocation.getMethod(), m -> timer(meters.getObject(), invocation));
+      Timer.Sample sample = Timer.start();
+      try {
+        return invocation.proceed();
+      } finally {
+        sample.stop(timer);
+      }
+    };
+    this.advisor = new DefaultPointcutAdvisor(
+        AnnotationMatchingPointcut.forMethodAnnotation(ApplicationModuleListener.class), timing);
+    setProxyTargetClass(true);
+    setBeforeExistingAdvisors(false);
+  }
+
+  private static Timer timer(MeterRegistry meters, MethodInvocation invocation) {
+    Method method = invocation.getMethod();
+    Object target = invocation.getThis();
+    String type = (target != null ? target.getClass() : method.getDeclaringClass()).getSimpleName();
+    String event = method.getParameterCount() == 1 ? method.getParameterTypes()[0].getSimpleName() : "";
+    return Timer.builder("modulith.listener.handling")
+        .tag("listener", type + "." + method.getName() + "(" + event + ")")
+        .description("@ApplicationModuleListener handling latency")
+        .register(meters);
+  }
+}
@@ -0,0 +1,280 @@
+package com.example.modulithdemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalApplicationListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replacement for {@code spring.modulith.events.republish-outstanding-events-on-restart}: instead of
+ * loading every incomplete publication and resubmitting them serially during startup, this pages
+ * through them by keyset (publication_date, id) in the background, dispatches each to its target
+ * listener on a bounded pool and caps the overall rate. Only publications that existed when the node
+ * became ready are considered. Module listeners run asynchronously, so a worker holds its slot until
+ * the publication is marked completed (or {@code completion-timeout} passes, counted as a failure):
+ * parallelism, progress and readiness reflect processed publications, not submitted ones. Progress is
+ * exposed via {@link EventRepublishEndpoint}; readiness can wait for the backlog through
+ * {@link EventRepublishHealthIndicator}.
+ * <p>
+ * With {@link EventPublicationLeases} enabled, every publication is claimed before it is dispatched,
+ * so replicas sharing the database split the backlog instead of all republishing it. The same path
+ * then also serves a periodic resubmission of stale incomplete publications
+ * ({@code app.events.resubmission.*}), which scales out with the number of nodes; resubmission refuses
+ * to start without leases.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.republish.enabled", havingValue = "true")
+public class OutstandingEventRepublisher {
+
+  private static final Logger log = LoggerFactory.getLogger(OutstandingEventRepublisher.class);
+
+  private static final long MAX_POLL_INTERVAL_MS = 500;
+  private static final UUID MIN_UUID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+  private final String sqlCount;
+  private final String sqlPage;
+  private final String sqlPageUnleased;
+  private final String sqlIncomplete;
+  private final JdbcTemplate jdbc;
+  private final EventSerializer serializer;
+  private final ApplicationContext context;
+  private final EventRepublishProgress progress;
+  private final EventPublicationLeases leases;
+  private final int pageSize;
+  private final int parallelism;
+  private final double ratePerSecond;
+  private final boolean resubmissionEnabled;
+  private final Duration resubmissionMinAge;
+  private final Duration completionTimeout;
+
+  public OutstandingEventRepublisher(
+      JdbcTemplate jdbc,
+      EventPublicationTables tables,
+      EventSerializer serializer,
+      ApplicationContext context,
+      EventRepublishProgress progress,
+      ObjectProvider<EventPublicationLeases> leases,
+      @Value("${spring.modulith.events.republish-outstanding-events-on-restart:false}") boolean modulithRepublish,
+      @Value("${app.events.republish.page-size:500}") int pageSize,
+      @Value("${app.events.republish.parallelism:4}") int parallelism,
+      @Value("${app.events.republish.rate-per-second:200}") double ratePerSecond,
+      @Value("${app.events.republish.completion-timeout:4m}") Duration completionTimeout,
+      @Value("${app.events.resubmission.enabled:false}") boolean resubmissionEnabled,
+      @Value("${app.events.resubmission.min-age:1m}") Duration resubmissionMinAge
+  ) {
+    if (modulithRepublish) {
+      throw new IllegalStateException("app.events.republish.enabled replaces Modulith's own restart republish; "
+          + "set spring.modulith.events.republish-outstanding-events-on-restart=false");
+    }
+    if (resubmissionEnabled && leases.getIfAvailable() == null) {
+      // Without claims every replica would resubmit (and re-run) the same stale publications each interval
+      throw new IllegalStateException("app.events.resubmission.enabled requires event publication leases; "
+          + "set app.events.republish.leases.enabled=true");
+    }
+    String publication = tables.publication();
+    this.sqlCount = "SELECT COUNT(*) FROM " + publication
+        + " WHERE COMPLETION_DATE IS NULL AND PUBLICATION_DATE <= ?";
+    this.sqlPage = """
+        SELECT ID, LISTENER_ID, EVENT_TYPE, SERIALIZED_EVENT, PUBLICATION_DATE FROM %s
+         WHERE COMPLETION_DATE IS NULL AND PUBLICATION_DATE <= ?
+           AND (PUBLICATION_DATE > ? OR (PUBLICATION_DATE = ? AND ID > ?))
+         ORDER BY PUBLICATION_DATE, ID
+         LIMIT ?
+        """.formatted(publication);
+    // Leased variant: skip rows with a live lease (another node's, or still in flight here), so pages
+    // are not filled with lost claims
+    this.sqlPageUnleased = """
+        SELECT p.ID, p.LISTENER_ID, p.EVENT_TYPE, p.SERIALIZED_EVENT, p.PUBLICATION_DATE FROM %s p
+         WHERE p.COMPLETION_DATE IS NULL AND p.PUBLICATION_DATE <= ?
+           AND (p.PUBLICATION_DATE > ? OR (p.PUBLICATION_DATE = ? AND p.ID > ?))
+           AND NOT EXISTS (SELECT 1 FROM %s l
+                            WHERE l.PUBLICATION_ID = p.ID AND l.LEASED_UNTIL >= ?)
+         ORDER BY p.PUBLICATION_DATE, p.ID
+         LIMIT ?
+        """.formatted(publication, tables.lease());
+    this.sqlIncomplete = "SELECT COUNT(*) FROM " + publication + " WHERE ID = ? AND COMPLETION_DATE IS NULL";
+    this.jdbc = jdbc;
+    this.serializer = serializer;
+    this.context = context;
+    this.progress = progress;
+    this.leases = leases.getIfAvailable();
+    this.pageSize = pageSize;
+    this.parallelism = parallelism;
+    this.ratePerSecond = ratePerSecond;
+    this.resubmissionEnabled = resubmissionEnabled;
+    this.resubmissionMinAge = resubmissionMinAge;
+    this.completionTimeout = completionTimeout;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    Thread coordinator = new Thread(() -> republishPublishedBefore(Instant.now()), "event-republish");
+    coordinator.setDaemon(true);
+    coordinator.start();
+  }
+
+  // Periodic pass over publications that stayed incomplete for at least min-age
+  @Scheduled(
+      initialDelayString = "${app.events.resubmission.interval-ms:60000}",
+      fixedDelayString = "${app.events.resubmission.interval-ms:60000}")
+  public void resubmitStale() {
+    if (!resubmissionEnabled || progress.state() == EventRepublishProgress.State.RUNNING) {
+      return;
+    }
+    republishPublishedBefore(Instant.now().minus(resubmissionMinAge));
+  }
+
+  public synchronized void republishPublishedBefore(Instant cutoff) {
+    Timestamp until = Timestamp.from(cutoff);
+    Long total = jdbc.queryForObject(sqlCount, Long.class, until);
+    progress.started(total == null ? 0 : total);
+    log.info("[EventRepublish] republishing {} outstanding publication(s): parallelism={}, rate={}/s",
+        total, parallelism, ratePerSecond);
+
+    Map<String, TransactionalApplicationListener<ApplicationEvent>> listeners = transactionalListeners();
+    RateLimiter limiter = new RateLimiter(ratePerSecond);
+    AtomicInteger threads = new AtomicInteger();
+    // Bounded queue + caller-runs: the pager never reads far ahead of what the workers can dispatch
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(parallelism * 2),
+        r -> new Thread(r, "event-republish-" + threads.incrementAndGet()),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    try {
+      Timestamp lastDate = new Timestamp(0);
+      UUID lastId = MIN_UUID;
+      List<Row> page;
+      do {
+        page = nextPage(until, lastDate, lastId);
+        for (Row row : page) {
+          limiter.acquire();
+          pool.execute(() -> dispatch(row, listeners));
+        }
+        if (!page.isEmpty()) {
+          Row last = page.get(page.size() - 1);
+          lastDate = last.publicationDate();
+          lastId = last.id();
+        }
+      } while (page.size() == pageSize);
+      pool.shutdown();
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      progress.finished();
+      log.info("[EventRepublish] done: {}", progress.snapshot());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      pool.shutdownNow();
+      progress.failed(e);
+    } catch (RuntimeException e) {
+      pool.shutdownNow();
+      progress.failed(e);
+      log.error("[EventRepublish] aborted", e);
+    }
+  }
+
+  private List<Row> nextPage(Timestamp until, Timestamp lastDate, UUID lastId) {
+    RowMapper<Row> mapper = (rs, i) -> new Row(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+        rs.getString(4), rs.getTimestamp(5));
+    if (leases == null) {
+      return jdbc.query(sqlPage, mapper, until, lastDate, lastDate, lastId, pageSize);
+    }
+    return jdbc.query(sqlPageUnleased, mapper, until, lastDate, lastDate, lastId,
+        Timestamp.from(Instant.now()), pageSize);
+  }
+
+  private void dispatch(Row row, Map<String, TransactionalApplicationListener<ApplicationEvent>> listeners) {
+    progress.submitted();
+    if (leases != null && !leases.claim(row.id())) {
+      progress.skipped(); // leased by another node, or still in flight from an earlier pass
+      return;
+    }
+    try {
+      TransactionalApplicationListener<ApplicationEvent> listener = listeners.get(row.listenerId());
+      if (listener == null) {
+        throw new IllegalStateException("No transactional listener with id " + row.listenerId());
+      }
+      Object event = serializer.deserialize(row.serializedEvent(), Class.forName(row.eventType()));
+      // Completion is registered by Modulith's completion advisor around the listener, as for live events;
+      // for an @Async module listener this only hands the invocation to its executor
+      listener.processEvent(new PayloadApplicationEvent<>(this, event));
+      if (awaitCompletion(row.id())) {
+        progress.succeeded();
+        if (leases != null) {
+          leases.release(row.id());
+        }
+      } else {
+        // The lease is kept until it expires, so the next pass does not pick it up while it may still run
+        progress.failed();
+        log.warn("[EventRepublish] publication {} for {} not completed within {}; it stays incomplete",
+            row.id(), row.listenerId(), completionTimeout);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      progress.failed();
+    } catch (Exception e) {
+      progress.failed();
+      log.warn("[EventRepublish] publication {} for {} failed; it stays incomplete", row.id(), row.listenerId(), e);
+    }
+  }
+
+  // A failing listener leaves the publication incomplete, so only the timeout tells it apart from a slow one
+  private boolean awaitCompletion(UUID id) throws InterruptedException {
+    long deadline = System.nanoTime() + completionTimeout.toNanos();
+    long pollMs = 10;
+    while (isIncomplete(id)) {
+      if (System.nanoTime() - deadline >= 0) {
+        return false;
+      }
+      Thread.sleep(pollMs);
+      pollMs = Math.min(pollMs * 2, MAX_POLL_INTERVAL_MS);
+    }
+    return true;
+  }
+
+  // Also true once the row is gone (completion-mode delete)
+  private boolean isIncomplete(UUID id) {
+    Long count = jdbc.queryForObject(sqlIncomplete, Long.class, id);
+    return count != null && count > 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, TransactionalApplicationListener<ApplicationEvent>> transactionalListeners() {
+    Map<String, TransactionalApplicationListener<ApplicationEvent>> byId = new HashMap<>();
+    // @EventListener adapters are registered with the context, which only exposes them on its base class
+    if (!(context instanceof AbstractApplicationContext registry)) {
+      throw new IllegalStateException("Cannot list application listeners of " + context.getClass().getName());
+    }
+    for (ApplicationListener<?> listener : registry.getApplicationListeners()) {
+      if (listener instanceof TransactionalApplicationListener<?> tal) {
+        byId.put(tal.getListenerId(), (TransactionalApplicationListener<ApplicationEvent>) tal);
+      }
+    }
+    return byId;
+  }
+
+  record Row(UUID id, String listenerId, String eventType, String serializedEvent, Timestamp publicationDate) {}
+}
@@ -0,0 +1,117 @@
+package com.example.modulithdemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Opt-in daily range partitioning of the Postgres {@code event_publication} table. Partitions are
+ * pre-created a few days ahead (so the default partition stays empty), and expired ones are dropped
+ * as a whole by {@link EventPublicationPurgeJob} instead of being deleted row by row. A partition is
+ * only dropped once every publication in it completed before the purge cutoff.
+ * <p>
+ * A script database initializer, so Boot creates the table before any JdbcOperations bean, and
+ * with it the Modulith registry and its restart republish, can touch it. Daily partitions span
+ * UTC days.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.registry.partitioning.enabled", havingValue = "true")
+public class PartitionedEventPublicationSchema extends DataSourceScriptDatabaseInitializer {
+
+  private static final Logger log = LoggerFactory.getLogger(PartitionedEventPublicationSchema.class);
+
+  private static final String PARTITION_PREFIX = "event_publication_p";
+  private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+  private static final String SQL_PARTITIONS = """
+      SELECT c.relname FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+       WHERE p.relname = 'event_publication' AND c.relname LIKE 'event_publication_p%'
+      """;
+
+  // Not the JdbcTemplate bean: that one is created after database initializers, this is one
+  private final JdbcTemplate jdbc;
+  private final int daysAhead;
+
+  public PartitionedEventPublicationSchema(
+      DataSource dataSource,
+      @Value("${spring.modulith.events.jdbc.schema-initialization.enabled:false}") boolean modulithSchemaInit,
+      @Value("${app.events.registry.partitioning.days-ahead:3}") int daysAhead
+  ) {
+    super(dataSource, settings());
+    if (modulithSchemaInit) {
+      throw new IllegalStateException("app.events.registry.partitioning.enabled requires "
+          + "spring.modulith.events.jdbc.schema-initialization.enabled=false");
+    }
+    this.jdbc = new JdbcTemplate(dataSource);
+    this.daysAhead = daysAhead;
+  }
+
+  private static DatabaseInitializationSettings settings() {
+    DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+    settings.setSchemaLocations(List.of("classpath:db/event-publication-partitioned-postgresql.sql"));
+    settings.setMode(DatabaseInitializationMode.ALWAYS);
+    return settings;
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    super.afterPropertiesSet();
+    ensurePartitions(LocalDate.now(ZoneOffset.UTC));
+    log.info("Partitioned event_publication schema ready ({} day(s) ahead)", daysAhead);
+  }
+
+  public void ensurePartitions(LocalDate today) {
+    for (int i = 0; i <= daysAhead; i++) {
+      LocalDate day = today.plusDays(i);
+      // Explicit offsets: bare dates would be read in the session time zone
+      jdbc.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + day.format(SUFFIX)
+          + " PARTITION OF event_publication FOR VALUES FROM ('" + day + " 00:00+00') TO ('"
+          + day.plusDays(1) + " 00:00+00')");
+    }
+  }
+
+  /**
+   * Drops daily partitions that end before {@code cutoff} and whose publications all completed
+   * before {@code cutoff}. Rows are placed by publication date but expire by completion date, so a
+   * publication created long ago and completed recently keeps its partition alive.
+   */
+  public int dropPartitionsBefore(Instant cutoff) {
+    LocalDate cutoffDay = LocalDate.ofInstant(cutoff, ZoneOffset.UTC);
+    List<String> names = jdbc.queryForList(SQL_PARTITIONS, String.class);
+    int dropped = 0;
+    for (String name : names) {
+      LocalDate day = LocalDate.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX);
+      if (!day.plusDays(1).isAfter(cutoffDay) && !hasUnexpired(name, cutoff)) {
+        jdbc.execute("DROP TABLE IF EXISTS " + name);
+        dropped++;
+      }
+    }
+    // Keep the look-ahead window in place for a long-running node
+    ensurePartitions(LocalDate.now(ZoneOffset.UTC));
+    if (dropped > 0) {
+      log.info("[EventPublicationPurge] dropped {} expired partition(s) before {}", dropped, cutoffDay);
+    }
+    return dropped;
+  }
+
+  private boolean hasUnexpired(String partition, Instant cutoff) {
+    Boolean exists = jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM " + partition
+        + " WHERE completion_date IS NULL OR completion_date >= ?)", Boolean.class, Timestamp.from(cutoff));
+    return Boolean.TRUE.equals(exists);
+  }
+}
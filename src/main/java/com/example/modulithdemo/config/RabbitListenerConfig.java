@@ -5,27 +5,86 @@ import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Configuration
 public class RabbitListenerConfig {
 
   private static final Logger log = LoggerFactory.getLogger(RabbitListenerConfig.class);
 
+  private final boolean virtualThreads;
+  private final int concurrentConsumers;
+  private final int maxConcurrentConsumers;
+  private final boolean orderedLanes;
+  private final int lanePrefetch;
+
+  // With spring.threads.virtual.enabled=true Boot already moves Tomcat and the applicationTaskExecutor
+  // (used by @ApplicationModuleListener) to virtual threads; our hand-built factories follow the same switch.
+  public RabbitListenerConfig(
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      @Value("${app.amqp.new-orders.concurrency.min:2}") int concurrentConsumers,
+      @Value("${app.amqp.new-orders.concurrency.max:8}") int maxConcurrentConsumers,
+      @Value("${app.amqp.new-orders.ordering.mode:none}") String orderingMode,
+      @Value("${app.amqp.new-orders.ordering.prefetch:250}") int lanePrefetch
+  ) {
+    this.virtualThreads = virtualThreads;
+    this.orderedLanes = "lanes".equalsIgnoreCase(orderingMode);
+    // Ordered lanes: one consumer keeps the broker's per-queue order up to the lanes, which
+    // provide the parallelism; its prefetch bounds the deliveries in flight across all lanes.
+    this.concurrentConsumers = orderedLanes ? 1 : concurrentConsumers;
+    this.maxConcurrentConsumers = orderedLanes ? 1 : maxConcurrentConsumers;
+    this.lanePrefetch = lanePrefetch;
+  }
+
   @Bean
   public SimpleRabbitListenerContainerFactory inboundListenerFactory(ConnectionFactory connectionFactory) {
+    SimpleRabbitListenerContainerFactory factory = newInboundFactory(connectionFactory, "new-orders-");
+    int prefetch = orderedLanes ? lanePrefetch : 20;
+    factory.setPrefetchCount(prefetch);         // limit unacked messages per consumer
+    log.info("Configured inboundListenerFactory: concurrency={}..{}, prefetch={}, ack=MANUAL, virtualThreads={}, orderedLanes={}",
+        concurrentConsumers, maxConcurrentConsumers, prefetch, virtualThreads, orderedLanes);
+    return factory;
+  }
+
+  // Opt-in batch variant (app.amqp.new-orders.batch.enabled): the consumer collects up to
+  // batch-size deliveries (or whatever arrived within receive-timeout) into one List<Message>,
+  // which the listener settles with a single multiple-ack.
+  @Bean
+  public SimpleRabbitListenerContainerFactory inboundBatchListenerFactory(
+      ConnectionFactory connectionFactory,
+      @Value("${app.amqp.new-orders.batch.size:50}") int batchSize,
+      @Value("${app.amqp.new-orders.batch.receive-timeout-ms:200}") long receiveTimeoutMs
+  ) {
+    SimpleRabbitListenerContainerFactory factory = newInboundFactory(connectionFactory, "new-orders-batch-");
+    factory.setBatchListener(true);
+    factory.setConsumerBatchEnabled(true);
+    factory.setBatchSize(batchSize);
+    factory.setReceiveTimeout(receiveTimeoutMs);
+    // A batch can only fill up if the broker is allowed to push at least that many deliveries
+    int prefetch = Math.max(20, batchSize);
+    factory.setPrefetchCount(prefetch);
+    log.info("Configured inboundBatchListenerFactory: concurrency={}..{}, prefetch={}, batchSize={}, receiveTimeout={}ms, ack=MANUAL, virtualThreads={}",
+        concurrentConsumers, maxConcurrentConsumers, prefetch, batchSize, receiveTimeoutMs, virtualThreads);
+    return factory;
+  }
+
+  private SimpleRabbitListenerContainerFactory newInboundFactory(ConnectionFactory connectionFactory, String threadPrefix) {
     SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
     factory.setConnectionFactory(connectionFactory);
     // Performance tuning
-    factory.setConcurrentConsumers(2);          // start with 2 consumers
-    factory.setMaxConcurrentConsumers(8);       // scale up under load
-    factory.setPrefetchCount(20);               // limit unacked messages per consumer
+    factory.setConcurrentConsumers(concurrentConsumers);        // start with min consumers
+    factory.setMaxConcurrentConsumers(maxConcurrentConsumers);  // scale up under load
+    if (virtualThreads) {
+      // One virtual thread per consumer; the consumer count (not the carrier pool) stays the
+      // concurrency bound, so I/O-bound handlers can use far more than 8 consumers cheaply.
+      factory.setTaskExecutor(new VirtualThreadTaskExecutor(threadPrefix));
+    }
     // Reliability: manual acknowledgments
     factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
     factory.setDefaultRequeueRejected(false);   // avoid infinite redelivery loops
-    log.info("Configured inboundListenerFactory: concurrency=2..8, prefetch=20, ack=MANUAL");
     return factory;
   }
 }
-
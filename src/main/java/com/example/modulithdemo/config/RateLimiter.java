@@ -0,0 +1,34 @@
+package com.example.modulithdemo.config;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal smooth rate limiter: permits are spaced evenly at {@code permitsPerSecond}; a rate of 0 or
+ * less means unlimited.
+ */
+final class RateLimiter {
+
+  private final long intervalNanos;
+  private long next = System.nanoTime();
+
+  RateLimiter(double permitsPerSecond) {
+    this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+  }
+
+  void acquire() throws InterruptedException {
+    if (intervalNanos == 0) {
+      return;
+    }
+    long wait = reserve();
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  private synchronized long reserve() {
+    long now = System.nanoTime();
+    long at = Math.max(now, next);
+    next = at + intervalNanos;
+    return at - now;
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.modulithdemo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled maintenance jobs (e.g. event publication purge)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,107 @@
+package com.example.modulithdemo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Runs the application's own DDL scripts (db/*.sql) according to {@code app.schema.initialization}:
+ * <ul>
+ *   <li>{@code always} (default) runs the script on every start; it is idempotent but costs a round
+ *   trip and a catalog lock per statement</li>
+ *   <li>{@code if-missing} runs it only when its probe table does not exist yet (one metadata lookup),
+ *   for replicas starting against a schema that is already applied</li>
+ *   <li>{@code never} leaves the schema to migrations (or to a CDS training run without a database)</li>
+ * </ul>
+ */
+public final class SchemaScripts {
+
+  private static final Logger log = LoggerFactory.getLogger(SchemaScripts.class);
+
+  public enum Mode {
+    ALWAYS, IF_MISSING, NEVER;
+
+    public static Mode of(String value) {
+      return value == null || value.isBlank() ? ALWAYS
+          : valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private SchemaScripts() {
+  }
+
+  public static void apply(DataSource dataSource, String mode, String script, String probeTable) {
+    apply(dataSource, mode, script, probeTable, probeTable);
+  }
+
+  /**
+   * Runs {@code script} with its {@code table} renamed to {@code qualifiedTable} ({@code [schema.]name}),
+   * which is also the probe.
+   */
+  public static void apply(DataSource dataSource, String mode, String script, String table, String qualifiedTable) {
+    Mode resolved = Mode.of(mode);
+    if (resolved == Mode.NEVER) {
+      log.debug("Schema initialization disabled, not running {}", script);
+      return;
+    }
+    if (resolved == Mode.IF_MISSING && tableExists(dataSource, qualifiedTable)) {
+      log.debug("{} exists, not running {}", qualifiedTable, script);
+      return;
+    }
+    Resource resource = new ClassPathResource(script);
+    if (!table.equals(qualifiedTable)) {
+      resource = new ByteArrayResource(read(resource).replace(table, qualifiedTable).getBytes(StandardCharsets.UTF_8));
+    }
+    new ResourceDatabasePopulator(resource).execute(dataSource);
+  }
+
+  private static String read(Resource resource) {
+    try {
+      return resource.getContentAsString(StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + resource, e);
+    }
+  }
+
+  // Unquoted identifiers are folded to upper case (H2) or lower case (Postgres), so look for both
+  static boolean tableExists(DataSource dataSource, String table) {
+    int dot = table.lastIndexOf('.');
+    String schema = dot < 0 ? null : table.substring(0, dot);
+    String name = table.substring(dot + 1);
+    try {
+      return JdbcUtils.extractDatabaseMetaData(dataSource, metaData ->
+          hasTable(metaData, upper(schema), upper(name)) || hasTable(metaData, lower(schema), lower(name)));
+    } catch (MetaDataAccessException e) {
+      log.warn("Could not check for table {}: {}", table, e.getMessage());
+      return false;
+    }
+  }
+
+  private static boolean hasTable(DatabaseMetaData metaData, String schema, String table) throws SQLException {
+    try (ResultSet tables = metaData.getTables(null, schema, table, null)) {
+      return tables.next();
+    }
+  }
+
+  private static String upper(String name) {
+    return name == null ? null : name.toUpperCase(Locale.ROOT);
+  }
+
+  private static String lower(String name) {
+    return name == null ? null : name.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Times the writes of the default event publication registry as {@code events.registry.write}
+ * ({@code op=insert|complete}), the same meter {@link GroupCommitEventPublicationRepository} records
+ * per batch, so the registry's write cost is visible whichever repository is active. Lookups and
+ * deletes are passed through untimed.
+ */
+public class TimedEventPublicationRepository implements EventPublicationRepository {
+
+  private final EventPublicationRepository delegate;
+  private final Timer insertTimer;
+  private final Timer completionTimer;
+
+  public TimedEventPublicationRepository(EventPublicationRepository delegate, MeterRegistry meters) {
+    this.delegate = delegate;
+    this.insertTimer = writeTimer(meters, "insert");
+    this.completionTimer = writeTimer(meters, "complete");
+  }
+
+  private static Timer writeTimer(MeterRegistry meters, String op) {
+    return Timer.builder("events.registry.write")
+        .tag("op", op)
+        .description("Event publication registry JDBC write")
+        .register(meters);
+  }
+
+  @Override
+  public TargetEventPublication create(TargetEventPublication publication) {
+    return insertTimer.record(() -> delegate.create(publication));
+  }
+
+  @Override
+  public void markCompleted(TargetEventPublication publication, Instant completionDate) {
+    completionTimer.record(() -> delegate.markCompleted(publication, completionDate));
+  }
+
+  @Override
+  public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+    completionTimer.record(() -> delegate.markCompleted(event, identifier, completionDate));
+  }
+
+  @Override
+  public void markCompleted(UUID identifier, Instant completionDate) {
+    completionTimer.record(() -> delegate.markCompleted(identifier, completionDate));
+  }
+
+  @Override
+  public List<TargetEventPublication> findIncompletePublications() {
+    return delegate.findIncompletePublications();
+  }
+
+  @Override
+  public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+    return delegate.findIncompletePublicationsPublishedBefore(instant);
+  }
+
+  @Override
+  public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+      PublicationTargetIdentifier targetIdentifier) {
+    return delegate.findIncompletePublicationsByEventAndTargetIdentifier(event, targetIdentifier);
+  }
+
+  @Override
+  public List<TargetEventPublication> findCompletedPublications() {
+    return delegate.findCompletedPublications();
+  }
+
+  @Override
+  public void deletePublications(List<UUID> identifiers) {
+    delegate.deletePublications(identifiers);
+  }
+
+  @Override
+  public void deleteCompletedPublications() {
+    delegate.deleteCompletedPublications();
+  }
+
+  @Override
+  public void deleteCompletedPublicationsBefore(Instant instant) {
+    delegate.deleteCompletedPublicationsBefore(instant);
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.modulithdemo.inventory.app;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET  /actuator/inventory             -> available/reserved/on-hand per product, from memory
+// GET  /actuator/inventory/{product}   -> one product (404 if unknown)
+// POST /actuator/inventory/{product} {"delta":100} -> add (or with a negative delta remove) stock
+@Component
+@Endpoint(id = "inventory")
+public class InventoryEndpoint {
+
+  private final StockLedger ledger;
+
+  public InventoryEndpoint(StockLedger ledger) {
+    this.ledger = ledger;
+  }
+
+  @ReadOperation
+  public Map<String, Object> stock() {
+    return ledger.snapshot();
+  }
+
+  @ReadOperation
+  public Map<String, Object> product(@Selector String productCode) {
+    return ledger.snapshot(productCode);
+  }
+
+  @WriteOperation
+  public Map<String, Object> restock(@Selector String productCode, long delta) {
+    if (!ledger.restock(productCode, delta)) {
+      throw new IllegalArgumentException("Cannot remove " + -delta + " of " + productCode
+          + "; available is " + ledger.available(productCode));
+    }
+    return ledger.snapshot(productCode);
+  }
+}
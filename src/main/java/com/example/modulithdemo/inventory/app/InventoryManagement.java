@@ -3,6 +3,7 @@ package com.example.modulithdemo.inventory.app;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import com.example.modulithdemo.order.domain.OrderCompleted;
@@ -11,8 +12,21 @@ import com.example.modulithdemo.order.domain.OrderCompleted;
 public class InventoryManagement {
   private static final Logger log = LoggerFactory.getLogger(InventoryManagement.class);
 
+  private final StockLedger ledger;
+
+  public InventoryManagement(StockLedger ledger) {
+    this.ledger = ledger;
+  }
+
+  // Runs on the inventory module's own bounded executor (see config.ModuleListenerExecutors);
+  // timed as modulith.listener.handling by config.ModuleListenerTimingPostProcessor
+  @Async("inventoryListenerExecutor")
   @ApplicationModuleListener
   void on(OrderCompleted event) {
-    log.info("[Inventory] received OrderCompleted: {}", event);
+    if (ledger.commit(event.orderNumber())) {
+      log.info("[Inventory] committed stock reservation for {}", event);
+    } else {
+      log.info("[Inventory] received OrderCompleted without an open reservation: {}", event);
+    }
   }
 }
@@ -12,10 +12,26 @@ public class OrderCreatedEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(OrderCreatedEventListener.class);
 
+    private final StockLedger ledger;
+
+    public OrderCreatedEventListener(StockLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    // Runs on the publishing (consumer) thread; answered from the in-memory ledger (one conditional
+    // UPDATE when replicas run the ledger write-through).
+    // A refused reservation is a business outcome, not a processing failure, so nothing is thrown.
+    // Success is DEBUG: the inbound delivery summary line already reports the order.
     @EventListener
     public void onOrderCreated(OrderCreatedEvent event) {
-        log.info("Processing OrderCreatedEvent orderNumber={}, productCode={}, quantity={}, customer={}",
-                event.orderNumber(), event.productCode(), event.quantity(), event.customer());
-        // TODO: Add business logic here (e.g., send notification, update inventory, etc.)
+        StockLedger.Outcome outcome = ledger.reserve(event.orderNumber(), event.productCode(), event.quantity());
+        switch (outcome) {
+            case RESERVED -> log.debug("Reserved stock for orderNumber={}, productCode={}, quantity={}",
+                    event.orderNumber(), event.productCode(), event.quantity());
+            case DUPLICATE -> log.debug("Stock already reserved for orderNumber={}", event.orderNumber());
+            default -> log.warn("Could not reserve stock for orderNumber={}, productCode={}, quantity={}: {} (available={})",
+                    event.orderNumber(), event.productCode(), event.quantity(), outcome,
+                    ledger.available(event.productCode()));
+        }
     }
 }
@@ -0,0 +1,526 @@
+package com.example.modulithdemo.inventory.app;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.modulithdemo.config.SchemaScripts;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Stock per product code, answered from memory and persisted write-behind.
+ * <p>
+ * Each product holds two atomics: {@code available} (on hand minus reserved) and {@code reserved}.
+ * A reservation is a compare-and-set on {@code available} that only succeeds while enough stock is
+ * left, so concurrent orders can never drive it below zero.
+ * Reservations are keyed by order number, which makes a redelivered OrderCreatedEvent a no-op;
+ * completing the order commits the reservation (on hand goes down), cancelling returns it.
+ * <p>
+ * Changed products and reservation inserts/deletes are queued and written to INVENTORY_STOCK /
+ * INVENTORY_RESERVATION as JDBC batches in one transaction every flush interval (absolute values,
+ * so any number of changes to a product coalesce into one row update). Startup loads both tables
+ * back into memory. A crash loses at most the last flush interval of changes.
+ * <p>
+ * The counters live in one process, so only the instance holding the INVENTORY_LEDGER_OWNER lease
+ * runs them; the lease is renewed periodically and checked in every flush transaction. Any other
+ * instance starts write-through ({@link WriteThroughStock}: conditional updates, so replicas cannot
+ * oversell) and keeps a shared heartbeat alive; on seeing it, the owner flushes what it has, releases
+ * the lease and continues write-through as well. The in-memory path is therefore only used while a
+ * single instance runs against the database. An owner that lost its lease (e.g. after a pause longer
+ * than the lease) drops its unflushed changes instead of overwriting the successor and goes
+ * write-through too.
+ * <p>
+ * In-memory changes take a shared read lock; it is only ever contended by the hand-over.
+ */
+@Component
+public class StockLedger implements InitializingBean, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+  public enum Outcome { RESERVED, DUPLICATE, INSUFFICIENT, UNKNOWN_PRODUCT, INVALID }
+
+  record Reservation(String productCode, int quantity) {}
+
+  static final class ProductStock {
+    final AtomicLong available;
+    final AtomicLong reserved;
+
+    ProductStock(long available, long reserved) {
+      this.available = new AtomicLong(available);
+      this.reserved = new AtomicLong(reserved);
+    }
+  }
+
+  // A reservation row to write (quantity > 0) or delete (quantity == 0), in queue order
+  private record ReservationWrite(String orderNumber, String productCode, int quantity) {}
+
+  private final ConcurrentHashMap<String, ProductStock> stock = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+  private final Set<String> dirtyProducts = ConcurrentHashMap.newKeySet();
+  private final List<ReservationWrite> pendingReservations = new ArrayList<>();
+
+  private static final String SQL_TAKE_OWNERSHIP = """
+      UPDATE INVENTORY_LEDGER_OWNER SET OWNER = ?, LEASED_UNTIL = ?
+       WHERE ID = 1 AND (LEASED_UNTIL < ? OR OWNER = ?)
+      """;
+  private static final String SQL_INSERT_OWNERSHIP = """
+      INSERT INTO INVENTORY_LEDGER_OWNER (ID, OWNER, LEASED_UNTIL) VALUES (1, ?, ?)
+      ON CONFLICT DO NOTHING
+      """;
+  private static final String SQL_RENEW_OWNERSHIP =
+      "UPDATE INVENTORY_LEDGER_OWNER SET LEASED_UNTIL = ? WHERE ID = 1 AND OWNER = ? AND LEASED_UNTIL >= ?";
+  private static final String SQL_RELEASE_OWNERSHIP = "DELETE FROM INVENTORY_LEDGER_OWNER WHERE ID = 1 AND OWNER = ?";
+
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate tx;
+  private final WriteThroughStock writeThrough;
+  private final DataSource dataSource;
+  private final String schemaInitialization;
+  private final String owner;
+  private final Duration ownerLease;
+  // Always true without JDBC; otherwise from startup until handed over or the lease is lost
+  private volatile boolean owned;
+  private final ReentrantReadWriteLock handOver = new ReentrantReadWriteLock();
+  private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+  private final Timer flushTimer;
+
+  public StockLedger(
+      @Value("${app.inventory.jdbc.enabled:true}") boolean jdbcEnabled,
+      @Nullable DataSource dataSource,
+      MeterRegistry meters,
+      @Value("${app.schema.initialization:always}") String schemaInitialization,
+      @Value("${app.events.node-id:}") String nodeId,
+      @Value("${app.inventory.owner-lease:30s}") Duration ownerLease
+  ) {
+    this.owner = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    this.ownerLease = ownerLease;
+    if (jdbcEnabled && dataSource != null) {
+      DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+      this.jdbc = new JdbcTemplate(dataSource);
+      this.tx = new TransactionTemplate(transactionManager);
+      this.writeThrough = new WriteThroughStock(jdbc, transactionManager, owner, ownerLease);
+    } else {
+      this.jdbc = null;
+      this.tx = null;
+      this.writeThrough = null;
+    }
+    this.dataSource = dataSource;
+    this.schemaInitialization = schemaInitialization;
+    this.owned = jdbc == null;
+    for (Outcome outcome : Outcome.values()) {
+      outcomes.put(outcome, Counter.builder("inventory.reservations")
+          .tag("outcome", outcome.name().toLowerCase())
+          .description("Stock reservation attempts by outcome")
+          .register(meters));
+    }
+    this.flushTimer = Timer.builder("inventory.writebehind.flush")
+        .description("Write-behind flush of changed stock and reservations")
+        .register(meters);
+    Gauge.builder("inventory.writebehind.pending", this, StockLedger::pendingWrites)
+        .description("Stock rows and reservations not yet persisted")
+        .register(meters);
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    if (jdbc == null) {
+      log.info("Configured stock ledger: in-memory only");
+      return;
+    }
+    // Probed by the table added last, so an existing schema also gets the ownership table
+    SchemaScripts.apply(dataSource, schemaInitialization, "db/inventory-stock.sql", "INVENTORY_LEDGER_OWNER");
+    // Replicas already running write-through keep the heartbeat alive; joining them keeps them correct
+    if (!writeThrough.live(WriteThroughStock.SHARED_ROW) && takeOwnership()) {
+      owned = true;
+      warmUp();
+      return;
+    }
+    writeThrough.heartbeat();
+    log.info("Configured stock ledger: write-through (another instance owns or shares the ledger)");
+  }
+
+  private boolean takeOwnership() {
+    Instant now = Instant.now();
+    Timestamp until = Timestamp.from(now.plus(ownerLease));
+    return jdbc.update(SQL_TAKE_OWNERSHIP, owner, until, Timestamp.from(now), owner) == 1
+        || jdbc.update(SQL_INSERT_OWNERSHIP, owner, until) == 1;
+  }
+
+  // Only succeeds while the lease is still ours and live; inside a flush it also fences the writes
+  private boolean renewOwnership() {
+    Instant now = Instant.now();
+    return jdbc.update(SQL_RENEW_OWNERSHIP, Timestamp.from(now.plus(ownerLease)), owner, Timestamp.from(now)) == 1;
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.inventory.owner-renew-interval-ms:10000}",
+      fixedDelayString = "${app.inventory.owner-renew-interval-ms:10000}")
+  public void renew() {
+    if (jdbc == null) {
+      return;
+    }
+    if (!owned) {
+      writeThrough.heartbeat();
+    } else if (!renewOwnership()) {
+      leaseLost(0);
+    }
+  }
+
+  // drained: changes already taken out of the queues by a flush that could not renew
+  private void leaseLost(int drained) {
+    int dropped;
+    handOver.writeLock().lock();
+    try {
+      if (!owned) {
+        return;
+      }
+      dropped = drained + pendingWrites();
+      switchToWriteThrough();
+    } finally {
+      handOver.writeLock().unlock();
+    }
+    log.error("[StockLedger] ownership lease lost; {} unflushed change(s) dropped, continuing write-through", dropped);
+  }
+
+  // Callers hold the write lock, so no in-memory change is in flight
+  private void switchToWriteThrough() {
+    owned = false;
+    synchronized (pendingReservations) {
+      pendingReservations.clear();
+    }
+    dirtyProducts.clear();
+    stock.clear();
+    reservations.clear();
+    writeThrough.heartbeat();
+  }
+
+  // The in-memory result of op, or null once the ledger is write-through
+  private <T> T inMemory(Supplier<T> op) {
+    Lock lock = handOver.readLock();
+    lock.lock();
+    try {
+      return owned ? op.get() : null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void warmUp() {
+    jdbc.query("SELECT PRODUCT_CODE, AVAILABLE, RESERVED FROM INVENTORY_STOCK", rs -> {
+      stock.put(rs.getString(1), new ProductStock(rs.getLong(2), rs.getLong(3)));
+    });
+    jdbc.query("SELECT ORDER_NUMBER, PRODUCT_CODE, QUANTITY FROM INVENTORY_RESERVATION", rs -> {
+      reservations.put(rs.getString(1), new Reservation(rs.getString(2), rs.getInt(3)));
+    });
+    log.info("Configured stock ledger: warmed up {} product(s), {} open reservation(s)", stock.size(), reservations.size());
+  }
+
+  /**
+   * Reserves {@code quantity} of {@code productCode} for the order, or reports why not.
+   */
+  public Outcome reserve(String orderNumber, String productCode, int quantity) {
+    Outcome outcome;
+    if (orderNumber == null || productCode == null || quantity <= 0) {
+      outcome = Outcome.INVALID;
+    } else {
+      outcome = inMemory(() -> tryReserve(orderNumber, productCode, quantity));
+      if (outcome == null) {
+        outcome = writeThrough.reserve(orderNumber, productCode, quantity);
+      }
+    }
+    outcomes.get(outcome).increment();
+    return outcome;
+  }
+
+  private Outcome tryReserve(String orderNumber, String productCode, int quantity) {
+    ProductStock product = stock.get(productCode);
+    if (product == null) {
+      return Outcome.UNKNOWN_PRODUCT;
+    }
+    Reservation reservation = new Reservation(productCode, quantity);
+    if (reservations.putIfAbsent(orderNumber, reservation) != null) {
+      return Outcome.DUPLICATE;
+    }
+    long left;
+    do {
+      left = product.available.get();
+      if (left < quantity) {
+        reservations.remove(orderNumber, reservation);
+        return Outcome.INSUFFICIENT;
+      }
+    } while (!product.available.compareAndSet(left, left - quantity));
+    product.reserved.addAndGet(quantity);
+    queue(orderNumber, reservation);
+    return Outcome.RESERVED;
+  }
+
+  /**
+   * Turns the order's reservation into a decrement of the stock on hand.
+   *
+   * @return {@code false} if the order holds no reservation (unknown, already committed or cancelled)
+   */
+  public boolean commit(String orderNumber) {
+    if (orderNumber == null) {
+      return false;
+    }
+    Boolean committed = inMemory(() -> tryCommit(orderNumber));
+    return committed != null ? committed : writeThrough.release(orderNumber, false);
+  }
+
+  private boolean tryCommit(String orderNumber) {
+    Reservation reservation = reservations.remove(orderNumber);
+    if (reservation == null) {
+      return false;
+    }
+    ProductStock product = stock.get(reservation.productCode());
+    product.reserved.addAndGet(-reservation.quantity());
+    queue(orderNumber, null);
+    dirtyProducts.add(reservation.productCode());
+    return true;
+  }
+
+  /**
+   * Returns the order's reserved quantity to the available stock.
+   */
+  public boolean cancel(String orderNumber) {
+    if (orderNumber == null) {
+      return false;
+    }
+    Boolean cancelled = inMemory(() -> tryCancel(orderNumber));
+    return cancelled != null ? cancelled : writeThrough.release(orderNumber, true);
+  }
+
+  private boolean tryCancel(String orderNumber) {
+    Reservation reservation = reservations.remove(orderNumber);
+    if (reservation == null) {
+      return false;
+    }
+    ProductStock product = stock.get(reservation.productCode());
+    product.reserved.addAndGet(-reservation.quantity());
+    product.available.addAndGet(reservation.quantity());
+    queue(orderNumber, null);
+    dirtyProducts.add(reservation.productCode());
+    return true;
+  }
+
+  /**
+   * Adds (or with a negative delta removes) stock on hand; creates the product on first use.
+   * Removing more than is available is refused, so reservations already taken stay covered.
+   */
+  public boolean restock(String productCode, long delta) {
+    Boolean restocked = inMemory(() -> tryRestock(productCode, delta));
+    return restocked != null ? restocked : writeThrough.restock(productCode, delta);
+  }
+
+  private boolean tryRestock(String productCode, long delta) {
+    ProductStock product = delta >= 0
+        ? stock.computeIfAbsent(productCode, code -> new ProductStock(0, 0))
+        : stock.get(productCode);
+    if (product == null) {
+      return false;
+    }
+    long left;
+    do {
+      left = product.available.get();
+      if (left + delta < 0) {
+        return false;
+      }
+    } while (!product.available.compareAndSet(left, left + delta));
+    dirtyProducts.add(productCode);
+    return true;
+  }
+
+  /** Stock that can still be reserved, or -1 for an unknown product. */
+  public long available(String productCode) {
+    if (!owned) {
+      return writeThrough.available(productCode);
+    }
+    ProductStock product = stock.get(productCode);
+    return product != null ? product.available.get() : -1;
+  }
+
+  public Map<String, Object> snapshot(String productCode) {
+    if (!owned) {
+      return writeThrough.snapshot(productCode);
+    }
+    ProductStock product = stock.get(productCode);
+    if (product == null) {
+      return null;
+    }
+    return WriteThroughStock.view(productCode, product.available.get(), product.reserved.get());
+  }
+
+  public Map<String, Object> snapshot() {
+    if (!owned) {
+      return writeThrough.snapshot();
+    }
+    Map<String, Object> view = new TreeMap<>();
+    stock.keySet().forEach(code -> view.put(code, snapshot(code)));
+    return view;
+  }
+
+  private void queue(String orderNumber, Reservation reservation) {
+    synchronized (pendingReservations) {
+      pendingReservations.add(reservation != null
+          ? new ReservationWrite(orderNumber, reservation.productCode(), reservation.quantity())
+          : new ReservationWrite(orderNumber, null, 0));
+    }
+    if (reservation != null) {
+      dirtyProducts.add(reservation.productCode());
+    }
+  }
+
+  int pendingWrites() {
+    synchronized (pendingReservations) {
+      return dirtyProducts.size() + pendingReservations.size();
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.inventory.flush-interval-ms:200}",
+      fixedDelayString = "${app.inventory.flush-interval-ms:200}")
+  public void flush() {
+    if (jdbc == null || !owned) {
+      return;
+    }
+    if (writeThrough.live(WriteThroughStock.SHARED_ROW)) {
+      handOver();
+    } else if (pendingWrites() > 0) {
+      flushPending(false);
+    }
+  }
+
+  // Another instance runs write-through: flush, release the lease and join it
+  private void handOver() {
+    handOver.writeLock().lock();
+    try {
+      if (owned && flushPending(true)) {
+        switchToWriteThrough();
+        log.info("[StockLedger] another instance runs write-through; flushed, released the lease and joined it");
+      }
+    } finally {
+      handOver.writeLock().unlock();
+    }
+  }
+
+  // release: also give up the lease in the flush transaction. False if the flush did not commit.
+  private boolean flushPending(boolean release) {
+    List<ReservationWrite> writes;
+    synchronized (pendingReservations) {
+      writes = new ArrayList<>(pendingReservations);
+      pendingReservations.clear();
+    }
+    // Remove before reading the atomics: a change racing with this flush marks the product again
+    List<String> products = new ArrayList<>(dirtyProducts);
+    dirtyProducts.removeAll(products);
+    boolean renewed;
+    try {
+      renewed = flushTimer.record(() -> tx.execute(status -> {
+        if (!renewOwnership()) {
+          return false;
+        }
+        write(products, writes);
+        if (release) {
+          jdbc.update(SQL_RELEASE_OWNERSHIP, owner);
+        }
+        return true;
+      }));
+    } catch (RuntimeException e) {
+      synchronized (pendingReservations) {
+        pendingReservations.addAll(0, writes);
+      }
+      dirtyProducts.addAll(products);
+      log.warn("[StockLedger] write-behind flush failed; {} product(s) and {} reservation change(s) kept for the next attempt",
+          products.size(), writes.size(), e);
+      return false;
+    }
+    if (!renewed) {
+      leaseLost(products.size() + writes.size());
+    }
+    return renewed;
+  }
+
+  private void write(List<String> products, List<ReservationWrite> writes) {
+    Timestamp now = Timestamp.from(Instant.now());
+    List<Object[]> rows = new ArrayList<>(products.size());
+    for (String code : products) {
+      ProductStock product = stock.get(code);
+      rows.add(new Object[] {product.available.get(), product.reserved.get(), now, code});
+    }
+    int[][] updated = jdbc.batchUpdate(
+        "UPDATE INVENTORY_STOCK SET AVAILABLE = ?, RESERVED = ?, UPDATED_AT = ? WHERE PRODUCT_CODE = ?",
+        rows, rows.size(), (ps, row) -> {
+          for (int i = 0; i < row.length; i++) ps.setObject(i + 1, row[i]);
+        });
+    List<Object[]> inserts = new ArrayList<>();
+    int i = 0;
+    for (int[] batch : updated) {
+      for (int count : batch) {
+        Object[] row = rows.get(i++);
+        if (count == 0) inserts.add(new Object[] {row[3], row[0], row[1], row[2]});
+      }
+    }
+    if (!inserts.isEmpty()) {
+      jdbc.batchUpdate("INSERT INTO INVENTORY_STOCK (PRODUCT_CODE, AVAILABLE, RESERVED, UPDATED_AT) VALUES (?, ?, ?, ?)", inserts);
+    }
+    // Coalesced per order: every order that was released gets its row deleted first, then orders
+    // whose last change is a reservation get theirs inserted (cancel + re-reserve in one interval)
+    Map<String, ReservationWrite> last = new LinkedHashMap<>();
+    List<Object[]> deletes = new ArrayList<>();
+    for (ReservationWrite write : writes) {
+      if (write.quantity() == 0) deletes.add(new Object[] {write.orderNumber()});
+      last.put(write.orderNumber(), write);
+    }
+    List<Object[]> reservationInserts = new ArrayList<>();
+    for (ReservationWrite write : last.values()) {
+      if (write.quantity() > 0) {
+        reservationInserts.add(new Object[] {write.orderNumber(), write.productCode(), write.quantity(), now});
+      }
+    }
+    if (!deletes.isEmpty()) {
+      jdbc.batchUpdate("DELETE FROM INVENTORY_RESERVATION WHERE ORDER_NUMBER = ?", deletes);
+    }
+    if (!reservationInserts.isEmpty()) {
+      jdbc.batchUpdate("INSERT INTO INVENTORY_RESERVATION (ORDER_NUMBER, PRODUCT_CODE, QUANTITY, RESERVED_AT) VALUES (?, ?, ?, ?)",
+          reservationInserts);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    flush();
+    if (jdbc != null && owned) {
+      jdbc.update(SQL_RELEASE_OWNERSHIP, owner); // a replacement can start without waiting for expiry
+      owned = false;
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package com.example.modulithdemo.inventory.app;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * The stock ledger's operations as conditional statements on INVENTORY_STOCK / INVENTORY_RESERVATION,
+ * used by instances that do not own the in-memory ledger. A reservation is
+ * {@code UPDATE ... SET AVAILABLE = AVAILABLE - ? WHERE AVAILABLE >= ?}, so any number of instances
+ * can reserve against the same rows without overselling.
+ * <p>
+ * Every stock change is fenced on the in-memory owner's lease (INVENTORY_LEDGER_OWNER row 1): while
+ * an owner is live its absolute write-behind values would overwrite these changes, so they wait until
+ * it has flushed and handed over (or its lease expired). This instance's presence is announced by
+ * the shared heartbeat (row 2), which is what makes the owner hand over.
+ */
+final class WriteThroughStock {
+
+  static final int OWNER_ROW = 1;
+  static final int SHARED_ROW = 2;
+
+  private static final String FENCE =
+      " AND NOT EXISTS (SELECT 1 FROM INVENTORY_LEDGER_OWNER WHERE ID = 1 AND LEASED_UNTIL >= ?)";
+  private static final String SQL_INSERT_RESERVATION = """
+      INSERT INTO INVENTORY_RESERVATION (ORDER_NUMBER, PRODUCT_CODE, QUANTITY, RESERVED_AT) VALUES (?, ?, ?, ?)
+      ON CONFLICT DO NOTHING
+      """;
+  private static final String SQL_RESERVE = """
+      UPDATE INVENTORY_STOCK SET AVAILABLE = AVAILABLE - ?, RESERVED = RESERVED + ?, UPDATED_AT = ?
+       WHERE PRODUCT_CODE = ? AND AVAILABLE >= ?""" + FENCE;
+  private static final String SQL_RELEASE = """
+      UPDATE INVENTORY_STOCK SET AVAILABLE = AVAILABLE + ?, RESERVED = RESERVED - ?, UPDATED_AT = ?
+       WHERE PRODUCT_CODE = ?""" + FENCE;
+  private static final String SQL_RESTOCK = """
+      UPDATE INVENTORY_STOCK SET AVAILABLE = AVAILABLE + ?, UPDATED_AT = ?
+       WHERE PRODUCT_CODE = ? AND AVAILABLE + ? >= 0""" + FENCE;
+  private static final String SQL_INSERT_PRODUCT = """
+      INSERT INTO INVENTORY_STOCK (PRODUCT_CODE, AVAILABLE, RESERVED, UPDATED_AT) VALUES (?, ?, 0, ?)
+      ON CONFLICT DO NOTHING
+      """;
+  private static final String SQL_LIVE =
+      "SELECT COUNT(*) FROM INVENTORY_LEDGER_OWNER WHERE ID = ? AND LEASED_UNTIL >= ?";
+  private static final String SQL_RENEW_SHARED =
+      "UPDATE INVENTORY_LEDGER_OWNER SET OWNER = ?, LEASED_UNTIL = ? WHERE ID = 2";
+  private static final String SQL_INSERT_SHARED = """
+      INSERT INTO INVENTORY_LEDGER_OWNER (ID, OWNER, LEASED_UNTIL) VALUES (2, ?, ?)
+      ON CONFLICT DO NOTHING
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate tx;
+  private final String node;
+  private final Duration lease;
+
+  WriteThroughStock(JdbcTemplate jdbc, PlatformTransactionManager transactionManager, String node, Duration lease) {
+    this.jdbc = jdbc;
+    // Its own transaction: a refused reservation must not mark the caller's (publishing) one rollback-only
+    this.tx = new TransactionTemplate(transactionManager);
+    this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.node = node;
+    this.lease = lease;
+  }
+
+  /** Extends the shared heartbeat that keeps an in-memory owner from (re)starting and makes it hand over. */
+  void heartbeat() {
+    Timestamp until = Timestamp.from(Instant.now().plus(lease));
+    if (jdbc.update(SQL_RENEW_SHARED, node, until) == 0) {
+      jdbc.update(SQL_INSERT_SHARED, node, until);
+    }
+  }
+
+  boolean live(int row) {
+    Integer count = jdbc.queryForObject(SQL_LIVE, Integer.class, row, Timestamp.from(Instant.now()));
+    return count != null && count > 0;
+  }
+
+  StockLedger.Outcome reserve(String orderNumber, String productCode, int quantity) {
+    return fenced(() -> tx.execute(status -> {
+      Timestamp now = Timestamp.from(Instant.now());
+      if (jdbc.update(SQL_INSERT_RESERVATION, orderNumber, productCode, quantity, now) == 0) {
+        return StockLedger.Outcome.DUPLICATE;
+      }
+      if (jdbc.update(SQL_RESERVE, quantity, quantity, now, productCode, quantity, now) == 1) {
+        return StockLedger.Outcome.RESERVED;
+      }
+      if (refused(status, false) == null) {
+        return null;
+      }
+      return available(productCode) < 0 ? StockLedger.Outcome.UNKNOWN_PRODUCT : StockLedger.Outcome.INSUFFICIENT;
+    }));
+  }
+
+  /**
+   * Removes the order's reservation: with {@code returnStock} (cancel) it goes back to available,
+   * otherwise (commit) on hand goes down by it.
+   */
+  boolean release(String orderNumber, boolean returnStock) {
+    return fenced(() -> tx.execute(status -> {
+      List<StockLedger.Reservation> found = jdbc.query(
+          "SELECT PRODUCT_CODE, QUANTITY FROM INVENTORY_RESERVATION WHERE ORDER_NUMBER = ?",
+          (rs, row) -> new StockLedger.Reservation(rs.getString(1), rs.getInt(2)), orderNumber);
+      // The delete locks the row, so of two concurrent releases only one continues
+      if (found.isEmpty()
+          || jdbc.update("DELETE FROM INVENTORY_RESERVATION WHERE ORDER_NUMBER = ?", orderNumber) == 0) {
+        return false;
+      }
+      StockLedger.Reservation reservation = found.get(0);
+      Timestamp now = Timestamp.from(Instant.now());
+      int returned = returnStock ? reservation.quantity() : 0;
+      if (jdbc.update(SQL_RELEASE, returned, reservation.quantity(), now, reservation.productCode(), now) == 1) {
+        return true;
+      }
+      return refused(status, false);
+    }));
+  }
+
+  boolean restock(String productCode, long delta) {
+    return fenced(() -> tx.execute(status -> {
+      Timestamp now = Timestamp.from(Instant.now());
+      if (jdbc.update(SQL_RESTOCK, delta, now, productCode, delta, now) == 1) {
+        return true;
+      }
+      if (live(OWNER_ROW)) {
+        return null;
+      }
+      if (delta < 0) {
+        return false;
+      }
+      // Unknown product; a concurrent insert of the same one makes this a no-op, and the retry updates it
+      return jdbc.update(SQL_INSERT_PRODUCT, productCode, delta, now) == 1 ? Boolean.TRUE : null;
+    }));
+  }
+
+  long available(String productCode) {
+    List<Long> found = jdbc.queryForList(
+        "SELECT AVAILABLE FROM INVENTORY_STOCK WHERE PRODUCT_CODE = ?", Long.class, productCode);
+    return found.isEmpty() ? -1 : found.get(0);
+  }
+
+  Map<String, Object> snapshot(String productCode) {
+    List<Map<String, Object>> found = jdbc.query(
+        "SELECT AVAILABLE, RESERVED FROM INVENTORY_STOCK WHERE PRODUCT_CODE = ?",
+        (rs, row) -> view(productCode, rs.getLong(1), rs.getLong(2)), productCode);
+    return found.isEmpty() ? null : found.get(0);
+  }
+
+  Map<String, Object> snapshot() {
+    Map<String, Object> view = new TreeMap<>();
+    jdbc.query("SELECT PRODUCT_CODE, AVAILABLE, RESERVED FROM INVENTORY_STOCK", rs -> {
+      view.put(rs.getString(1), view(rs.getString(1), rs.getLong(2), rs.getLong(3)));
+    });
+    return view;
+  }
+
+  static Map<String, Object> view(String productCode, long available, long reserved) {
+    Map<String, Object> view = new LinkedHashMap<>();
+    view.put("productCode", productCode);
+    view.put("available", available);
+    view.put("reserved", reserved);
+    view.put("onHand", available + reserved);
+    return view;
+  }
+
+  // Rolls back; null (retry) while the owner's lease is live, otherwise the change is refused
+  private Boolean refused(TransactionStatus status, boolean otherwise) {
+    status.setRollbackOnly();
+    return live(OWNER_ROW) ? null : otherwise;
+  }
+
+  // Runs op until it is no longer blocked by a live owner (null result); the owner hands over within
+  // one flush interval of seeing the heartbeat and its lease expires after 'lease' at the latest
+  private <T> T fenced(Supplier<T> op) {
+    long deadline = System.nanoTime() + lease.toNanos() * 2;
+    long backoffMillis = 10;
+    while (true) {
+      T result = op.get();
+      if (result != null) {
+        return result;
+      }
+      if (System.nanoTime() > deadline) {
+        throw new IllegalStateException("The stock ledger owner neither handed over nor let its lease expire");
+      }
+      heartbeat();
+      try {
+        Thread.sleep(backoffMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the stock ledger owner to hand over", e);
+      }
+      backoffMillis = Math.min(backoffMillis * 2, 500);
+    }
+  }
+}
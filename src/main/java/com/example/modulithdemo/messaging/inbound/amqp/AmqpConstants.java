@@ -2,7 +2,8 @@ package com.example.modulithdemo.messaging.inbound.amqp;
 
 /**
  * Centralized AMQP configuration constants to avoid duplication.
- * Inbound-only variant: only includes inbound exchange/queue/routing for new orders.
+ * Inbound-only variant: only includes inbound exchange/queue/routing for new orders; the outbound
+ * order event fan-out has its own names in messaging.outbound.amqp.OrderEventsAmqpConstants.
  */
 public final class AmqpConstants {
 
@@ -21,4 +22,14 @@ public final class AmqpConstants {
   // Routing Keys for inbound messages
   public static final String ORDERS_NEW_ROUTING = "orders.new";
   public static final String ORDERS_NEW_DLQ_ROUTING = "orders.new.dlq";
+
+  // Delayed retry tier: failed deliveries wait in TTL'd queues, then dead-letter back to 'new-orders'
+  public static final String BOOKSTORE_RETRY_EXCHANGE = "BookStoreRetryExchange";
+  public static final String NEW_ORDERS_RETRY_QUEUE_PREFIX = "new-orders-retry-";
+  public static final String ORDERS_NEW_RETRY_ROUTING_PREFIX = "orders.new.retry.";
+  // Header carrying the number of failed processing attempts so far
+  public static final String RETRY_ATTEMPTS_HEADER = "x-new-orders-attempts";
+
+  // Binary payload content type (Jackson Smile); anything else is read as JSON
+  public static final String CONTENT_TYPE_SMILE = "application/x-jackson-smile";
 }
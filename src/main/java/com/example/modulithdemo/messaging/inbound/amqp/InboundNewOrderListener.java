@@ -6,18 +6,29 @@ import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.modulithdemo.order.domain.Customer;
 import com.example.modulithdemo.order.domain.OrderCreatedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
 
 /**
  * Inbound listener for RabbitMQ 'new-orders' queue.
- * Logs payload and publishes internal OrderCreatedEvent for downstream modules.
+ * Deserializes the body bytes directly (no intermediate String; gzip/deflate bodies are inflated
+ * as they are parsed) and publishes an internal OrderCreatedEvent for downstream modules. Payload logging is sampled and size-capped.
  */
 @Component
 public class InboundNewOrderListener {
@@ -25,50 +36,146 @@ public class InboundNewOrderListener {
   private static final Logger log = LoggerFactory.getLogger(InboundNewOrderListener.class);
 
   private final ApplicationEventPublisher events;
-  private final ObjectMapper objectMapper;
+  // Thread-safe and reusable; avoids the per-call type lookup of objectMapper.readValue
+  private final ObjectReader newOrderReader;
+  private final ObjectReader smileNewOrderReader;
   private final int maxAttempts;
+  private final long maxDecodedBytes;
+  private final NewOrderRetryPublisher retries;
+  private final PayloadLogSampler payloadLog;
+  private final NewOrderDeduplicator dedup;
+  private final InboundNewOrderMetrics metrics;
+  private final OrderedLaneDispatcher lanes;
+  private final OrderPipelineLog pipelineLog;
+  private final TransactionTemplate publishTransaction;
 
+  // retries is only present with app.amqp.new-orders.retry.mode=delayed; otherwise failed
+  // deliveries are retried on the consumer thread. dedup only with idempotency.enabled=true,
+  // lanes only with ordering.mode=lanes. publishInTransaction is set when OrderCreatedEvent is
+  // externalized: Modulith externalizes after commit only, so the event must be published inside one.
   public InboundNewOrderListener(
       ApplicationEventPublisher events,
       ObjectMapper objectMapper,
-      @Value("${app.amqp.new-orders.retry-max-attempts:3}") int maxAttempts
+      @Value("${app.amqp.new-orders.retry-max-attempts:3}") int maxAttempts,
+      @Value("${app.amqp.new-orders.max-decoded-bytes:1048576}") long maxDecodedBytes,
+      @Nullable NewOrderRetryPublisher retries,
+      PayloadLogSampler payloadLog,
+      @Nullable NewOrderDeduplicator dedup,
+      InboundNewOrderMetrics metrics,
+      @Nullable OrderedLaneDispatcher lanes,
+      OrderPipelineLog pipelineLog,
+      @Value("#{${app.amqp.order-events.enabled:false} and ${app.amqp.order-events.created.enabled:false}}")
+      boolean publishInTransaction,
+      @Nullable PlatformTransactionManager transactionManager
   ) {
+    if (publishInTransaction && transactionManager == null) {
+      throw new IllegalStateException("app.amqp.order-events.created.enabled=true needs a transaction manager: "
+          + "OrderCreatedEvent is only externalized when published inside a transaction");
+    }
     this.events = events;
-    this.objectMapper = objectMapper;
+    this.newOrderReader = objectMapper.readerFor(NewOrderMessage.class);
+    this.smileNewOrderReader = objectMapper.copyWith(new SmileFactory()).readerFor(NewOrderMessage.class);
     this.maxAttempts = maxAttempts;
+    this.maxDecodedBytes = maxDecodedBytes;
+    this.retries = retries;
+    this.payloadLog = payloadLog;
+    this.dedup = dedup;
+    this.metrics = metrics;
+    this.lanes = lanes;
+    this.pipelineLog = pipelineLog;
+    this.publishTransaction = publishInTransaction ? new TransactionTemplate(transactionManager) : null;
   }
 
   // Listener with manual acknowledgments via a tuned container factory
-  @RabbitListener(queues = AmqpConstants.NEW_ORDERS_QUEUE, containerFactory = "inboundListenerFactory")
+  @RabbitListener(
+      queues = AmqpConstants.NEW_ORDERS_QUEUE,
+      containerFactory = "inboundListenerFactory",
+      autoStartup = "#{!${app.amqp.new-orders.batch.enabled:false}}")
   public void onMessage(Message message, Channel channel) {
     long tag = message.getMessageProperties().getDeliveryTag();
-    String payload = new String(message.getBody(), StandardCharsets.UTF_8);
-    log.info("[InboundNewOrderListener] received payload from 'new-orders': {}", payload);
-    processWithAck(payload, () -> {
+    Timer.Sample received = metrics.start();
+    payloadLog.log(log, message);
+    Runnable ack = metrics.timedAck(received, () -> {
       try { channel.basicAck(tag, false); } catch (IOException e) { log.error("Ack failed", e); }
-    }, () -> {
+    });
+    Runnable reject = metrics.timedReject(received, () -> {
       try { channel.basicReject(tag, false); } catch (IOException e) { log.error("Reject failed", e); }
     });
+    if (lanes != null) {
+      // The lane needs the parsed order for its key; the lane task reuses it instead of parsing again.
+      // Returns at once; the lane settles the delivery when it completes, so acks follow completion.
+      NewOrderMessage dto = tryParse(message);
+      lanes.dispatch(dto != null ? lanes.keyOf(dto) : null, () -> process(message, dto, ack, reject));
+    } else {
+      process(message, ack, reject);
+    }
   }
 
-  // Delegate for unit tests to avoid needing Channel/Message
-  public void handle(String payload) throws IOException {
+  // An unparseable body yields null: it has no lane key, and process() parses (and rejects) it as usual
+  @Nullable
+  private NewOrderMessage tryParse(Message message) {
+    try {
+      return parse(message.getBody(), readerFor(message), encodingOf(message));
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  // Batch variant: started instead of onMessage when app.amqp.new-orders.batch.enabled=true
+  @RabbitListener(
+      queues = AmqpConstants.NEW_ORDERS_QUEUE,
+      containerFactory = "inboundBatchListenerFactory",
+      autoStartup = "${app.amqp.new-orders.batch.enabled:false}")
+  public void onMessages(List<Message> messages, Channel channel) {
+    log.info("[InboundNewOrderListener] received batch of {} message(s) from 'new-orders'", messages.size());
+    processBatch(messages, lastTag -> {
+      try { channel.basicAck(lastTag, true); } catch (IOException e) { log.error("Batch ack failed", e); }
+    }, tag -> {
+      try { channel.basicReject(tag, false); } catch (IOException e) { log.error("Reject failed", e); }
+    });
+  }
+
+  // Content-type negotiation: Smile payloads are parsed as such, anything else (including a
+  // missing content type) as JSON, so JSON and binary publishers can share the queue
+  private ObjectReader readerFor(Message message) {
+    String contentType = message.getMessageProperties().getContentType();
+    return contentType != null && contentType.startsWith(AmqpConstants.CONTENT_TYPE_SMILE)
+        ? smileNewOrderReader : newOrderReader;
+  }
+
+  // gzip/deflate per content-encoding; null for a plain body (or a charset-only content-encoding)
+  private static PayloadEncoding encodingOf(Message message) {
+    return PayloadEncoding.of(message.getMessageProperties().getContentEncoding());
+  }
+
+  // Hot path: Jackson parses the AMQP body bytes directly
+  public void handle(byte[] body) throws IOException {
+    handle(body, newOrderReader, null);
+  }
+
+  private void handle(byte[] body, ObjectReader reader, @Nullable PayloadEncoding encoding) throws IOException {
+    handle(parse(body, reader, encoding));
+  }
+
+  private NewOrderMessage parse(byte[] body, ObjectReader reader, @Nullable PayloadEncoding encoding) throws IOException {
     try {
-      NewOrderMessage dto = objectMapper.readValue(payload, NewOrderMessage.class);
-      NewOrderMessage.NewOrderCustomer c = dto.customer();
-      Customer customer = new Customer(
-        c != null ? c.name() : null,
-        c != null ? c.email() : null,
-        c != null ? c.phone() : null
-      );
-      OrderCreatedEvent event = new OrderCreatedEvent(
-        dto.orderNumber(),
-        dto.productCode(),
-        dto.quantity(),
-        customer
-      );
-      events.publishEvent(event);
-      log.info("[InboundNewOrderListener] published OrderCreatedEvent: {}", event);
+      return metrics.deserialization().recordCallable(() -> read(body, reader, encoding));
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException("Failed to process message", e);
+    }
+  }
+
+  private void handle(NewOrderMessage dto) throws IOException {
+    try {
+      String key = dedup != null && dedup.keySource() == NewOrderDeduplicator.KeySource.ORDER_NUMBER
+          ? dto.orderNumber() : null;
+      if (key == null) {
+        publish(dto);
+      } else if (!dedup.runOnce(key, () -> publish(dto))) {
+        log.debug("[InboundNewOrderListener] duplicate order {} dropped", key);
+      }
     } catch (IOException e) {
       throw e; // propagate to trigger NACK in listener method
     } catch (Exception e) {
@@ -76,12 +183,143 @@ public class InboundNewOrderListener {
     }
   }
 
+  // A compressed body is inflated while Jackson reads it, without an intermediate decoded copy and
+  // at most up to max-decoded-bytes
+  private NewOrderMessage read(byte[] body, ObjectReader reader, @Nullable PayloadEncoding encoding) throws IOException {
+    if (encoding == null) {
+      return reader.readValue(body);
+    }
+    try (PayloadEncoding.CountingInputStream in =
+             new PayloadEncoding.CountingInputStream(encoding.decoding(new ByteArrayInputStream(body)), maxDecodedBytes)) {
+      NewOrderMessage dto = reader.readValue(in);
+      metrics.decompressed(encoding, body.length, in.count());
+      return dto;
+    }
+  }
+
+  // Delegate for unit tests to avoid needing Channel/Message
+  public void handle(String payload) throws IOException {
+    handle(payload.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void publish(NewOrderMessage dto) {
+    NewOrderMessage.NewOrderCustomer c = dto.customer();
+    Customer customer = new Customer(
+      c != null ? c.name() : null,
+      c != null ? c.email() : null,
+      c != null ? c.phone() : null
+    );
+    OrderCreatedEvent event = new OrderCreatedEvent(
+      dto.orderNumber(),
+      dto.productCode(),
+      dto.quantity(),
+      customer
+    );
+    metrics.publish().record(() -> {
+      if (publishTransaction != null) {
+        // Joins the idempotency transaction when there is one
+        publishTransaction.executeWithoutResult(status -> events.publishEvent(event));
+      } else {
+        events.publishEvent(event);
+      }
+    });
+    // The delivery's summary line (OrderPipelineLog) reports it; the event itself holds customer data
+    pipelineLog.published(event);
+    log.debug("[InboundNewOrderListener] published OrderCreatedEvent for order {}", event.orderNumber());
+  }
+
+  // Package-private for tests.
+  // Poison messages are rejected individually (dead-lettered) as they are encountered; every other
+  // delivery is settled by one multiple-ack on the highest successful tag once the batch is done.
+  // Acking a tag that was already rejected would close the channel, hence "highest successful".
+  void processBatch(List<Message> messages, LongConsumer ackUpTo, LongConsumer reject) {
+    long lastAcked = -1;
+    List<Timer.Sample> pendingAcks = new ArrayList<>(messages.size());
+    for (Message message : messages) {
+      long tag = message.getMessageProperties().getDeliveryTag();
+      Timer.Sample received = metrics.start();
+      payloadLog.log(log, message);
+      boolean[] ok = {false};
+      process(message, () -> ok[0] = true, metrics.timedReject(received, () -> reject.accept(tag)));
+      if (ok[0]) {
+        lastAcked = Math.max(lastAcked, tag);
+        pendingAcks.add(received);
+      }
+    }
+    if (lastAcked >= 0) {
+      ackUpTo.accept(lastAcked);
+      pendingAcks.forEach(sample -> metrics.timedAck(sample, () -> { }).run());
+    }
+  }
+
+  // Package-private for tests. Every delivery passes here (single, batch, lanes), so this is where
+  // its summary line is started and written.
+  void process(Message message, Runnable ack, Runnable reject) {
+    process(message, null, ack, reject);
+  }
+
+  // parsed: the body as already parsed for a lane key, or null to parse it here
+  private void process(Message message, @Nullable NewOrderMessage parsed, Runnable ack, Runnable reject) {
+    OrderPipelineLog.Delivery delivery = pipelineLog.begin(message);
+    try {
+      if (retries == null) {
+        retryInThread(() -> handleOnce(message, parsed), delivery.acked(ack), delivery.rejected(reject));
+      } else {
+        processWithDelayedRetry(message, parsed, delivery.acked(ack), delivery.rejected(reject));
+      }
+    } finally {
+      pipelineLog.end(delivery);
+    }
+  }
+
+  // One attempt per delivery: a failure is parked in the retry tier (and the original acked)
+  // until retry-max-attempts is reached, at which point the delivery is dead-lettered.
+  private void processWithDelayedRetry(Message message, @Nullable NewOrderMessage parsed, Runnable ack, Runnable reject) {
+    int attempts = NewOrderRetryPublisher.attemptsOf(message) + 1;
+    try {
+      handleOnce(message, parsed);
+      ack.run();
+    } catch (Exception e) {
+      if (attempts >= maxAttempts) {
+        log.warn("[InboundNewOrderListener] failing after {} attempts; dead-lettering", attempts, e);
+        reject.run();
+      } else if (retries.republish(message, attempts)) {
+        metrics.retried(true);
+        log.warn("[InboundNewOrderListener] attempt {}/{} failed; scheduled delayed retry", attempts, maxAttempts, e);
+        ack.run();
+      } else {
+        log.warn("[InboundNewOrderListener] attempt {}/{} failed and retry tier unavailable; dead-lettering",
+            attempts, maxAttempts, e);
+        reject.run();
+      }
+    }
+  }
+
+  // With idempotency keyed on the AMQP message-id, the check needs no parsing and happens here;
+  // the key is only kept if the attempt succeeds, so a retry is not mistaken for a duplicate.
+  private void handleOnce(Message message, @Nullable NewOrderMessage parsed) throws IOException {
+    String key = dedup != null && dedup.keySource() == NewOrderDeduplicator.KeySource.MESSAGE_ID
+        ? message.getMessageProperties().getMessageId() : null;
+    NewOrderDeduplicator.Work work = parsed != null
+        ? () -> handle(parsed)
+        : () -> handle(message.getBody(), readerFor(message), encodingOf(message));
+    if (key == null) {
+      work.run();
+    } else if (!dedup.runOnce(key, work)) {
+      log.debug("[InboundNewOrderListener] duplicate message-id {} dropped", key);
+    }
+  }
+
   // Package-private for tests
   void processWithAck(String payload, Runnable ack, Runnable reject) {
+    retryInThread(() -> handle(payload), ack, reject);
+  }
+
+  private void retryInThread(Attempt attempt, Runnable ack, Runnable reject) {
     int attempts = 0;
     while (true) {
       try {
-        handle(payload);
+        attempt.run();
         ack.run();
         return;
       } catch (Exception e) {
@@ -92,8 +330,14 @@ public class InboundNewOrderListener {
           return;
         } else {
           log.warn("[InboundNewOrderListener] attempt {}/{} failed; retrying", attempts, maxAttempts, e);
+          metrics.retried(false);
         }
       }
     }
   }
+
+  @FunctionalInterface
+  private interface Attempt {
+    void run() throws IOException;
+  }
 }
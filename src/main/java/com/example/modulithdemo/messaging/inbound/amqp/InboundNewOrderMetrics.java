@@ -0,0 +1,112 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Meters of the 'new-orders' consumer path:
+ * <ul>
+ *   <li>{@code orders.inbound.processing} receive-to-settle latency, tagged outcome=ack|reject</li>
+ *   <li>{@code orders.inbound.deserialization} body bytes to NewOrderMessage (incl. decompression)</li>
+ *   <li>{@code orders.inbound.compression.ratio} compressed / decoded size of compressed bodies, tagged encoding</li>
+ *   <li>{@code orders.inbound.retries} failed attempts that were retried, tagged mode=in-thread|delayed</li>
+ *   <li>{@code orders.inbound.dead.lettered} deliveries rejected to BookStoreDLX</li>
+ *   <li>{@code orders.events.publish} time spent in publishEvent (includes the registry write)</li>
+ * </ul>
+ */
+@Component
+public class InboundNewOrderMetrics {
+
+  private final Timer acked;
+  private final Timer rejected;
+  private final Timer deserialization;
+  private final Counter inThreadRetries;
+  private final Counter delayedRetries;
+  private final Counter deadLettered;
+  private final Timer publish;
+  private final Map<PayloadEncoding, DistributionSummary> compressionRatio = new EnumMap<>(PayloadEncoding.class);
+
+  public InboundNewOrderMetrics(MeterRegistry registry) {
+    this.acked = processing(registry, "ack");
+    this.rejected = processing(registry, "reject");
+    this.deserialization = Timer.builder("orders.inbound.deserialization")
+        .description("Deserialization of new-orders payloads").register(registry);
+    this.inThreadRetries = retries(registry, "in-thread");
+    this.delayedRetries = retries(registry, "delayed");
+    this.deadLettered = Counter.builder("orders.inbound.dead.lettered")
+        .description("new-orders deliveries rejected to the DLQ").register(registry);
+    this.publish = Timer.builder("orders.events.publish")
+        .tag("event", "OrderCreatedEvent")
+        .description("ApplicationEventPublisher.publishEvent incl. event publication registry write").register(registry);
+    for (PayloadEncoding encoding : PayloadEncoding.values()) {
+      compressionRatio.put(encoding, DistributionSummary.builder("orders.inbound.compression.ratio")
+          .tag("encoding", encoding.token())
+          .description("Compressed / decoded size of compressed new-orders payloads")
+          .register(registry));
+    }
+  }
+
+  // For tests and hand-built listeners
+  static InboundNewOrderMetrics noop() {
+    return new InboundNewOrderMetrics(new SimpleMeterRegistry());
+  }
+
+  private static Timer processing(MeterRegistry registry, String outcome) {
+    return Timer.builder("orders.inbound.processing")
+        .tag("outcome", outcome)
+        .description("new-orders receive-to-ack latency")
+        .register(registry);
+  }
+
+  private static Counter retries(MeterRegistry registry, String mode) {
+    return Counter.builder("orders.inbound.retries")
+        .tag("mode", mode)
+        .description("Failed new-orders attempts that were retried")
+        .register(registry);
+  }
+
+  Timer.Sample start() {
+    return Timer.start();
+  }
+
+  // Wraps the settle callbacks so the sample stops exactly when the delivery is acked or rejected
+  Runnable timedAck(Timer.Sample sample, Runnable ack) {
+    return () -> {
+      ack.run();
+      sample.stop(acked);
+    };
+  }
+
+  Runnable timedReject(Timer.Sample sample, Runnable reject) {
+    return () -> {
+      deadLettered.increment();
+      reject.run();
+      sample.stop(rejected);
+    };
+  }
+
+  Timer deserialization() {
+    return deserialization;
+  }
+
+  Timer publish() {
+    return publish;
+  }
+
+  void decompressed(PayloadEncoding encoding, long compressedBytes, long decodedBytes) {
+    if (decodedBytes > 0) {
+      compressionRatio.get(encoding).record((double) compressedBytes / decodedBytes);
+    }
+  }
+
+  void retried(boolean delayed) {
+    (delayed ? delayedRetries : inThreadRetries).increment();
+  }
+}
@@ -0,0 +1,210 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotency stage for 'new-orders': remembers keys (order number or AMQP message-id) of messages
+ * already turned into an OrderCreatedEvent, so redeliveries and upstream publisher retries are acked
+ * and dropped before {@code publishEvent}. A bounded in-memory tier (max entries + TTL, oldest first)
+ * answers most lookups; an optional JDBC tier makes the decision survive restarts and span replicas.
+ * <p>
+ * {@link #runOnce} runs the processing only for a key not seen before. With the JDBC tier the key is
+ * inserted in the same transaction as the processing (and so as the event publications it writes):
+ * a crash before the commit leaves neither, and the redelivery is processed again. The in-memory tier
+ * only remembers a key once that transaction has committed. Without the JDBC tier the key is reserved
+ * in memory up front and dropped again if processing fails, so a failed attempt never blocks its retry.
+ * The JDBC tier's table is created by config.InboundMessageDedupSchema ({@code app.schema.initialization}).
+ */
+@Component
+@ConditionalOnProperty(name = "app.amqp.new-orders.idempotency.enabled", havingValue = "true")
+public class NewOrderDeduplicator implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(NewOrderDeduplicator.class);
+
+  public enum KeySource { ORDER_NUMBER, MESSAGE_ID }
+
+  private static final String SQL_INSERT_KEY =
+      "INSERT INTO INBOUND_MESSAGE_DEDUP (MESSAGE_KEY, PROCESSED_AT) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+  private final KeySource keySource;
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate tx;
+  private final Duration jdbcTtl;
+
+  // Insertion-ordered: the eldest entry is both the first to expire and the first to evict
+  private final LinkedHashMap<String, Long> seen = new LinkedHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public NewOrderDeduplicator(
+      @Value("${app.amqp.new-orders.idempotency.key:order-number}") String key,
+      @Value("${app.amqp.new-orders.idempotency.max-entries:100000}") int maxEntries,
+      @Value("${app.amqp.new-orders.idempotency.ttl:10m}") Duration ttl,
+      @Value("${app.amqp.new-orders.idempotency.jdbc.enabled:false}") boolean jdbcEnabled,
+      @Value("${app.amqp.new-orders.idempotency.jdbc.ttl:7d}") Duration jdbcTtl,
+      @Nullable DataSource dataSource,
+      @Nullable PlatformTransactionManager transactionManager
+  ) {
+    this.keySource = "message-id".equalsIgnoreCase(key) ? KeySource.MESSAGE_ID : KeySource.ORDER_NUMBER;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.jdbcTtl = jdbcTtl;
+    if (jdbcEnabled && dataSource != null && transactionManager != null) {
+      this.jdbc = new JdbcTemplate(dataSource);
+      this.tx = new TransactionTemplate(transactionManager);
+    } else {
+      this.jdbc = null;
+      this.tx = null;
+    }
+    log.info("Configured new-orders idempotency: key={}, maxEntries={}, ttl={}, jdbcTier={}",
+        keySource, maxEntries, ttl, jdbc != null);
+  }
+
+  public KeySource keySource() {
+    return keySource;
+  }
+
+  /**
+   * @return {@code true} if {@code work} ran for a key not seen before; {@code false} for a duplicate
+   */
+  public boolean runOnce(String key, Work work) throws IOException {
+    if (key == null) {
+      work.run(); // nothing to deduplicate on
+      return true;
+    }
+    synchronized (seen) {
+      expire(System.nanoTime());
+      if (seen.containsKey(key)) {
+        hits.incrementAndGet();
+        return false;
+      }
+      if (jdbc == null) {
+        remember(key);
+      }
+    }
+    if (jdbc == null) {
+      try {
+        work.run();
+      } catch (IOException | RuntimeException e) {
+        synchronized (seen) {
+          seen.remove(key);
+        }
+        throw e;
+      }
+    } else if (!runInTransaction(key, work)) {
+      hits.incrementAndGet();
+      return false;
+    } else {
+      synchronized (seen) {
+        remember(key);
+      }
+    }
+    misses.incrementAndGet();
+    return true;
+  }
+
+  // The INSERT blocks a concurrent delivery of the same key until this transaction ends. A duplicate
+  // is a skipped insert, not a failed statement, which on Postgres would abort the transaction and
+  // fail its commit.
+  private boolean runInTransaction(String key, Work work) throws IOException {
+    try {
+      return Boolean.TRUE.equals(tx.execute(status -> {
+        if (jdbc.update(SQL_INSERT_KEY, key, Timestamp.from(Instant.now())) == 0) {
+          return false;
+        }
+        try {
+          work.run();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        return true;
+      }));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void remember(String key) {
+    seen.put(key, System.nanoTime());
+    evictOverflow();
+  }
+
+  private void expire(long now) {
+    Iterator<Map.Entry<String, Long>> it = seen.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, Long> eldest = it.next();
+      if (now - eldest.getValue() < ttlNanos) {
+        return;
+      }
+      it.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  private void evictOverflow() {
+    Iterator<String> it = seen.keySet().iterator();
+    while (seen.size() > maxEntries && it.hasNext()) {
+      it.next();
+      it.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.amqp.new-orders.idempotency.jdbc.cleanup-interval-ms:3600000}")
+  public void purgePersistent() {
+    if (jdbc != null) {
+      jdbc.update("DELETE FROM INBOUND_MESSAGE_DEDUP WHERE PROCESSED_AT < ?", Timestamp.from(Instant.now().minus(jdbcTtl)));
+    }
+  }
+
+  @FunctionalInterface
+  public interface Work {
+    void run() throws IOException;
+  }
+
+  int size() {
+    synchronized (seen) {
+      return seen.size();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("inbound.dedup.hits", hits, AtomicLong::get)
+        .description("new-orders deliveries dropped as duplicates").register(registry);
+    FunctionCounter.builder("inbound.dedup.misses", misses, AtomicLong::get)
+        .description("new-orders deliveries seen for the first time").register(registry);
+    FunctionCounter.builder("inbound.dedup.evictions", evictions, AtomicLong::get)
+        .description("keys evicted from the in-memory tier (size or TTL)").register(registry);
+    Gauge.builder("inbound.dedup.size", this, NewOrderDeduplicator::size)
+        .description("keys held in the in-memory tier").register(registry);
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants.*;
+
+/**
+ * Hands a failed 'new-orders' delivery to the delayed retry tier declared by
+ * {@link NewOrderTopologyConfig#newOrderRetryTopology}. The message is parked in the wait queue
+ * for its backoff level and comes back to 'new-orders' once the TTL expires, so the consumer
+ * thread does not sleep through the backoff.
+ * <p>
+ * The caller acks the original once {@link #republish} returns {@code true}, so with publisher
+ * confirms enabled (the default, {@code publisher-confirm-type: correlated}) the copy is sent mandatory
+ * and only counts as parked on a positive, unreturned confirm. The consumer thread waits for that
+ * confirm, usually a broker round trip but up to {@code confirm-timeout} per parked retry, after which
+ * the original is dead-lettered. Without confirms the send is fire-and-forget.
+ */
+@Component
+@ConditionalOnProperty(name = "app.amqp.new-orders.retry.mode", havingValue = "delayed")
+public class NewOrderRetryPublisher {
+
+  private static final Logger log = LoggerFactory.getLogger(NewOrderRetryPublisher.class);
+
+  private final RabbitTemplate rabbit;
+  private final int levels;
+  private final Duration confirmTimeout;
+  private final boolean confirms;
+
+  // Dedicated template: mandatory applies to every send of a template, so the shared one is left alone
+  @Autowired
+  public NewOrderRetryPublisher(
+      ConnectionFactory connectionFactory,
+      @Value("${app.amqp.new-orders.retry.levels:3}") int levels,
+      @Value("${app.amqp.new-orders.retry.confirm-timeout:2s}") Duration confirmTimeout
+  ) {
+    this(new RabbitTemplate(connectionFactory), levels, confirmTimeout);
+  }
+
+  NewOrderRetryPublisher(RabbitTemplate rabbit, int levels, Duration confirmTimeout) {
+    ConnectionFactory connectionFactory = rabbit.getConnectionFactory();
+    this.rabbit = rabbit;
+    this.levels = levels;
+    this.confirmTimeout = confirmTimeout;
+    this.confirms = connectionFactory != null && connectionFactory.isPublisherConfirms();
+    if (confirms) {
+      rabbit.setMandatory(true);
+    } else {
+      log.warn("[NewOrderRetryPublisher] publisher confirms are off (spring.rabbitmq.publisher-confirm-type); "
+          + "a retry copy lost in transit loses its order");
+    }
+  }
+
+  /**
+   * Current failed-attempt count carried by the message, 0 for a first delivery.
+   */
+  public static int attemptsOf(Message message) {
+    Object value = message.getMessageProperties().getHeader(RETRY_ATTEMPTS_HEADER);
+    return value instanceof Number n ? n.intValue() : 0;
+  }
+
+  /**
+   * Republishes the message to the wait queue for {@code failedAttempts}; attempts beyond the
+   * last level reuse the longest delay. Blocks for the publisher confirm when confirms are on.
+   *
+   * @return {@code true} if the broker accepted the copy and the original may be acked
+   */
+  public boolean republish(Message message, int failedAttempts) {
+    int level = Math.max(1, Math.min(failedAttempts, levels));
+    String routingKey = ORDERS_NEW_RETRY_ROUTING_PREFIX + level;
+    message.getMessageProperties().setHeader(RETRY_ATTEMPTS_HEADER, failedAttempts);
+    try {
+      if (!confirms) {
+        rabbit.send(BOOKSTORE_RETRY_EXCHANGE, routingKey, message);
+        return true;
+      }
+      CorrelationData correlation = new CorrelationData();
+      rabbit.send(BOOKSTORE_RETRY_EXCHANGE, routingKey, message, correlation);
+      CorrelationData.Confirm confirm = correlation.getFuture().get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+      // With mandatory publishing the return (if any) is recorded before the confirm completes
+      ReturnedMessage returned = correlation.getReturned();
+      if (!confirm.isAck()) {
+        log.error("[NewOrderRetryPublisher] retry level {} copy nacked: {}", level, confirm.getReason());
+        return false;
+      }
+      if (returned != null) {
+        log.error("[NewOrderRetryPublisher] retry level {} copy unroutable: {} {}", level,
+            returned.getReplyCode(), returned.getReplyText());
+        return false;
+      }
+      return true;
+    } catch (AmqpException | ExecutionException e) {
+      log.error("[NewOrderRetryPublisher] could not park message for retry level {}", level, e);
+      return false;
+    } catch (TimeoutException e) {
+      log.error("[NewOrderRetryPublisher] no confirm for retry level {} within {}", level, confirmTimeout);
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -2,13 +2,19 @@ package com.example.modulithdemo.messaging.inbound.amqp;
 
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants.*;
 
 @Configuration
@@ -53,4 +59,31 @@ public class NewOrderTopologyConfig {
   Binding bindNewOrderDlq(Queue newOrderDlq, DirectExchange newOrderDlx) {
     return BindingBuilder.bind(newOrderDlq).to(newOrderDlx).with(ORDERS_NEW_DLQ_ROUTING);
   }
+
+  // Delayed retry tier: one wait queue per backoff level (TTL = initial * multiplier^(level-1)).
+  // Expired messages dead-letter through the default exchange straight back into 'new-orders',
+  // so this works whether or not 'new-orders' is bound to BookStoreExchange.
+  @Bean
+  @ConditionalOnProperty(name = "app.amqp.new-orders.retry.mode", havingValue = "delayed")
+  Declarables newOrderRetryTopology(
+      @Value("${app.amqp.new-orders.retry.levels:3}") int levels,
+      @Value("${app.amqp.new-orders.retry.initial-delay-ms:1000}") long initialDelayMs,
+      @Value("${app.amqp.new-orders.retry.multiplier:4}") double multiplier
+  ) {
+    DirectExchange retryExchange = new DirectExchange(BOOKSTORE_RETRY_EXCHANGE, true, false);
+    List<Declarable> declarables = new ArrayList<>();
+    declarables.add(retryExchange);
+    double delay = initialDelayMs;
+    for (int level = 1; level <= levels; level++) {
+      Queue wait = QueueBuilder.durable(NEW_ORDERS_RETRY_QUEUE_PREFIX + level)
+          .ttl((int) Math.min(Integer.MAX_VALUE, Math.round(delay)))
+          .deadLetterExchange("")
+          .deadLetterRoutingKey(NEW_ORDERS_QUEUE)
+          .build();
+      declarables.add(wait);
+      declarables.add(BindingBuilder.bind(wait).to(retryExchange).with(ORDERS_NEW_RETRY_ROUTING_PREFIX + level));
+      delay *= multiplier;
+    }
+    return new Declarables(declarables);
+  }
 }
@@ -0,0 +1,155 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One summary line per 'new-orders' delivery in place of a line per stage: outcome, order number,
+ * product code, quantity, the AMQP message-id and correlation-id, the redelivered flag and the
+ * handling time. Customer data is never logged.
+ * <p>
+ * Only every {@code sample-every}-th delivery is summarised (0 disables); for the others nothing
+ * is allocated or rendered. With {@code structured=true} (the json-logs profile) the fields are
+ * SLF4J key-value pairs, which the JSON encoders write as fields, and message-id/correlation-id are
+ * in the MDC while any delivery is handled, sampled or not, so other lines logged for it (retries,
+ * failures, refused reservations) carry them too. Otherwise the fields are part of the message text.
+ */
+@Component
+public class OrderPipelineLog {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderPipelineLog.class);
+
+  static final String MESSAGE_ID = "messageId";
+  static final String CORRELATION_ID = "correlationId";
+
+  private final int sampleEvery;
+  private final boolean structured;
+  private final AtomicLong seen = new AtomicLong();
+  // The summarised delivery being handled on this thread, so publish() can attach the order to it
+  private final ThreadLocal<Delivery> current = new ThreadLocal<>();
+
+  public OrderPipelineLog(
+      @Value("${app.logging.order-pipeline.sample-every:1}") int sampleEvery,
+      @Value("${app.logging.order-pipeline.structured:false}") boolean structured
+  ) {
+    this.sampleEvery = sampleEvery;
+    this.structured = structured;
+  }
+
+  static OrderPipelineLog disabled() {
+    return new OrderPipelineLog(0, false);
+  }
+
+  /** Starts handling {@code message}; {@link Delivery#NONE} when it is not sampled. */
+  Delivery begin(Message message) {
+    if (structured) {
+      MessageProperties props = message.getMessageProperties();
+      if (props.getMessageId() != null) MDC.put(MESSAGE_ID, props.getMessageId());
+      if (props.getCorrelationId() != null) MDC.put(CORRELATION_ID, props.getCorrelationId());
+    }
+    if (sampleEvery <= 0 || !log.isInfoEnabled() || seen.incrementAndGet() % sampleEvery != 0) {
+      return Delivery.NONE;
+    }
+    Delivery delivery = new Delivery(message.getMessageProperties(), System.nanoTime());
+    current.set(delivery);
+    return delivery;
+  }
+
+  void published(OrderCreatedEvent event) {
+    Delivery delivery = current.get();
+    if (delivery != null) delivery.event = event;
+  }
+
+  /** Writes the summary of {@code delivery} (outcome as recorded by its settle callbacks). */
+  void end(Delivery delivery) {
+    try {
+      if (delivery == Delivery.NONE) {
+        return;
+      }
+      current.remove();
+      long tookMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - delivery.startNanos);
+      if (structured) {
+        writeStructured(delivery, tookMicros);
+      } else {
+        writeText(delivery, tookMicros);
+      }
+    } finally {
+      if (structured) {
+        MDC.remove(MESSAGE_ID);
+        MDC.remove(CORRELATION_ID);
+      }
+    }
+  }
+
+  private void writeText(Delivery d, long tookMicros) {
+    OrderCreatedEvent e = d.event;
+    log.info("[OrderPipelineLog] new-orders {}: orderNumber={} productCode={} quantity={} messageId={} "
+            + "correlationId={} redelivered={} tookUs={}", d.outcome(),
+        e != null ? e.orderNumber() : null, e != null ? e.productCode() : null, e != null ? e.quantity() : null,
+        d.props.getMessageId(), d.props.getCorrelationId(), d.props.isRedelivered(), tookMicros);
+  }
+
+  private void writeStructured(Delivery d, long tookMicros) {
+    OrderCreatedEvent e = d.event;
+    var line = log.atInfo()
+        .setMessage("new-orders delivery {}")
+        .addArgument(d.outcome())
+        .addKeyValue("outcome", d.outcome())
+        .addKeyValue("redelivered", d.props.isRedelivered())
+        .addKeyValue("tookUs", tookMicros);
+    if (e != null) {
+      line = line.addKeyValue("orderNumber", e.orderNumber())
+          .addKeyValue("productCode", e.productCode())
+          .addKeyValue("quantity", e.quantity());
+    }
+    line.log();
+  }
+
+  /**
+   * Summary state of one delivery. Outcomes: published (acked with an OrderCreatedEvent), acked
+   * (acked without one: duplicate dropped, or parked for a delayed retry), rejected (dead-lettered),
+   * pending (neither). In a batch, acked means settled by the batch's multiple-ack.
+   */
+  static final class Delivery {
+
+    static final Delivery NONE = new Delivery(null, 0);
+
+    private final MessageProperties props;
+    private final long startNanos;
+    private OrderCreatedEvent event;
+    private String settled;
+
+    private Delivery(MessageProperties props, long startNanos) {
+      this.props = props;
+      this.startNanos = startNanos;
+    }
+
+    Runnable acked(Runnable ack) {
+      return this == NONE ? ack : () -> {
+        settled = "acked";
+        ack.run();
+      };
+    }
+
+    Runnable rejected(Runnable reject) {
+      return this == NONE ? reject : () -> {
+        settled = "rejected";
+        reject.run();
+      };
+    }
+
+    String outcome() {
+      if (settled == null) return "pending";
+      return "acked".equals(settled) && event != null ? "published" : settled;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-key ordered parallelism for 'new-orders' ({@code app.amqp.new-orders.ordering.mode=lanes}).
+ * The single consumer hands each delivery to one of N single-threaded lanes chosen by hashing the
+ * ordering key (productCode or customer email), so deliveries with the same key run in arrival
+ * order while unrelated keys run in parallel. Each delivery is acked by its lane when it completes;
+ * the container's prefetch bounds how many deliveries are queued across all lanes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.amqp.new-orders.ordering.mode", havingValue = "lanes")
+public class OrderedLaneDispatcher implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderedLaneDispatcher.class);
+
+  public enum KeySource { PRODUCT_CODE, CUSTOMER_EMAIL }
+
+  private final KeySource keySource;
+  private final ThreadPoolExecutor[] lanes;
+
+  public OrderedLaneDispatcher(
+      @Value("${app.amqp.new-orders.ordering.key:product-code}") String key,
+      @Value("${app.amqp.new-orders.ordering.lanes:16}") int laneCount,
+      @Value("${app.amqp.new-orders.batch.enabled:false}") boolean batchEnabled,
+      MeterRegistry meters
+  ) {
+    if (batchEnabled) {
+      // A batch is settled with one multiple-ack, which cannot wait for lanes finishing out of order
+      throw new IllegalStateException("app.amqp.new-orders.ordering.mode=lanes requires batch.enabled=false");
+    }
+    this.keySource = "customer-email".equalsIgnoreCase(key) ? KeySource.CUSTOMER_EMAIL : KeySource.PRODUCT_CODE;
+    this.lanes = new ThreadPoolExecutor[Math.max(1, laneCount)];
+    for (int i = 0; i < lanes.length; i++) {
+      String name = "new-orders-lane-" + i;
+      lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    Gauge.builder("orders.inbound.lanes.pending", this, OrderedLaneDispatcher::pending)
+        .description("new-orders deliveries waiting in an ordering lane")
+        .register(meters);
+    log.info("Configured new-orders ordering lanes: key={}, lanes={}", keySource, lanes.length);
+  }
+
+  public KeySource keySource() {
+    return keySource;
+  }
+
+  public String keyOf(NewOrderMessage message) {
+    if (keySource == KeySource.CUSTOMER_EMAIL) {
+      return message.customer() != null ? message.customer().email() : null;
+    }
+    return message.productCode();
+  }
+
+  /**
+   * Runs the task on the lane owning {@code key}; a null key (e.g. an unparseable payload) goes to lane 0.
+   */
+  public void dispatch(String key, Runnable task) {
+    lanes[laneOf(key)].execute(task);
+  }
+
+  // Package-private for tests
+  int laneOf(String key) {
+    if (key == null) return 0;
+    int h = key.hashCode();
+    return Math.floorMod(h ^ (h >>> 16), lanes.length);
+  }
+
+  public int pending() {
+    int sum = 0;
+    for (ThreadPoolExecutor lane : lanes) sum += lane.getQueue().size();
+    return sum;
+  }
+
+  // The containers stop first (lifecycle), so this only drains what was already dispatched
+  @Override
+  public void destroy() throws InterruptedException {
+    for (ExecutorService lane : lanes) lane.shutdown();
+    for (ExecutorService lane : lanes) {
+      if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+        log.warn("[OrderedLaneDispatcher] lane did not drain in time; unacked deliveries will be redelivered");
+        lane.shutdownNow();
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression applied to AMQP message bodies, announced in the {@code content-encoding} property.
+ * Spring AMQP uses that property for the charset as well, so a compressed body is marked
+ * {@code <encoding>:<previous value>} (e.g. {@code gzip:UTF-8}), as its GZipPostProcessor does;
+ * anything not starting with a known encoding is an uncompressed body.
+ */
+public enum PayloadEncoding {
+
+  GZIP("gzip"),
+  DEFLATE("deflate");
+
+  private final String token;
+
+  PayloadEncoding(String token) {
+    this.token = token;
+  }
+
+  public String token() {
+    return token;
+  }
+
+  /**
+   * The encoding a {@code content-encoding} value announces, or {@code null} for an uncompressed body.
+   */
+  public static PayloadEncoding of(String contentEncoding) {
+    if (contentEncoding == null) {
+      return null;
+    }
+    int colon = contentEncoding.indexOf(':');
+    String first = (colon < 0 ? contentEncoding : contentEncoding.substring(0, colon)).trim();
+    for (PayloadEncoding encoding : values()) {
+      if (encoding.token.equalsIgnoreCase(first)) {
+        return encoding;
+      }
+    }
+    return null;
+  }
+
+  public String contentEncoding(String previous) {
+    return previous == null || previous.isEmpty() ? token : token + ":" + previous;
+  }
+
+  public byte[] encode(byte[] body, int level) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 2));
+    try (OutputStream compressing = compressing(out, level)) {
+      compressing.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  // Inflates lazily as the caller reads, so the decoded payload is never materialized as an array
+  public InputStream decoding(InputStream in) throws IOException {
+    return switch (this) {
+      case GZIP -> new GZIPInputStream(in, 8192);
+      case DEFLATE -> new InflaterInputStream(in);
+    };
+  }
+
+  private OutputStream compressing(OutputStream out, int level) throws IOException {
+    return switch (this) {
+      case GZIP -> new GZIPOutputStream(out, 8192) {
+        {
+          def.setLevel(level);
+        }
+      };
+      case DEFLATE -> new DeflaterOutputStream(out, new Deflater(level)) {
+        @Override
+        public void close() throws IOException {
+          super.close();
+          def.end();
+        }
+      };
+    };
+  }
+
+  /**
+   * Counts the bytes read through it, i.e. the decoded size of a streamed payload, and fails once
+   * more than {@code limit} bytes come out, so a small compressed body cannot inflate without bound.
+   */
+  static final class CountingInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long count;
+
+    CountingInputStream(InputStream in, long limit) {
+      super(in);
+      this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) counted(1);
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) counted(n);
+      return n;
+    }
+
+    private void counted(int n) throws IOException {
+      count += n;
+      if (count > limit) {
+        throw new IOException("Decoded payload exceeds " + limit + " bytes");
+      }
+    }
+
+    long count() {
+      return count;
+    }
+  }
+}
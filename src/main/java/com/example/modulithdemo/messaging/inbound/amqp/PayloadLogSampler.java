@@ -0,0 +1,56 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import org.slf4j.Logger;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which inbound payloads get logged, and how much of them. Only every
+ * {@code sample-every}-th payload is rendered at INFO (0, the default, disables it: payloads carry
+ * customer data), and only its first {@code max-bytes} bytes are decoded, so the full body is never
+ * turned into a String just for logging.
+ * Compressed or Smile bodies are not text: for those only size and encoding are logged.
+ */
+@Component
+public class PayloadLogSampler {
+
+  private final int sampleEvery;
+  private final int maxBytes;
+  private final AtomicLong seen = new AtomicLong();
+
+  public PayloadLogSampler(
+      @Value("${app.amqp.new-orders.payload-log.sample-every:0}") int sampleEvery,
+      @Value("${app.amqp.new-orders.payload-log.max-bytes:512}") int maxBytes
+  ) {
+    this.sampleEvery = sampleEvery;
+    this.maxBytes = maxBytes;
+  }
+
+  public void log(Logger log, Message message) {
+    if (sampleEvery <= 0 || !log.isInfoEnabled() || seen.incrementAndGet() % sampleEvery != 0) {
+      return;
+    }
+    byte[] body = message.getBody();
+    MessageProperties props = message.getMessageProperties();
+    String contentType = props.getContentType();
+    if (PayloadEncoding.of(props.getContentEncoding()) != null
+        || contentType != null && contentType.startsWith(AmqpConstants.CONTENT_TYPE_SMILE)) {
+      log.info("[InboundNewOrderListener] sampled payload from 'new-orders' ({} bytes, {} {}): not shown, encoded",
+          body.length, contentType, props.getContentEncoding());
+      return;
+    }
+    log.info("[InboundNewOrderListener] sampled payload from 'new-orders' ({} bytes): {}", body.length, preview(body));
+  }
+
+  String preview(byte[] body) {
+    if (body.length <= maxBytes) {
+      return new String(body, StandardCharsets.UTF_8);
+    }
+    return new String(body, 0, maxBytes, StandardCharsets.UTF_8) + "...(truncated)";
+  }
+}
@@ -0,0 +1,88 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.modulith.events.EventExternalizationConfiguration;
+import org.springframework.modulith.events.support.BrokerRouting;
+import org.springframework.modulith.events.support.DelegatingEventExternalizer;
+
+import java.time.Duration;
+
+/**
+ * Opt-in replacement for the fire-and-forget AMQP externalizer of spring-modulith-events-amqp
+ * ({@code app.events.externalization.confirms.enabled=true}). Publications of externalized events
+ * complete only once {@link ConfirmingRabbitEventSender} has a broker confirm for them.
+ * Being the same {@link DelegatingEventExternalizer} type, it keeps Modulith's listener id, so
+ * publications left incomplete by either externalizer are resubmitted to this one.
+ */
+@Configuration
+@ConditionalOnExpression("${app.events.externalization.confirms.enabled:false} and ${spring.modulith.events.externalization.enabled:true}")
+public class ConfirmingEventExternalizerConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(ConfirmingEventExternalizerConfig.class);
+
+  static final String EXTERNALIZER_BEAN = "confirmingRabbitEventExternalizer";
+
+  // Drops the auto-configured externalizer so every externalized event is sent exactly once, by us
+  @Bean
+  static BeanFactoryPostProcessor defaultRabbitExternalizerRemover() {
+    return beanFactory -> {
+      for (String name : beanFactory.getBeanNamesForType(DelegatingEventExternalizer.class, true, false)) {
+        if (!EXTERNALIZER_BEAN.equals(name) && beanFactory instanceof BeanDefinitionRegistry registry) {
+          registry.removeBeanDefinition(name);
+          log.info("Replaced event externalizer '{}' with '{}'", name, EXTERNALIZER_BEAN);
+        }
+      }
+    };
+  }
+
+  @Bean
+  ConfirmingRabbitEventSender confirmingRabbitEventSender(
+      ConnectionFactory connectionFactory,
+      RabbitTemplate rabbitTemplate,
+      ObjectProvider<CompressingMessagePostProcessor> compression,
+      MeterRegistry meters,
+      @Value("${app.events.externalization.confirms.max-in-flight:256}") int maxInFlight,
+      @Value("${app.events.externalization.confirms.acquire-timeout:30s}") Duration acquireTimeout,
+      @Value("${app.events.externalization.confirms.confirm-timeout:10s}") Duration confirmTimeout,
+      @Value("${app.events.externalization.confirms.max-attempts:5}") int maxAttempts,
+      @Value("${app.events.externalization.confirms.retry-backoff:500ms}") Duration retryBackoff
+  ) {
+    // Dedicated template (mandatory=true) sharing the application's connection factory, converter
+    // and payload compression
+    RabbitTemplate template = new RabbitTemplate(connectionFactory);
+    template.setMessageConverter(rabbitTemplate.getMessageConverter());
+    compression.ifAvailable(template::addBeforePublishPostProcessors);
+    log.info("Configured confirmed event externalization: maxInFlight={}, maxAttempts={}, confirmTimeout={}",
+        maxInFlight, maxAttempts, confirmTimeout);
+    return new ConfirmingRabbitEventSender(template, maxInFlight, acquireTimeout, confirmTimeout, maxAttempts,
+        retryBackoff, meters);
+  }
+
+  @Bean(EXTERNALIZER_BEAN)
+  DelegatingEventExternalizer confirmingRabbitEventExternalizer(
+      EventExternalizationConfiguration configuration,
+      ConfirmingRabbitEventSender sender,
+      BeanFactory beanFactory
+  ) {
+    StandardEvaluationContext context = new StandardEvaluationContext();
+    context.setBeanResolver(new BeanFactoryResolver(beanFactory));
+    return new DelegatingEventExternalizer(configuration, (target, payload) -> {
+      BrokerRouting routing = BrokerRouting.of(target, context);
+      return sender.send(routing.getTarget(payload), routing.getKey(payload), payload);
+    });
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipelined publisher for externalized events: every send carries a {@link CorrelationData} and
+ * returns immediately; the returned future completes when the broker confirms the message, so many
+ * publishes are in flight at once instead of one synchronous round trip each.
+ *
+ * <ul>
+ *   <li>At most {@code maxInFlight} messages are unconfirmed at a time; senders block for up to
+ *   {@code acquireTimeout} for a slot (back-pressure) and fail otherwise.</li>
+ *   <li>Nacks, returns (unroutable with mandatory), missing confirms and send errors are retried
+ *   with linear backoff, up to {@code maxAttempts} in total.</li>
+ *   <li>The future fails once attempts are exhausted, which leaves the event publication incomplete
+ *   for resubmission.</li>
+ * </ul>
+ * The template must use a connection factory with correlated confirms and returns enabled.
+ */
+public class ConfirmingRabbitEventSender implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(ConfirmingRabbitEventSender.class);
+
+  private final RabbitTemplate rabbit;
+  private final int maxInFlight;
+  private final Semaphore inFlight;
+  private final Duration acquireTimeout;
+  private final Duration confirmTimeout;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final ScheduledExecutorService retryScheduler;
+
+  private final Counter acked;
+  private final Counter nacked;
+  private final Counter returned;
+  private final Counter unconfirmed;
+
+  public ConfirmingRabbitEventSender(RabbitTemplate rabbit, int maxInFlight, Duration acquireTimeout,
+      Duration confirmTimeout, int maxAttempts, Duration retryBackoff, MeterRegistry meters) {
+    if (!rabbit.getConnectionFactory().isPublisherConfirms() || !rabbit.getConnectionFactory().isPublisherReturns()) {
+      throw new IllegalStateException("Confirmed externalization requires spring.rabbitmq.publisher-confirm-type=correlated"
+          + " and spring.rabbitmq.publisher-returns=true");
+    }
+    this.rabbit = rabbit;
+    this.rabbit.setMandatory(true);
+    this.maxInFlight = maxInFlight;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.acquireTimeout = acquireTimeout;
+    this.confirmTimeout = confirmTimeout;
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retryBackoff = retryBackoff;
+    this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "event-externalization-retry");
+      t.setDaemon(true);
+      return t;
+    });
+
+    this.acked = outcome(meters, "ack");
+    this.nacked = outcome(meters, "nack");
+    this.returned = outcome(meters, "returned");
+    this.unconfirmed = outcome(meters, "timeout");
+    Gauge.builder("events.externalization.in.flight", this, ConfirmingRabbitEventSender::inFlight)
+        .description("Externalized messages sent but not yet confirmed")
+        .register(meters);
+  }
+
+  private static Counter outcome(MeterRegistry meters, String outcome) {
+    return Counter.builder("events.externalization.confirms")
+        .tag("outcome", outcome)
+        .description("Publisher confirm outcomes for externalized events (per attempt)")
+        .register(meters);
+  }
+
+  /**
+   * Sends the payload (converted with the template's message converter) and returns a future that
+   * completes on a positive, unreturned confirm or fails once all attempts are used up.
+   */
+  public CompletableFuture<Void> send(String exchange, String routingKey, Object payload) {
+    try {
+      if (!inFlight.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        return CompletableFuture.failedFuture(
+            new AmqpException("No publish slot within " + acquireTimeout + " (in flight: " + inFlight() + ")"));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.failedFuture(e);
+    }
+
+    CompletableFuture<Void> confirmed = new CompletableFuture<>();
+    // Callers observe completion only after the slot is free again
+    CompletableFuture<Void> result = confirmed.whenComplete((ignored, error) -> inFlight.release());
+    try {
+      Message message = rabbit.getMessageConverter().toMessage(payload, new MessageProperties());
+      attempt(exchange, routingKey, message, 1, confirmed);
+    } catch (RuntimeException e) {
+      confirmed.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  public int inFlight() {
+    return maxInFlight - inFlight.availablePermits();
+  }
+
+  // Confirm callbacks run on the connection's thread: never block there, retries go to the scheduler
+  private void attempt(String exchange, String routingKey, Message message, int attempt, CompletableFuture<Void> result) {
+    CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+    try {
+      rabbit.send(exchange, routingKey, message, correlation);
+    } catch (AmqpException e) {
+      retryOrFail(exchange, routingKey, message, attempt, result, "send failed: " + e.getMessage());
+      return;
+    }
+    correlation.getFuture()
+        .orTimeout(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete((confirm, error) -> {
+          // With mandatory publishing the return (if any) is recorded before the confirm completes
+          ReturnedMessage returnedMessage = correlation.getReturned();
+          if (error != null) {
+            unconfirmed.increment();
+            retryOrFail(exchange, routingKey, message, attempt, result, "no confirm within " + confirmTimeout);
+          } else if (!confirm.isAck()) {
+            nacked.increment();
+            retryOrFail(exchange, routingKey, message, attempt, result, "nacked: " + confirm.getReason());
+          } else if (returnedMessage != null) {
+            returned.increment();
+            retryOrFail(exchange, routingKey, message, attempt, result,
+                "returned: " + returnedMessage.getReplyCode() + " " + returnedMessage.getReplyText());
+          } else {
+            acked.increment();
+            result.complete(null);
+          }
+        });
+  }
+
+  private void retryOrFail(String exchange, String routingKey, Message message, int attempt,
+      CompletableFuture<Void> result, String reason) {
+    if (attempt >= maxAttempts) {
+      log.warn("[ConfirmingRabbitEventSender] giving up on {}/{} after {} attempt(s): {}",
+          exchange, routingKey, attempt, reason);
+      result.completeExceptionally(new AmqpException("Not confirmed after " + attempt + " attempt(s): " + reason));
+      return;
+    }
+    log.debug("[ConfirmingRabbitEventSender] attempt {}/{} to {}/{} failed ({}); retrying",
+        attempt, maxAttempts, exchange, routingKey, reason);
+    try {
+      retryScheduler.schedule(() -> attempt(exchange, routingKey, message, attempt + 1, result),
+          retryBackoff.toMillis() * attempt, TimeUnit.MILLISECONDS);
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e); // scheduler shut down
+    }
+  }
+
+  @Override
+  public void destroy() {
+    retryScheduler.shutdownNow();
+  }
+}
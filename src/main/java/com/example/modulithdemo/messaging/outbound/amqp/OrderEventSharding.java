@@ -0,0 +1,38 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import com.example.modulithdemo.order.domain.OrderCompleted;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+
+import static com.example.modulithdemo.messaging.outbound.amqp.OrderEventsAmqpConstants.*;
+
+/**
+ * Maps order events onto {@code shards} routing keys. UUID and String hash codes are specified by
+ * the JDK, so every replica (and every restart) sends the same order to the same shard queue, and
+ * a consumer of one shard sees that order's events of each type in publication order (unless a
+ * send is retried after a nack while later ones were confirmed).
+ */
+final class OrderEventSharding {
+
+  private final int shards;
+
+  OrderEventSharding(int shards) {
+    this.shards = Math.max(1, shards);
+  }
+
+  int shards() {
+    return shards;
+  }
+
+  int shardOf(Object key) {
+    return key == null ? 0 : Math.floorMod(key.hashCode(), shards);
+  }
+
+  String completedKey(OrderCompleted event) {
+    return ORDER_COMPLETED_ROUTING_PREFIX + shardOf(event.orderId());
+  }
+
+  // OrderCreatedEvent carries no order id yet; its order number is the stable key
+  String createdKey(OrderCreatedEvent event) {
+    return ORDER_CREATED_ROUTING_PREFIX + shardOf(event.orderNumber());
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+/**
+ * AMQP names for the outbound order event fan-out (see {@link OrderEventsExternalizationConfig}).
+ * Shard queues and routing keys carry the shard index as suffix: {@code order-completed-0} is bound
+ * with {@code orders.completed.0}, and so on.
+ */
+public final class OrderEventsAmqpConstants {
+
+  private OrderEventsAmqpConstants() {
+    // Prevent instantiation
+  }
+
+  // Outbound exchange for order events; separate from BookStoreExchange so nothing we publish can
+  // reach the 'new-orders' binding (orders.new)
+  public static final String ORDER_EVENTS_EXCHANGE = "BookStoreOrderEvents";
+  public static final String ORDER_EVENTS_DLX = "BookStoreOrderEventsDLX";
+
+  // OrderCompleted, sharded by order id
+  public static final String ORDER_COMPLETED_QUEUE_PREFIX = "order-completed-";
+  public static final String ORDER_COMPLETED_ROUTING_PREFIX = "orders.completed.";
+  public static final String ORDER_COMPLETED_DLQ = "order-completed-dlq";
+  public static final String ORDER_COMPLETED_DLQ_ROUTING = "orders.completed.dlq";
+
+  // OrderCreatedEvent (optional), sharded by order number
+  public static final String ORDER_CREATED_QUEUE_PREFIX = "order-created-";
+  public static final String ORDER_CREATED_ROUTING_PREFIX = "orders.created.";
+  public static final String ORDER_CREATED_DLQ = "order-created-dlq";
+  public static final String ORDER_CREATED_DLQ_ROUTING = "orders.created.dlq";
+}
@@ -0,0 +1,60 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import com.example.modulithdemo.order.domain.OrderCompleted;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.modulith.events.EventExternalizationConfiguration;
+import org.springframework.modulith.events.RoutingTarget;
+
+import java.util.function.Predicate;
+
+import static com.example.modulithdemo.messaging.outbound.amqp.OrderEventsAmqpConstants.*;
+
+/**
+ * Outbound fan-out of order events ({@code app.amqp.order-events.enabled=true}): OrderCompleted,
+ * and OrderCreatedEvent with {@code app.amqp.order-events.created.enabled=true}, are externalized
+ * to {@value OrderEventsAmqpConstants#ORDER_EVENTS_EXCHANGE} with a routing key per shard
+ * ({@link OrderEventSharding}), so downstream services can consume the shard queues in parallel
+ * while keeping per-order ordering. Events annotated with {@code @Externalized} keep their own routing.
+ * <p>
+ * OrderCreatedEvent goes to its own exchange and keys, never to BookStoreExchange/orders.new, so
+ * externalizing it cannot feed back into the 'new-orders' queue even with app.amqp.new-orders.bind=true.
+ * The in-process listeners (InventoryManagement, OrderCreatedEventListener) are unaffected.
+ * Modulith's externalizer runs after commit, so with created.enabled InboundNewOrderListener
+ * publishes OrderCreatedEvent inside a transaction.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.amqp.order-events.enabled", havingValue = "true")
+public class OrderEventsExternalizationConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderEventsExternalizationConfig.class);
+
+  @Bean
+  OrderEventSharding orderEventSharding(@Value("${app.amqp.order-events.shards:4}") int shards) {
+    return new OrderEventSharding(shards);
+  }
+
+  // Replaces Modulith's default configuration (annotated events only)
+  @Bean
+  EventExternalizationConfiguration orderEventsExternalization(
+      OrderEventSharding sharding,
+      @Value("${app.amqp.order-events.created.enabled:false}") boolean created
+  ) {
+    Predicate<Object> orderEvents = event -> event instanceof OrderCompleted
+        || (created && event instanceof OrderCreatedEvent);
+    log.info("Externalizing order events to '{}' over {} shards (OrderCreatedEvent: {})",
+        ORDER_EVENTS_EXCHANGE, sharding.shards(), created);
+    return EventExternalizationConfiguration.externalizing()
+        .select(EventExternalizationConfiguration.annotatedAsExternalized().or(orderEvents))
+        .route(OrderCompleted.class, event -> RoutingTarget.forTarget(ORDER_EVENTS_EXCHANGE)
+            .andKey(sharding.completedKey(event)))
+        .route(OrderCreatedEvent.class, event -> RoutingTarget.forTarget(ORDER_EVENTS_EXCHANGE)
+            .andKey(sharding.createdKey(event)))
+        .build();
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.modulithdemo.messaging.outbound.amqp.OrderEventsAmqpConstants.*;
+
+// Shard queues for the order event fan-out (OrderEventsExternalizationConfig), declared when this
+// application manages the topology (app.amqp.order-events.declare). Dead-lettered messages of every
+// shard end up in one DLQ per event type, as with 'new-orders'.
+@Configuration
+@ConditionalOnExpression("${app.amqp.order-events.enabled:false} and ${app.amqp.order-events.declare:true}")
+public class OrderEventsTopologyConfig {
+
+  @Bean
+  Declarables orderEventsTopology(
+      @Value("${app.amqp.order-events.shards:4}") int shards,
+      @Value("${app.amqp.order-events.created.enabled:false}") boolean created,
+      @Value("${app.amqp.order-events.queue-type:quorum}") String queueType,
+      @Value("${app.amqp.order-events.delivery-limit:5}") int deliveryLimit
+  ) {
+    int shardCount = Math.max(1, shards);
+    boolean quorum = "quorum".equalsIgnoreCase(queueType.trim());
+    List<Declarable> declarables = new ArrayList<>();
+    declarables.add(new DirectExchange(ORDER_EVENTS_EXCHANGE, true, false));
+    declarables.add(new DirectExchange(ORDER_EVENTS_DLX, true, false));
+    shardedQueues(declarables, shardCount, quorum, deliveryLimit,
+        ORDER_COMPLETED_QUEUE_PREFIX, ORDER_COMPLETED_ROUTING_PREFIX, ORDER_COMPLETED_DLQ, ORDER_COMPLETED_DLQ_ROUTING);
+    if (created) {
+      shardedQueues(declarables, shardCount, quorum, deliveryLimit,
+          ORDER_CREATED_QUEUE_PREFIX, ORDER_CREATED_ROUTING_PREFIX, ORDER_CREATED_DLQ, ORDER_CREATED_DLQ_ROUTING);
+    }
+    return new Declarables(declarables);
+  }
+
+  private static void shardedQueues(List<Declarable> declarables, int shards, boolean quorum, int deliveryLimit,
+      String queuePrefix, String routingPrefix, String dlq, String dlqRouting) {
+    DirectExchange exchange = new DirectExchange(ORDER_EVENTS_EXCHANGE, true, false);
+    DirectExchange dlx = new DirectExchange(ORDER_EVENTS_DLX, true, false);
+    Queue deadLetters = QueueBuilder.durable(dlq).build();
+    declarables.add(deadLetters);
+    declarables.add(BindingBuilder.bind(deadLetters).to(dlx).with(dlqRouting));
+    for (int shard = 0; shard < shards; shard++) {
+      QueueBuilder builder = QueueBuilder.durable(queuePrefix + shard)
+          .deadLetterExchange(ORDER_EVENTS_DLX)
+          .deadLetterRoutingKey(dlqRouting);
+      if (quorum) {
+        // Replicated; a message redelivered more than 'delivery-limit' times (poison) is dead-lettered
+        builder.quorum().deliveryLimit(deliveryLimit);
+      }
+      Queue queue = builder.build();
+      declarables.add(queue);
+      declarables.add(BindingBuilder.bind(queue).to(exchange).with(routingPrefix + shard));
+    }
+  }
+}
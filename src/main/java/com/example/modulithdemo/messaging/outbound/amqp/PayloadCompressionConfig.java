@@ -0,0 +1,43 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import com.example.modulithdemo.messaging.inbound.amqp.PayloadEncoding;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+import java.util.Set;
+
+// app.amqp.compression.enabled=true: large bodies published to the configured exchanges are
+// compressed by the auto-configured RabbitTemplate (and the confirming externalizer's template).
+// InboundNewOrderListener decodes by content-encoding whether or not this is enabled.
+@Configuration
+@ConditionalOnProperty(name = "app.amqp.compression.enabled", havingValue = "true")
+public class PayloadCompressionConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(PayloadCompressionConfig.class);
+
+  @Bean
+  CompressingMessagePostProcessor compressingMessagePostProcessor(
+      @Value("${app.amqp.compression.encoding:gzip}") String encoding,
+      @Value("${app.amqp.compression.level:1}") int level,
+      @Value("${app.amqp.compression.threshold-bytes:2048}") int thresholdBytes,
+      @Value("${app.amqp.compression.exchanges:BookStoreExchange}") Set<String> exchanges,
+      MeterRegistry meters
+  ) {
+    PayloadEncoding payloadEncoding = PayloadEncoding.valueOf(encoding.trim().toUpperCase(Locale.ROOT));
+    log.info("Configured AMQP payload compression: {} level {} for bodies >= {} bytes to {}",
+        payloadEncoding.token(), level, thresholdBytes, exchanges);
+    return new CompressingMessagePostProcessor(payloadEncoding, level, thresholdBytes, exchanges, meters);
+  }
+
+  @Bean
+  RabbitTemplateCustomizer compressingRabbitTemplateCustomizer(CompressingMessagePostProcessor compression) {
+    return template -> template.addBeforePublishPostProcessors(compression);
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Writes AMQP payloads as Jackson Smile ({@value AmqpConstants#CONTENT_TYPE_SMILE}). Reading
+ * negotiates on the content type, so JSON messages still convert (to maps/lists, like Smile ones).
+ */
+public class SmileMessageConverter implements MessageConverter {
+
+  private final ObjectMapper smile;
+  private final ObjectMapper json;
+
+  public SmileMessageConverter(ObjectMapper objectMapper) {
+    this.json = objectMapper;
+    this.smile = objectMapper.copyWith(new SmileFactory());
+  }
+
+  @Override
+  public Message toMessage(Object object, MessageProperties messageProperties) {
+    try {
+      byte[] body = smile.writeValueAsBytes(object);
+      messageProperties.setContentType(AmqpConstants.CONTENT_TYPE_SMILE);
+      messageProperties.setContentLength(body.length);
+      return new Message(body, messageProperties);
+    } catch (IOException e) {
+      throw new MessageConversionException("Could not write " + object.getClass().getName() + " as Smile", e);
+    }
+  }
+
+  @Override
+  public Object fromMessage(Message message) {
+    String contentType = message.getMessageProperties().getContentType();
+    try {
+      if (contentType != null && contentType.startsWith(AmqpConstants.CONTENT_TYPE_SMILE)) {
+        return smile.readValue(message.getBody(), Object.class);
+      }
+      if (contentType != null && contentType.contains("json")) {
+        return json.readValue(message.getBody(), Object.class);
+      }
+    } catch (IOException e) {
+      throw new MessageConversionException("Could not read " + contentType + " payload", e);
+    }
+    return message.getBody();
+  }
+}
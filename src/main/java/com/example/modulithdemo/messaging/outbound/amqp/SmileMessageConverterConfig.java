@@ -0,0 +1,25 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// app.events.serialization.amqp=smile: the auto-configured RabbitTemplate (and with it Modulith's
+// externalizer and ConfirmingRabbitEventSender) uses this converter in place of the JSON one.
+@Configuration
+@ConditionalOnProperty(name = "app.events.serialization.amqp", havingValue = "smile")
+public class SmileMessageConverterConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(SmileMessageConverterConfig.class);
+
+  @Bean
+  MessageConverter smileMessageConverter(ObjectMapper objectMapper) {
+    log.info("Configured AMQP event payloads: Smile ({})", AmqpConstants.CONTENT_TYPE_SMILE);
+    return new SmileMessageConverter(objectMapper);
+  }
+}
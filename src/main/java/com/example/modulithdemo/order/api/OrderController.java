@@ -1,36 +1,72 @@
 package com.example.modulithdemo.order.api;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.modulithdemo.order.app.OrderManagement;
+import com.example.modulithdemo.order.domain.OrderAlreadyCompletedException;
 import com.example.modulithdemo.order.domain.OrderCompletionException;
+import com.example.modulithdemo.order.domain.OrderNotFoundException;
 
 @RestController
 @RequestMapping("/orders")
-@RequiredArgsConstructor
 public class OrderController {
 
   private static final Logger log = LoggerFactory.getLogger(OrderController.class);
 
   private final OrderManagement orders;
+  private final ObjectWriter resultWriter;
+  private final int bulkChunkSize;
+
+  public OrderController(
+      OrderManagement orders,
+      ObjectMapper objectMapper,
+      @Value("${app.orders.bulk.chunk-size:500}") int bulkChunkSize
+  ) {
+    this.orders = orders;
+    this.resultWriter = objectMapper.writerFor(BulkResult.class);
+    this.bulkChunkSize = Math.max(1, bulkChunkSize);
+  }
 
   @PostMapping("/{id}/complete")
   public ResponseEntity<String> complete(@PathVariable UUID id) {
     try {
-      log.info("Received request to complete order: {}", id);
-
       orders.complete(id);
 
+      // One line per request; OrderManagement logs its steps at DEBUG
       String message = "Order " + id + " completed (event published)";
-      log.info("Successfully completed order: {}", id);
+      log.info("Completed order {}", id);
 
       return ResponseEntity.accepted().body(message);
 
+    } catch (OrderNotFoundException e) {
+      log.warn("Cannot complete order {}: {}", id, e.getMessage());
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+
+    } catch (OrderAlreadyCompletedException e) {
+      log.warn("Cannot complete order {}: {}", id, e.getMessage());
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+
     } catch (OrderCompletionException e) {
       log.error("Failed to complete order {}: {}", id, e.getMessage());
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -47,4 +83,95 @@ public class OrderController {
           .body("Unexpected error occurred while completing order " + id);
     }
   }
+
+  /**
+   * Bulk completion: newline-delimited order IDs in (bare or JSON-quoted UUIDs), one NDJSON result
+   * line per ID out. IDs are completed in chunked transactions while the request is still being
+   * read, and each chunk's results are flushed as soon as it commits. The body is read and written on
+   * an async thread; a run is cut off after {@code spring.mvc.async.request-timeout} (30m).
+   */
+  @PostMapping(path = "/complete",
+      consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE},
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> completeAll(InputStream body) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(out -> completeAll(body, out));
+  }
+
+  // Package-private for tests
+  void completeAll(InputStream in, OutputStream out) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    List<UUID> chunk = new ArrayList<>(bulkChunkSize);
+    long completed = 0;
+    long failed = 0;
+
+    String line;
+    while ((line = reader.readLine()) != null) {
+      String raw = unquote(line.strip());
+      if (raw.isEmpty()) continue;
+      try {
+        chunk.add(UUID.fromString(raw));
+      } catch (IllegalArgumentException e) {
+        write(writer, new BulkResult(raw, BulkStatus.INVALID, "not a UUID"));
+        failed++;
+        continue;
+      }
+      if (chunk.size() >= bulkChunkSize) {
+        int ok = completeChunk(chunk, writer);
+        completed += ok;
+        failed += chunk.size() - ok;
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      int ok = completeChunk(chunk, writer);
+      completed += ok;
+      failed += chunk.size() - ok;
+    }
+    writer.flush();
+    log.info("Bulk completion finished: {} completed, {} failed", completed, failed);
+  }
+
+  // One transaction per chunk; if it fails, the chunk is retried order by order so one bad ID does
+  // not fail its neighbours. Returns the number of completed orders.
+  private int completeChunk(List<UUID> chunk, Writer writer) throws IOException {
+    int ok = 0;
+    try {
+      orders.completeAll(chunk);
+      for (UUID id : chunk) {
+        write(writer, new BulkResult(id.toString(), BulkStatus.COMPLETED, null));
+      }
+      ok = chunk.size();
+    } catch (RuntimeException chunkFailure) {
+      log.warn("Bulk chunk of {} order(s) failed, completing individually: {}", chunk.size(), chunkFailure.getMessage());
+      for (UUID id : chunk) {
+        try {
+          orders.complete(id);
+          write(writer, new BulkResult(id.toString(), BulkStatus.COMPLETED, null));
+          ok++;
+        } catch (RuntimeException e) {
+          write(writer, new BulkResult(id.toString(), BulkStatus.FAILED, e.getMessage()));
+        }
+      }
+    }
+    writer.flush();
+    return ok;
+  }
+
+  private void write(Writer writer, BulkResult result) throws IOException {
+    writer.write(resultWriter.writeValueAsString(result));
+    writer.write('\n');
+  }
+
+  private static String unquote(String value) {
+    return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+        ? value.substring(1, value.length() - 1) : value;
+  }
+
+  enum BulkStatus { COMPLETED, FAILED, INVALID }
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  record BulkResult(String orderId, BulkStatus status, String error) {}
 }
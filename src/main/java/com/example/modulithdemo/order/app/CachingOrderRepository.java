@@ -0,0 +1,166 @@
+package com.example.modulithdemo.order.app;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.example.modulithdemo.order.domain.Order;
+
+/**
+ * Bounded cache of hot orders in front of another {@link OrderRepository}. Recently created orders
+ * are cached on insert, so validating their completion needs no DB round-trip; the least recently
+ * used entry is evicted beyond {@code maxEntries}.
+ * <p>
+ * Transitions made in a transaction reach the cache only after it commits (a rollback evicts the
+ * order instead). A cache entry can be stale when another instance changed the order, but the
+ * stale version then fails the optimistic check in the delegate, so it can never complete an
+ * order twice.
+ */
+public class CachingOrderRepository implements OrderRepository, MeterBinder {
+
+  private final OrderRepository delegate;
+  private final int maxEntries;
+
+  // Access-ordered: the eldest entry is the least recently used
+  private final LinkedHashMap<UUID, Order> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public CachingOrderRepository(OrderRepository delegate, int maxEntries) {
+    this.delegate = delegate;
+    this.maxEntries = Math.max(1, maxEntries);
+  }
+
+  @Override
+  public boolean insertIfAbsent(Order order) {
+    boolean inserted = delegate.insertIfAbsent(order);
+    if (inserted) {
+      afterCommit(List.of(order));
+    }
+    return inserted;
+  }
+
+  @Override
+  public Optional<Order> findById(UUID id) {
+    Order cached = cached(id);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    Optional<Order> loaded = delegate.findById(id);
+    loaded.ifPresent(this::put);
+    return loaded;
+  }
+
+  @Override
+  public Map<UUID, Order> findAllById(Collection<UUID> ids) {
+    Map<UUID, Order> found = new HashMap<>();
+    List<UUID> missing = new ArrayList<>();
+    for (UUID id : ids) {
+      Order cached = cached(id);
+      if (cached != null) {
+        found.put(id, cached);
+      } else {
+        missing.add(id);
+      }
+    }
+    if (!missing.isEmpty()) {
+      // One round-trip for all misses
+      Map<UUID, Order> loaded = delegate.findAllById(missing);
+      loaded.values().forEach(this::put);
+      found.putAll(loaded);
+    }
+    return found;
+  }
+
+  @Override
+  public void saveTransitions(List<Order> orders) {
+    try {
+      delegate.saveTransitions(orders);
+    } catch (RuntimeException e) {
+      // Whatever we held for these orders is no longer trustworthy
+      orders.forEach(order -> evict(order.id()));
+      throw e;
+    }
+    afterCommit(orders);
+  }
+
+  private void afterCommit(List<Order> orders) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      orders.forEach(this::put);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status == STATUS_COMMITTED) {
+          orders.forEach(CachingOrderRepository.this::put);
+        } else {
+          orders.forEach(order -> evict(order.id()));
+        }
+      }
+    });
+  }
+
+  private Order cached(UUID id) {
+    Order order;
+    synchronized (cache) {
+      order = cache.get(id);
+    }
+    (order != null ? hits : misses).incrementAndGet();
+    return order;
+  }
+
+  private void put(Order order) {
+    synchronized (cache) {
+      Order current = cache.get(order.id());
+      // Never replace a newer state with an older read
+      if (current == null || current.version() <= order.version()) {
+        cache.put(order.id(), order);
+      }
+      Iterator<UUID> it = cache.keySet().iterator();
+      while (cache.size() > maxEntries && it.hasNext()) {
+        it.next();
+        it.remove();
+        evictions.incrementAndGet();
+      }
+    }
+  }
+
+  private void evict(UUID id) {
+    synchronized (cache) {
+      cache.remove(id);
+    }
+  }
+
+  int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("orders.cache.hits", hits, AtomicLong::get)
+        .description("order lookups answered from the cache").register(registry);
+    FunctionCounter.builder("orders.cache.misses", misses, AtomicLong::get)
+        .description("order lookups that went to the database").register(registry);
+    FunctionCounter.builder("orders.cache.evictions", evictions, AtomicLong::get)
+        .description("orders evicted from the cache (size bound)").register(registry);
+    Gauge.builder("orders.cache.size", this, CachingOrderRepository::size)
+        .description("orders held in the cache").register(registry);
+  }
+}
@@ -0,0 +1,98 @@
+package com.example.modulithdemo.order.app;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import com.example.modulithdemo.order.domain.Order;
+import com.example.modulithdemo.order.domain.OrderStatus;
+
+/**
+ * {@link OrderRepository} on the ORDERS table (db/orders.sql).
+ */
+public class JdbcOrderRepository implements OrderRepository {
+
+  private static final String SELECT =
+      "SELECT ID, ORDER_NUMBER, PRODUCT_CODE, QUANTITY, STATUS, VERSION FROM ORDERS";
+
+  private final JdbcTemplate jdbc;
+  private final NamedParameterJdbcTemplate named;
+
+  public JdbcOrderRepository(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+    this.named = new NamedParameterJdbcTemplate(jdbc);
+  }
+
+  // Runs inside the publishing transaction: a duplicate is a skipped insert rather than a failed
+  // statement, which on Postgres would abort that transaction and fail its commit
+  @Override
+  public boolean insertIfAbsent(Order order) {
+    Timestamp now = Timestamp.from(Instant.now());
+    return jdbc.update("INSERT INTO ORDERS (ID, ORDER_NUMBER, PRODUCT_CODE, QUANTITY, STATUS, VERSION, CREATED_AT, UPDATED_AT)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING",
+        order.id(), order.orderNumber(), order.productCode(), order.quantity(), order.status().name(),
+        order.version(), now, now) > 0;
+  }
+
+  @Override
+  public Optional<Order> findById(UUID id) {
+    return jdbc.query(SELECT + " WHERE ID = ?", JdbcOrderRepository::map, id).stream().findFirst();
+  }
+
+  @Override
+  public Map<UUID, Order> findAllById(Collection<UUID> ids) {
+    if (ids.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<UUID, Order> found = new HashMap<>();
+    named.query(SELECT + " WHERE ID IN (:ids)", new MapSqlParameterSource("ids", ids),
+        (ResultSet rs) -> {
+          Order order = map(rs, 0);
+          found.put(order.id(), order);
+        });
+    return found;
+  }
+
+  @Override
+  public void saveTransitions(List<Order> orders) {
+    if (orders.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.from(Instant.now());
+    List<Object[]> rows = new ArrayList<>(orders.size());
+    for (Order order : orders) {
+      rows.add(new Object[] {order.status().name(), order.version(), now, order.id(), order.version() - 1});
+    }
+    int[] updated = jdbc.batchUpdate(
+        "UPDATE ORDERS SET STATUS = ?, VERSION = ?, UPDATED_AT = ? WHERE ID = ? AND VERSION = ?", rows);
+    for (int i = 0; i < updated.length; i++) {
+      // SUCCESS_NO_INFO (-2) is a driver that does not report counts; only 0 means a lost update
+      if (updated[i] == 0) {
+        throw new OptimisticLockingFailureException(
+            "Order " + orders.get(i).id() + " was modified concurrently (expected version " + (orders.get(i).version() - 1) + ")");
+      }
+    }
+  }
+
+  private static Order map(ResultSet rs, int row) throws SQLException {
+    return new Order(
+        rs.getObject("ID", UUID.class),
+        rs.getString("ORDER_NUMBER"),
+        rs.getString("PRODUCT_CODE"),
+        rs.getInt("QUANTITY"),
+        OrderStatus.valueOf(rs.getString("STATUS")),
+        rs.getLong("VERSION"));
+  }
+}
@@ -1,39 +1,123 @@
 package com.example.modulithdemo.order.app;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import com.example.modulithdemo.order.domain.Order;
+import com.example.modulithdemo.order.domain.OrderAlreadyCompletedException;
 import com.example.modulithdemo.order.domain.OrderCompleted;
 import com.example.modulithdemo.order.domain.OrderCompletionException;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import com.example.modulithdemo.order.domain.OrderNotFoundException;
 
 @Service
-@RequiredArgsConstructor
 public class OrderManagement {
 
   private static final Logger log = LoggerFactory.getLogger(OrderManagement.class);
 
   private final ApplicationEventPublisher events;
+  private final OrderRepository orders;
+  private final Timer publishTimer;
 
+  public OrderManagement(ApplicationEventPublisher events, OrderRepository orders, MeterRegistry meters) {
+    this.events = events;
+    this.orders = orders;
+    this.publishTimer = Timer.builder("orders.events.publish")
+        .tag("event", "OrderCompleted")
+        .description("ApplicationEventPublisher.publishEvent incl. event publication registry write")
+        .register(meters);
+  }
+
+  // Records the order on the publishing (consumer) thread, so a failed insert fails the delivery
+  // and it is retried. A redelivered event maps to the same order id and is ignored. An order
+  // without a number cannot be addressed (its id is derived from the number) and is not recorded.
+  @EventListener
+  public void on(OrderCreatedEvent event) {
+    if (event.orderNumber() == null || event.orderNumber().isBlank()) {
+      log.warn("OrderCreatedEvent without an order number not recorded (productCode={})", event.productCode());
+      return;
+    }
+    Order order = Order.created(event);
+    if (!orders.insertIfAbsent(order)) {
+      log.debug("Order {} ({}) already recorded", order.id(), event.orderNumber());
+    }
+  }
+
+  /**
+   * Moves the order from CREATED to COMPLETED and publishes OrderCompleted in the same transaction.
+   *
+   * @throws OrderNotFoundException if no such order was recorded
+   * @throws OrderAlreadyCompletedException if it was completed before (or concurrently)
+   */
   @Transactional
   public void complete(UUID orderId) {
     Assert.notNull(orderId, "Order ID must not be null");
 
-    log.info("Completing order with ID: {}", orderId);
+    log.debug("Completing order with ID: {}", orderId);
 
-    // TODO: Add actual order validation and status update logic here
-    // For now, we'll just validate the ID and publish the event
+    // Validated from the cache for recently created orders; rejected before any event is written
+    Order order = orders.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
+    Order completed = order.completed();
+    transition(List.of(completed));
 
     try {
-      events.publishEvent(new OrderCompleted(orderId));
-      log.info("Order completion event published for order ID: {}", orderId);
+      publishTimer.record(() -> events.publishEvent(new OrderCompleted(orderId, order.orderNumber())));
+      log.debug("Order completion event published for order ID: {}", orderId);
     } catch (Exception e) {
       log.error("Failed to publish order completion event for order ID: {} - {}", orderId, e.getMessage(), e);
       throw new OrderCompletionException("Failed to complete order: " + orderId, e);
     }
   }
+
+  /**
+   * Completes a chunk of orders in one transaction, so their OrderCompleted publications are written
+   * together (a single JDBC batch with registry group commit). Cache misses are loaded in one query
+   * and the transitions written as one batch. Any invalid order or failure rolls back the whole chunk.
+   */
+  @Transactional
+  public void completeAll(List<UUID> orderIds) {
+    orderIds.forEach(orderId -> Assert.notNull(orderId, "Order ID must not be null"));
+
+    Map<UUID, Order> found = orders.findAllById(orderIds);
+    List<Order> completed = new ArrayList<>(orderIds.size());
+    for (UUID orderId : orderIds) {
+      Order order = found.get(orderId);
+      if (order == null) {
+        throw new OrderNotFoundException(orderId);
+      }
+      completed.add(order.completed());
+    }
+    transition(completed);
+
+    try {
+      for (Order order : completed) {
+        publishTimer.record(() -> events.publishEvent(new OrderCompleted(order.id(), order.orderNumber())));
+      }
+      log.debug("Order completion events published for {} order(s)", orderIds.size());
+    } catch (Exception e) {
+      log.error("Failed to publish order completion events for {} order(s) - {}", orderIds.size(), e.getMessage(), e);
+      throw new OrderCompletionException("Failed to complete " + orderIds.size() + " order(s)", e);
+    }
+  }
+
+  // A lost optimistic check means another request (or instance) completed the order first
+  private void transition(List<Order> completed) {
+    try {
+      orders.saveTransitions(completed);
+    } catch (OptimisticLockingFailureException e) {
+      UUID orderId = completed.size() == 1 ? completed.get(0).id() : null;
+      throw orderId != null ? new OrderAlreadyCompletedException(orderId) : e;
+    }
+  }
 }
@@ -0,0 +1,32 @@
+package com.example.modulithdemo.order.app;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import com.example.modulithdemo.order.domain.Order;
+
+/**
+ * Persistence of {@link Order} aggregates. Status transitions are optimistic: each order passed to
+ * {@link #saveTransitions} carries its new version and is only written if the stored row still has
+ * the version before it.
+ */
+public interface OrderRepository {
+
+  /**
+   * @return {@code false} if an order with the same id is already recorded
+   */
+  boolean insertIfAbsent(Order order);
+
+  Optional<Order> findById(UUID id);
+
+  /** Orders found for the given ids; unknown ids are absent from the map. */
+  Map<UUID, Order> findAllById(Collection<UUID> ids);
+
+  /**
+   * @throws org.springframework.dao.OptimisticLockingFailureException if any order was changed
+   *     concurrently; callers run this in their transaction so no transition is kept
+   */
+  void saveTransitions(List<Order> orders);
+}
@@ -0,0 +1,23 @@
+package com.example.modulithdemo.order.app;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.modulithdemo.config.SchemaScripts;
+
+@Configuration
+public class OrderRepositoryConfig {
+
+  // Declared as the concrete type so Boot binds its cache meters (MeterBinder)
+  @Bean
+  public CachingOrderRepository orderRepository(
+      DataSource dataSource,
+      @Value("${app.orders.cache.max-entries:10000}") int maxEntries,
+      @Value("${app.schema.initialization:always}") String schemaInitialization
+  ) {
+    SchemaScripts.apply(dataSource, schemaInitialization, "db/orders.sql", "ORDERS");
+    return new CachingOrderRepository(new JdbcOrderRepository(new JdbcTemplate(dataSource)), maxEntries);
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.modulithdemo.order.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Order aggregate as recorded from an {@link OrderCreatedEvent}. {@code version} is the optimistic
+ * lock: every status transition must name the version it read.
+ */
+public record Order(UUID id, String orderNumber, String productCode, int quantity, OrderStatus status, long version) {
+
+  /**
+   * The order id is derived from the order number, so a redelivered OrderCreatedEvent maps to the
+   * same order and callers holding only the order number can address it.
+   */
+  public static UUID idFor(String orderNumber) {
+    return UUID.nameUUIDFromBytes(("order:" + orderNumber).getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static Order created(OrderCreatedEvent event) {
+    return new Order(idFor(event.orderNumber()), event.orderNumber(), event.productCode(), event.quantity(),
+        OrderStatus.CREATED, 0);
+  }
+
+  public Order completed() {
+    if (status != OrderStatus.CREATED) {
+      throw new OrderAlreadyCompletedException(id);
+    }
+    return new Order(id, orderNumber, productCode, quantity, OrderStatus.COMPLETED, version + 1);
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.modulithdemo.order.domain;
+
+import java.util.UUID;
+
+public class OrderAlreadyCompletedException extends RuntimeException {
+
+  public OrderAlreadyCompletedException(UUID orderId) {
+    super("Order already completed: " + orderId);
+  }
+}
@@ -2,4 +2,11 @@ package com.example.modulithdemo.order.domain;
 
 import java.util.UUID;
 
-public record OrderCompleted(UUID orderId) {}
+// orderNumber links the completion to the OrderCreatedEvent it follows (e.g. for the inventory
+// reservation); null when the completing side does not know it.
+public record OrderCompleted(UUID orderId, String orderNumber) {
+
+  public OrderCompleted(UUID orderId) {
+    this(orderId, null);
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.modulithdemo.order.domain;
+
+import java.util.UUID;
+
+public class OrderNotFoundException extends RuntimeException {
+
+  public OrderNotFoundException(UUID orderId) {
+    super("Order not found: " + orderId);
+  }
+}
@@ -0,0 +1,3 @@
+package com.example.modulithdemo.order.domain;
+
+public enum OrderStatus { CREATED, COMPLETED }
@@ -0,0 +1,5 @@
+-- Partial index for the "incomplete publications" lookups (restart republish, resubmission):
+-- only incomplete rows are indexed, so it stays small no matter how much completed history is kept.
+CREATE INDEX IF NOT EXISTS event_publication_incomplete_idx
+  ON event_publication (publication_date)
+  WHERE completion_date IS NULL;
@@ -0,0 +1,8 @@
+-- Ownership leases for resubmitting incomplete event publications across replicas.
+-- A row means "node OWNER is resubmitting PUBLICATION_ID until LEASED_UNTIL"; an expired row is as good as none.
+CREATE TABLE IF NOT EXISTS EVENT_PUBLICATION_LEASE
+(
+  PUBLICATION_ID UUID                     NOT NULL PRIMARY KEY,
+  OWNER          VARCHAR(255)             NOT NULL,
+  LEASED_UNTIL   TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,6 @@
+-- Persistent tier of the new-orders idempotency stage: one row per processed message key
+CREATE TABLE IF NOT EXISTS INBOUND_MESSAGE_DEDUP
+(
+  MESSAGE_KEY  VARCHAR(255)             NOT NULL PRIMARY KEY,
+  PROCESSED_AT TIMESTAMP WITH TIME ZONE NOT NULL
+);
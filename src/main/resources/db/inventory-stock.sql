@@ -0,0 +1,26 @@
+-- Stock ledger of the inventory module, written behind its in-memory counters
+CREATE TABLE IF NOT EXISTS INVENTORY_STOCK
+(
+  PRODUCT_CODE VARCHAR(255)             NOT NULL PRIMARY KEY,
+  AVAILABLE    BIGINT                   NOT NULL,
+  RESERVED     BIGINT                   NOT NULL,
+  UPDATED_AT   TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Open reservations (taken on OrderCreatedEvent, removed on completion or cancellation)
+CREATE TABLE IF NOT EXISTS INVENTORY_RESERVATION
+(
+  ORDER_NUMBER VARCHAR(255)             NOT NULL PRIMARY KEY,
+  PRODUCT_CODE VARCHAR(255)             NOT NULL,
+  QUANTITY     INTEGER                  NOT NULL,
+  RESERVED_AT  TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Ledger ownership: row 1 is the lease of the instance running the in-memory counters, row 2 the
+-- heartbeat of instances running write-through (the owner hands over when it sees one)
+CREATE TABLE IF NOT EXISTS INVENTORY_LEDGER_OWNER
+(
+  ID           INTEGER                  NOT NULL PRIMARY KEY,
+  OWNER        VARCHAR(255)             NOT NULL,
+  LEASED_UNTIL TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,12 @@
+-- Orders recorded from OrderCreatedEvent; VERSION is the optimistic lock for status transitions
+CREATE TABLE IF NOT EXISTS ORDERS
+(
+  ID           UUID                     NOT NULL PRIMARY KEY,
+  ORDER_NUMBER VARCHAR(255)             NOT NULL UNIQUE,
+  PRODUCT_CODE VARCHAR(255),
+  QUANTITY     INTEGER                  NOT NULL,
+  STATUS       VARCHAR(16)              NOT NULL,
+  VERSION      BIGINT                   NOT NULL,
+  CREATED_AT   TIMESTAMP WITH TIME ZONE NOT NULL,
+  UPDATED_AT   TIMESTAMP WITH TIME ZONE NOT NULL
+);
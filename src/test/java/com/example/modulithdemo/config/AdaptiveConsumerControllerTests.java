@@ -0,0 +1,75 @@
+package com.example.modulithdemo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConsumerControllerTests {
+
+  // consumers 2..16, prefetch 5..250, target 200ms, pool saturation 0.9, backlog-high 1000
+  private final AdaptiveConsumerController controller =
+      new AdaptiveConsumerController(new RabbitListenerEndpointRegistry(), null, 2, 16, 5, 250, 200, 0.9, 1000, "none");
+
+  private static InboundLoadSignals.Snapshot signals(int poolActive, int poolPending, long backlog, long queueDepth) {
+    return new InboundLoadSignals.Snapshot(0, 0, poolActive, 10, poolPending, backlog, queueDepth);
+  }
+
+  @Test
+  void saturatedPool_halvesConsumersAndPrefetch_evenWithAQueueBacklog() {
+    AdaptiveConsumerController.Decision d = controller.decide(signals(10, 3, 0, 50_000), 20, 8, 40);
+    assertEquals(4, d.consumers());
+    assertEquals(20, d.prefetch());
+    assertTrue(d.reason().startsWith("db pool saturated"));
+  }
+
+  @Test
+  void registryBacklogOrSlowHandlers_removeOneConsumer() {
+    assertEquals(7, controller.decide(signals(2, 0, 5000, 50_000), 20, 8, 40).consumers());
+    assertEquals(7, controller.decide(signals(2, 0, 0, 50_000), 450, 8, 40).consumers());
+  }
+
+  @Test
+  void deepQueue_withFastHandlers_addsConsumerAndGrowsPrefetch() {
+    AdaptiveConsumerController.Decision d = controller.decide(signals(2, 0, 0, 10_000), 20, 8, 40);
+    assertEquals(9, d.consumers());
+    assertEquals(60, d.prefetch());
+  }
+
+  @Test
+  void boundsAreRespected() {
+    assertEquals(16, controller.decide(signals(2, 0, 0, 1_000_000), 20, 16, 250).consumers());
+    assertEquals(250, controller.decide(signals(2, 0, 0, 1_000_000), 20, 16, 250).prefetch());
+    assertEquals(2, controller.decide(signals(10, 5, 0, 0), 20, 2, 5).consumers());
+    assertEquals(5, controller.decide(signals(10, 5, 0, 0), 20, 2, 5).prefetch());
+  }
+
+  @Test
+  void emptyQueue_scalesDown_unknownDepth_holds() {
+    assertEquals(3, controller.decide(signals(1, 0, 0, 0), 20, 4, 20).consumers());
+    assertEquals("steady", controller.decide(signals(1, 0, 0, -1), 20, 4, 20).reason());
+  }
+
+  @Test
+  void override_pinsSettings_untilResumed() {
+    controller.override(12, null);
+    assertEquals("override", controller.state().get("mode"));
+    assertEquals(12, controller.state().get("consumers"));
+    assertEquals(20, controller.state().get("prefetch"));
+
+    controller.resume();
+    assertEquals("adaptive", controller.state().get("mode"));
+  }
+
+  @Test
+  void orderedLanes_disableAdaptation() {
+    AdaptiveConsumerController lanes =
+        new AdaptiveConsumerController(new RabbitListenerEndpointRegistry(), null, 2, 16, 5, 250, 200, 0.9, 1000, "lanes");
+
+    lanes.override(4, 100);
+
+    assertEquals("disabled", lanes.state().get("mode"));
+    assertFalse(lanes.state().containsKey("prefetch"), "no unapplied settings are reported");
+    assertEquals("disabled: ordered lanes", lanes.state().get("lastDecision"));
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.modulithdemo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPublicationLeasesTests {
+
+  EmbeddedDatabase db;
+
+  @BeforeEach
+  void setUp() {
+    db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    db.shutdown();
+  }
+
+  EventPublicationLeases node(String id, Duration lease) {
+    EventPublicationLeases leases = new EventPublicationLeases(db, EventPublicationTables.defaults(), id, lease, "always");
+    leases.afterPropertiesSet();
+    return leases;
+  }
+
+  @Test
+  void simulatedNodes_claimDisjointSlices() throws InterruptedException {
+    List<EventPublicationLeases> nodes = List.of(
+        node("node-a", Duration.ofMinutes(5)), node("node-b", Duration.ofMinutes(5)), node("node-c", Duration.ofMinutes(5)));
+    List<UUID> publications = new ArrayList<>();
+    for (int i = 0; i < 200; i++) publications.add(UUID.randomUUID());
+
+    Set<UUID> claimed = ConcurrentHashMap.newKeySet();
+    AtomicInteger wins = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(nodes.size());
+    for (EventPublicationLeases node : nodes) {
+      pool.execute(() -> {
+        try { start.await(); } catch (InterruptedException e) { return; }
+        for (UUID id : publications) {
+          if (node.claim(id)) {
+            wins.incrementAndGet();
+            claimed.add(id);
+          }
+        }
+      });
+    }
+    start.countDown();
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+    assertEquals(publications.size(), wins.get(), "every publication is claimed by exactly one node");
+    assertEquals(publications.size(), claimed.size());
+  }
+
+  @Test
+  void expiredLease_canBeTakenOverByAnotherNode() {
+    EventPublicationLeases crashed = node("crashed", Duration.ofMillis(-1));
+    EventPublicationLeases survivor = node("survivor", Duration.ofMinutes(5));
+    UUID id = UUID.randomUUID();
+
+    assertTrue(crashed.claim(id));
+    assertTrue(survivor.claim(id), "expired lease should be taken over");
+    assertFalse(crashed.claim(id), "live lease of another node must not be stolen");
+  }
+
+  @Test
+  void liveLease_isNotReclaimedByItsOwner_untilReleased() {
+    EventPublicationLeases node = node("node-a", Duration.ofMinutes(5));
+    EventPublicationLeases other = node("node-b", Duration.ofMinutes(5));
+    UUID id = UUID.randomUUID();
+
+    assertTrue(node.claim(id));
+    assertFalse(node.claim(id), "a publication still in flight must not be dispatched again");
+
+    other.release(id);
+    assertFalse(node.claim(id), "only the owner releases its lease");
+
+    node.release(id);
+    assertTrue(other.claim(id), "a released lease is free for any node");
+  }
+
+  @Test
+  void deleteExpired_removesOnlyExpiredLeases() {
+    EventPublicationLeases crashed = node("crashed", Duration.ofMillis(-1));
+    EventPublicationLeases live = node("live", Duration.ofMinutes(5));
+    crashed.claim(UUID.randomUUID());
+    live.claim(UUID.randomUUID());
+
+    assertEquals(1, live.deleteExpired());
+  }
+
+  @Test
+  void leaseTable_followsTheRegistrySchemaAndPrefix() {
+    new JdbcTemplate(db).execute("CREATE SCHEMA EVENTS");
+    EventPublicationLeases leases = new EventPublicationLeases(
+        db, new EventPublicationTables("EVENTS", "APP_"), "node-a", Duration.ofMinutes(5), "if-missing");
+    leases.afterPropertiesSet();
+
+    assertTrue(leases.claim(UUID.randomUUID()));
+    assertTrue(SchemaScripts.tableExists(db, "EVENTS.APP_EVENT_PUBLICATION_LEASE"));
+    assertFalse(SchemaScripts.tableExists(db, "EVENT_PUBLICATION_LEASE"));
+  }
+}
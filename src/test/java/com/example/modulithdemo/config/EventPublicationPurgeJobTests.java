@@ -0,0 +1,112 @@
+package com.example.modulithdemo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPublicationPurgeJobTests {
+
+  static final String DDL = """
+      CREATE TABLE %s (
+        ID UUID NOT NULL PRIMARY KEY, LISTENER_ID VARCHAR(512) NOT NULL, EVENT_TYPE VARCHAR(512) NOT NULL,
+        SERIALIZED_EVENT VARCHAR(4000) NOT NULL, PUBLICATION_DATE TIMESTAMP WITH TIME ZONE NOT NULL,
+        COMPLETION_DATE TIMESTAMP WITH TIME ZONE)
+      """;
+
+  EmbeddedDatabase db;
+  JdbcTemplate jdbc;
+  TransactionTemplate tx;
+  Instant now = Instant.now();
+
+  @BeforeEach
+  void setUp() {
+    db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    jdbc = new JdbcTemplate(db);
+    tx = new TransactionTemplate(new DataSourceTransactionManager(db));
+    jdbc.execute(DDL.formatted("EVENT_PUBLICATION"));
+    jdbc.execute(DDL.formatted("EVENT_PUBLICATION_ARCHIVE"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    db.shutdown();
+  }
+
+  EventPublicationPurgeJob job(int chunkSize, String archiveTable) {
+    return new EventPublicationPurgeJob(jdbc, tx, EventPublicationTables.defaults(),
+        new DefaultListableBeanFactory().getBeanProvider(PartitionedEventPublicationSchema.class),
+        Duration.ofDays(7), chunkSize, archiveTable);
+  }
+
+  void insert(Instant published, Instant completed) {
+    jdbc.update("INSERT INTO EVENT_PUBLICATION VALUES (?, 'listener', 'type', '{}', ?, ?)", UUID.randomUUID(),
+        Timestamp.from(published), completed == null ? null : Timestamp.from(completed));
+  }
+
+  int count(String table) {
+    return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+  }
+
+  @Test
+  void purge_removesOnlyExpiredCompletedPublications_inChunks() {
+    Instant old = now.minus(Duration.ofDays(10));
+    for (int i = 0; i < 5; i++) insert(old, old);
+    insert(old, null);                        // incomplete: must survive regardless of age
+    insert(now, now);                         // completed but still within time-to-live
+
+    long removed = job(2, "").purgeCompletedBefore(now.minus(Duration.ofDays(7)));
+
+    assertEquals(5, removed);
+    assertEquals(2, count("EVENT_PUBLICATION"));
+    assertEquals(1, count("EVENT_PUBLICATION WHERE COMPLETION_DATE IS NULL"));
+  }
+
+  @Test
+  void purge_copiesToArchiveTable_beforeDeleting() {
+    Instant old = now.minus(Duration.ofDays(10));
+    insert(old, old);
+    insert(old, old);
+
+    job(1000, "EVENT_PUBLICATION_ARCHIVE").purgeCompletedBefore(now.minus(Duration.ofDays(7)));
+
+    assertEquals(0, count("EVENT_PUBLICATION"));
+    assertEquals(2, count("EVENT_PUBLICATION_ARCHIVE"));
+  }
+
+  @Test
+  void rejectsUnsafeArchiveTableName() {
+    assertThrows(IllegalArgumentException.class, () -> job(10, "x; DROP TABLE EVENT_PUBLICATION"));
+  }
+
+  @Test
+  void purge_usesTheConfiguredSchemaAndPrefix() {
+    jdbc.execute("CREATE SCHEMA EVENTS");
+    jdbc.execute(DDL.formatted("EVENTS.APP_EVENT_PUBLICATION"));
+    Instant old = now.minus(Duration.ofDays(10));
+    jdbc.update("INSERT INTO EVENTS.APP_EVENT_PUBLICATION VALUES (?, 'listener', 'type', '{}', ?, ?)",
+        UUID.randomUUID(), Timestamp.from(old), Timestamp.from(old));
+    insert(old, old);
+
+    EventPublicationPurgeJob job = new EventPublicationPurgeJob(jdbc, tx, new EventPublicationTables("EVENTS", "APP_"),
+        new DefaultListableBeanFactory().getBeanProvider(PartitionedEventPublicationSchema.class),
+        Duration.ofDays(7), 10, "");
+
+    assertEquals(1, job.purgeCompletedBefore(now.minus(Duration.ofDays(7))));
+    assertEquals(0, count("EVENTS.APP_EVENT_PUBLICATION"));
+    assertEquals(1, count("EVENT_PUBLICATION"), "the default table is not touched");
+  }
+}
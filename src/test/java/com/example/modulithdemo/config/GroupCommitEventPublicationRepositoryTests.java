@@ -0,0 +1,145 @@
+package com.example.modulithdemo.config;
+
+import com.example.modulithdemo.order.domain.OrderCompleted;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitEventPublicationRepositoryTests {
+
+  private static final String TABLE = new EventPublicationTables("EVENTS", "").publication();
+  private static final PublicationTargetIdentifier LISTENER = PublicationTargetIdentifier.of("inventory.listener");
+
+  private EmbeddedDatabase db;
+  private JdbcTemplate jdbc;
+  private TransactionTemplate tx;
+  private final FakeDelegate delegate = new FakeDelegate();
+  private GroupCommitEventPublicationRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    jdbc = new JdbcTemplate(db);
+    jdbc.execute("CREATE SCHEMA EVENTS");
+    jdbc.execute("""
+        CREATE TABLE EVENTS.EVENT_PUBLICATION (
+          ID UUID NOT NULL PRIMARY KEY,
+          COMPLETION_DATE TIMESTAMP(9) WITH TIME ZONE,
+          EVENT_TYPE VARCHAR(512) NOT NULL,
+          LISTENER_ID VARCHAR(512) NOT NULL,
+          PUBLICATION_DATE TIMESTAMP(9) WITH TIME ZONE NOT NULL,
+          SERIALIZED_EVENT VARCHAR(4000) NOT NULL)
+        """);
+    tx = new TransactionTemplate(new DataSourceTransactionManager(db));
+    // A flush interval of an hour: completions are only written when the test flushes
+    repository = new GroupCommitEventPublicationRepository(delegate, jdbc, TABLE, new ToStringSerializer(), tx,
+        false, 100, 3_600_000, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    repository.destroy();
+    db.shutdown();
+  }
+
+  private static TargetEventPublication publication() {
+    return TargetEventPublication.of(new OrderCompleted(UUID.randomUUID()), LISTENER);
+  }
+
+  private int incomplete() {
+    return jdbc.queryForObject("SELECT COUNT(*) FROM " + TABLE + " WHERE COMPLETION_DATE IS NULL", Integer.class);
+  }
+
+  @Test
+  void tableName_followsModulithSchemaAndPrefix() {
+    assertEquals("EVENT_PUBLICATION", EventPublicationTables.defaults().publication());
+    assertEquals("events.APP_EVENT_PUBLICATION", new EventPublicationTables("events", "APP_").publication());
+  }
+
+  @Test
+  void publicationsOfOneTransaction_areInsertedAsOneBatch_atCommit() {
+    tx.executeWithoutResult(status -> {
+      repository.create(publication());
+      repository.create(publication());
+      repository.create(publication());
+      assertEquals(0, repository.insertBatches(), "buffered until beforeCommit");
+    });
+
+    assertEquals(1, repository.insertBatches(), "one JDBC batch per transaction");
+    assertEquals(3, repository.insertedPublications());
+    assertEquals(3, incomplete());
+  }
+
+  @Test
+  void insertOutsideATransaction_isDurableWhenCreateReturns() {
+    repository.create(publication());
+
+    assertEquals(1, incomplete());
+  }
+
+  @Test
+  void completions_areCoalesced_andFlushedAsOneBatch_orBeforeALookup() {
+    TargetEventPublication first = publication();
+    TargetEventPublication second = publication();
+    tx.executeWithoutResult(status -> {
+      repository.create(first);
+      repository.create(second);
+    });
+
+    repository.markCompleted(first, Instant.now());
+    repository.markCompleted(second.getIdentifier(), Instant.now());
+    assertEquals(2, repository.pendingCompletions());
+    assertEquals(2, incomplete(), "nothing written before a flush");
+
+    repository.flushCompletions();
+    assertEquals(0, repository.pendingCompletions());
+    assertEquals(0, incomplete());
+    assertEquals(1, repository.completionBatches());
+
+    TargetEventPublication third = publication();
+    repository.create(third);
+    repository.markCompleted(third, Instant.now());
+    repository.findIncompletePublications();
+    assertEquals(0, incomplete(), "lookups see pending completions");
+    assertEquals(1, delegate.lookups);
+  }
+
+  // Modulith's serializer turns events into JSON; the text form is all the repository stores
+  static class ToStringSerializer implements EventSerializer {
+    public Object serialize(Object event) { return event.toString(); }
+    public <T> T deserialize(Object serialized, Class<T> type) { throw new UnsupportedOperationException(); }
+  }
+
+  // Stands in for the Modulith JDBC repository: only the delegated lookups are used here
+  static class FakeDelegate implements EventPublicationRepository {
+    int lookups;
+    public TargetEventPublication create(TargetEventPublication publication) { throw new UnsupportedOperationException(); }
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) { }
+    public void markCompleted(UUID identifier, Instant completionDate) { throw new UnsupportedOperationException(); }
+    public List<TargetEventPublication> findIncompletePublications() { lookups++; return List.of(); }
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) { lookups++; return List.of(); }
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+        PublicationTargetIdentifier targetIdentifier) { lookups++; return Optional.empty(); }
+    public void deletePublications(List<UUID> identifiers) { }
+    public void deleteCompletedPublications() { }
+    public void deleteCompletedPublicationsBefore(Instant instant) { }
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InboundBackPressureGuardTests {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+  // backlog 1000..5000, pool pending 0..3, min pause 10s
+  private final InboundBackPressureGuard guard = new InboundBackPressureGuard(
+      new RabbitListenerEndpointRegistry(), null, meters, 5000, 1000, 3, 0, Duration.ofSeconds(10));
+
+  private static InboundLoadSignals.Snapshot signals(int poolPending, long backlog) {
+    return new InboundLoadSignals.Snapshot(0, 0, 5, 10, poolPending, backlog, -1);
+  }
+
+  private double pausedGauge() {
+    return meters.get("orders.inbound.backpressure.paused").gauge().value();
+  }
+
+  @Test
+  void registryBacklog_pausesAtHighWater_andResumesOnlyBelowLowWater() {
+    guard.evaluate(signals(0, 4999), 0);
+    assertFalse(guard.isPaused());
+
+    guard.evaluate(signals(0, 5000), SECOND);
+    assertTrue(guard.isPaused());
+    assertEquals(1.0, pausedGauge());
+    assertEquals(1.0, meters.get("orders.inbound.backpressure.pauses")
+        .tag("reason", InboundBackPressureGuard.REGISTRY_BACKLOG).counter().count());
+
+    // Between the marks: hysteresis holds the pause
+    guard.evaluate(signals(0, 3000), 20 * SECOND);
+    assertTrue(guard.isPaused());
+
+    guard.evaluate(signals(0, 1000), 21 * SECOND);
+    assertFalse(guard.isPaused());
+    assertEquals(0.0, pausedGauge());
+    assertEquals("flowing", guard.state().get("state"));
+  }
+
+  @Test
+  void poolPending_pauses_andMinPauseHoldsItEvenWhenThePoolDrainsAtOnce() {
+    guard.evaluate(signals(3, 0), 0);
+    assertTrue(guard.isPaused());
+    assertEquals(InboundBackPressureGuard.DB_POOL, guard.state().get("reason"));
+
+    guard.evaluate(signals(0, 0), 5 * SECOND);
+    assertTrue(guard.isPaused(), "min-pause not over yet");
+
+    guard.evaluate(signals(0, 0), 10 * SECOND);
+    assertFalse(guard.isPaused());
+  }
+
+  @Test
+  void unreadableSignals_neverPause() {
+    guard.evaluate(signals(-1, -1), 0);
+    assertFalse(guard.isPaused());
+  }
+
+  @Test
+  void health_isOutOfServiceWhilePaused_onlyWhenConfigured() {
+    InboundBackPressureHealthIndicator ignore = new InboundBackPressureHealthIndicator(guard, "ignore");
+    InboundBackPressureHealthIndicator outOfService = new InboundBackPressureHealthIndicator(guard, "out-of-service");
+    assertEquals(Status.UP, outOfService.health().getStatus());
+
+    guard.evaluate(signals(0, 10_000), 0);
+    assertEquals(Status.UP, ignore.health().getStatus());
+    assertEquals(Status.OUT_OF_SERVICE, outOfService.health().getStatus());
+    assertEquals("paused", outOfService.health().getDetails().get("state"));
+  }
+}
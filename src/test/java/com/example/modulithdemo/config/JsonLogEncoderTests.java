@@ -0,0 +1,66 @@
+package com.example.modulithdemo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLogEncoderTests {
+
+  private final LoggerContext context = new LoggerContext();
+
+  private JsonLogEncoder encoder() {
+    JsonLogEncoder encoder = new JsonLogEncoder();
+    encoder.setContext(context);
+    encoder.setServiceName("demo");
+    encoder.start();
+    return encoder;
+  }
+
+  @Test
+  void writesOneEcsLine_withMdcAndKeyValuesAsFields() throws Exception {
+    LoggingEvent event = new LoggingEvent("fqcn", context.getLogger("x.Y"), Level.INFO,
+        "new-orders delivery {}", null, new Object[] {"published"});
+    event.setMDCPropertyMap(Map.of("messageId", "m-1"));
+    event.addKeyValuePair(new KeyValuePair("orderNumber", "A1"));
+    event.addKeyValuePair(new KeyValuePair("quantity", 2));
+    event.addKeyValuePair(new KeyValuePair("redelivered", false));
+
+    String line = new String(encoder().encode(event), StandardCharsets.UTF_8);
+    assertTrue(line.endsWith("\n") && line.indexOf('\n') == line.length() - 1, "exactly one line");
+
+    JsonNode json = new ObjectMapper().readTree(line);
+    assertTrue(json.hasNonNull("@timestamp"));
+    assertEquals("INFO", json.at("/log/level").asText());
+    assertEquals("x.Y", json.at("/log/logger").asText());
+    assertEquals("demo", json.at("/service/name").asText());
+    assertEquals("new-orders delivery published", json.get("message").asText());
+    assertEquals("m-1", json.get("messageId").asText());
+    assertEquals("A1", json.get("orderNumber").asText());
+    assertEquals(2, json.get("quantity").asInt());
+    assertTrue(json.get("quantity").isNumber());
+    assertTrue(json.get("redelivered").isBoolean());
+    assertFalse(json.has("error"));
+  }
+
+  @Test
+  void writesTheStackTraceAsErrorFields() throws Exception {
+    LoggingEvent event = new LoggingEvent("fqcn", context.getLogger("x.Y"), Level.WARN,
+        "failed \"quoted\"", new IllegalStateException("boom"), null);
+    event.setMDCPropertyMap(Map.of());
+
+    JsonNode json = new ObjectMapper().readTree(encoder().encode(event));
+    assertEquals("failed \"quoted\"", json.get("message").asText());
+    assertEquals(IllegalStateException.class.getName(), json.at("/error/type").asText());
+    assertEquals("boom", json.at("/error/message").asText());
+    assertTrue(json.at("/error/stack_trace").asText().contains("JsonLogEncoderTests"));
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.modulithdemo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleListenerExecutorsTests {
+
+  @Test
+  void fullExecutor_rejectsInsteadOfQueueingUnbounded_andReportsSaturation() throws Exception {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    ThreadPoolTaskExecutor executor = ModuleListenerExecutors.bounded("test", 1, 1, 1, false, meters);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    try {
+      executor.execute(() -> {
+        started.countDown();
+        try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+      });
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      executor.execute(() -> { });
+
+      assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+      assertEquals(1.0, meters.get("modulith.listener.executor.rejected").tag("module", "test").counter().count());
+      assertEquals(1.0, meters.get("modulith.listener.executor.saturation").tag("module", "test").gauge().value());
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  static class Listener {
+    private final CompletableFuture<String> thread = new CompletableFuture<>();
+
+    // Read through the (class-based) proxy, which has no state of its own
+    public CompletableFuture<String> thread() {
+      return thread;
+    }
+
+    @Async(ModuleListenerExecutors.INVENTORY)
+    @ApplicationModuleListener
+    public void on(Object event) {
+      thread.complete(Thread.currentThread().getName());
+    }
+  }
+
+  @Configuration
+  @EnableAsync
+  @Import(ModuleListenerExecutors.class)
+  static class AsyncConfig {
+    @Bean MeterRegistry meterRegistry() { return new SimpleMeterRegistry(); }
+    @Bean Listener listener() { return new Listener(); }
+  }
+
+  @Test
+  void asyncQualifier_routesModuleListener_toItsOwnExecutor() throws Exception {
+    try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AsyncConfig.class)) {
+      Listener listener = context.getBean(Listener.class);
+      listener.on("event");
+      assertTrue(listener.thread().get(5, TimeUnit.SECONDS).startsWith("inventory-listener-"));
+    }
+  }
+}
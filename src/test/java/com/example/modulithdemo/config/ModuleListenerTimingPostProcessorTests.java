@@ -0,0 +1,57 @@
+package com.example.modulithdemo.config;
+
+import com.example.modulithdemo.order.domain.OrderCompleted;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.modulith.events.ApplicationModuleListener;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleListenerTimingPostProcessorTests {
+
+  public static class SampleListener {
+    int handled;
+
+    @ApplicationModuleListener
+    public void on(OrderCompleted event) {
+      handled++;
+    }
+
+    public void notAListener() {
+    }
+  }
+
+  @Test
+  void moduleListenerMethods_areTimedPerListener() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerSingleton("meterRegistry", registry);
+    ObjectProvider<MeterRegistry> meters = beanFactory.getBeanProvider(MeterRegistry.class);
+    ModuleListenerTimingPostProcessor processor = new ModuleListenerTimingPostProcessor(meters);
+
+    SampleListener target = new SampleListener();
+    SampleListener proxy = (SampleListener) processor.postProcessAfterInitialization(target, "sampleListener");
+    proxy.on(new OrderCompleted(UUID.randomUUID()));
+    proxy.on(new OrderCompleted(UUID.randomUUID()));
+    proxy.notAListener();
+
+    assertEquals(2, target.handled);
+    assertEquals(2, registry.get("modulith.listener.handling")
+        .tag("listener", "SampleListener.on(OrderCompleted)").timer().count());
+    assertEquals(1, registry.find("modulith.listener.handling").timers().size(), "only listener methods are timed");
+  }
+
+  @Test
+  void beansWithoutModuleListeners_areNotProxied() {
+    ModuleListenerTimingPostProcessor processor =
+        new ModuleListenerTimingPostProcessor(new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    Object bean = new Object();
+
+    assertSame(bean, processor.postProcessAfterInitialization(bean, "plain"));
+  }
+}
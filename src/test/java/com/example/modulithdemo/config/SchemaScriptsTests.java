@@ -0,0 +1,61 @@
+package com.example.modulithdemo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaScriptsTests {
+
+  EmbeddedDatabase db;
+
+  @BeforeEach
+  void setUp() {
+    db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    db.shutdown();
+  }
+
+  @Test
+  void modes_controlWhetherTheScriptRuns() {
+    SchemaScripts.apply(db, "never", "db/orders.sql", "ORDERS");
+    assertFalse(SchemaScripts.tableExists(db, "orders"));
+
+    SchemaScripts.apply(db, "if-missing", "db/orders.sql", "ORDERS");
+    assertTrue(SchemaScripts.tableExists(db, "orders"));
+    assertTrue(SchemaScripts.tableExists(db, "ORDERS"));
+    assertFalse(SchemaScripts.tableExists(db, "INVENTORY_STOCK"));
+  }
+
+  @Test
+  void ifMissing_skipsTheScriptWhenTheProbeTableExists() {
+    // The probe exists but ORDERS does not: only a skipped script leaves it missing
+    new JdbcTemplate(db).execute("CREATE TABLE PROBE (ID INT)");
+    SchemaScripts.apply(db, "if-missing", "db/orders.sql", "PROBE");
+    assertFalse(SchemaScripts.tableExists(db, "ORDERS"));
+
+    SchemaScripts.apply(db, "always", "db/orders.sql", "PROBE");
+    assertTrue(SchemaScripts.tableExists(db, "ORDERS"));
+  }
+
+  @Test
+  void lazyExcludeFilter_keepsScheduledBeansEager() {
+    assertTrue(FastStartupConfig.hasEagerMethods(Scheduling.class));
+    assertFalse(FastStartupConfig.hasEagerMethods(SchemaScripts.class));
+  }
+
+  static class Scheduling {
+    @Scheduled(fixedDelay = 1000)
+    void tick() {
+    }
+  }
+}
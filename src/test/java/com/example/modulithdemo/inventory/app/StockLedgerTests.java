@@ -0,0 +1,189 @@
+package com.example.modulithdemo.inventory.app;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockLedgerTests {
+
+  private static StockLedger inMemory() {
+    return new StockLedger(false, null, new SimpleMeterRegistry(), "always", "", Duration.ofSeconds(30));
+  }
+
+  private static StockLedger started(DataSource ds, String node, Duration lease) {
+    StockLedger ledger = new StockLedger(true, ds, new SimpleMeterRegistry(), "always", node, lease);
+    ledger.afterPropertiesSet();
+    return ledger;
+  }
+
+  @Test
+  void concurrentReservations_neverOversell() throws Exception {
+    StockLedger ledger = inMemory();
+    ledger.restock("BOOK-001", 100);
+
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<StockLedger.Outcome>> results = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      String orderNumber = "A" + i;
+      results.add(pool.submit(() -> {
+        start.await();
+        return ledger.reserve(orderNumber, "BOOK-001", 1);
+      }));
+    }
+    start.countDown();
+    int reserved = 0;
+    for (Future<StockLedger.Outcome> result : results) {
+      if (result.get(5, TimeUnit.SECONDS) == StockLedger.Outcome.RESERVED) reserved++;
+    }
+    pool.shutdown();
+
+    assertEquals(100, reserved);
+    assertEquals(0, ledger.available("BOOK-001"));
+    assertEquals(100L, ledger.snapshot("BOOK-001").get("reserved"));
+  }
+
+  @Test
+  void redeliveredOrder_isReservedOnce_andUnknownProductIsRefused() {
+    StockLedger ledger = inMemory();
+    ledger.restock("BOOK-001", 5);
+
+    assertEquals(StockLedger.Outcome.RESERVED, ledger.reserve("A1", "BOOK-001", 2));
+    assertEquals(StockLedger.Outcome.DUPLICATE, ledger.reserve("A1", "BOOK-001", 2));
+    assertEquals(StockLedger.Outcome.INSUFFICIENT, ledger.reserve("A2", "BOOK-001", 4));
+    assertEquals(StockLedger.Outcome.UNKNOWN_PRODUCT, ledger.reserve("A3", "BOOK-404", 1));
+    assertEquals(3, ledger.available("BOOK-001"));
+  }
+
+  @Test
+  void commit_decrementsOnHand_cancel_returnsStock() {
+    StockLedger ledger = inMemory();
+    ledger.restock("BOOK-001", 10);
+    ledger.reserve("A1", "BOOK-001", 3);
+    ledger.reserve("A2", "BOOK-001", 2);
+
+    assertTrue(ledger.commit("A1"));
+    assertFalse(ledger.commit("A1"), "a reservation is committed once");
+    assertTrue(ledger.cancel("A2"));
+
+    assertEquals(7, ledger.available("BOOK-001"));
+    assertEquals(7L, ledger.snapshot("BOOK-001").get("onHand"));
+    assertFalse(ledger.restock("BOOK-001", -8), "cannot remove more than is available");
+  }
+
+  @Test
+  void writeBehind_persistsChanges_andWarmUpRestoresThem() {
+    DriverManagerDataSource ds = new DriverManagerDataSource(
+        "jdbc:h2:mem:stockledger;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    StockLedger ledger = started(ds, "node-a", Duration.ofSeconds(30));
+    ledger.restock("BOOK-001", 10);
+    ledger.reserve("A1", "BOOK-001", 3);
+    ledger.reserve("A2", "BOOK-001", 1);
+    ledger.commit("A2");
+    assertTrue(ledger.pendingWrites() > 0);
+
+    ledger.flush();
+    assertEquals(0, ledger.pendingWrites());
+
+    ledger.destroy();
+
+    StockLedger restarted = started(ds, "node-b", Duration.ofSeconds(30));
+    assertEquals(6, restarted.available("BOOK-001"));
+    assertEquals(3L, restarted.snapshot("BOOK-001").get("reserved"));
+    assertTrue(restarted.commit("A1"), "open reservation survives the restart");
+    assertFalse(restarted.commit("A2"));
+  }
+
+  @Test
+  void secondInstance_startsWriteThrough_andTheOwnerHandsOverToIt() throws Exception {
+    DriverManagerDataSource ds = new DriverManagerDataSource(
+        "jdbc:h2:mem:stockledger-owner;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    StockLedger first = started(ds, "node-a", Duration.ofSeconds(30));
+    first.restock("BOOK-001", 10);
+    first.reserve("A1", "BOOK-001", 3); // not flushed yet
+
+    StockLedger second = started(ds, "node-b", Duration.ofSeconds(30));
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    // Waits for the owner: its write-behind values would otherwise overwrite the change
+    Future<StockLedger.Outcome> fenced = pool.submit(() -> second.reserve("A2", "BOOK-001", 5));
+    first.flush();
+    assertEquals(StockLedger.Outcome.RESERVED, fenced.get(5, TimeUnit.SECONDS));
+    pool.shutdown();
+
+    assertEquals(StockLedger.Outcome.INSUFFICIENT, first.reserve("A3", "BOOK-001", 5), "both run write-through now");
+    assertEquals(StockLedger.Outcome.DUPLICATE, first.reserve("A1", "BOOK-001", 3));
+    assertTrue(second.commit("A1"));
+    assertFalse(first.commit("A1"), "a reservation is committed once across instances");
+    assertTrue(first.cancel("A2"));
+    assertEquals(7, second.available("BOOK-001"));
+    assertEquals(7L, first.snapshot("BOOK-001").get("onHand"));
+  }
+
+  @Test
+  void writeThroughInstances_neverOversell() throws Exception {
+    DriverManagerDataSource ds = new DriverManagerDataSource(
+        "jdbc:h2:mem:stockledger-shared;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+    StockLedger first = started(ds, "node-a", Duration.ofSeconds(30));
+    first.restock("BOOK-001", 50);
+    StockLedger second = started(ds, "node-b", Duration.ofSeconds(30));
+    first.flush(); // hands over
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<StockLedger.Outcome>> results = new ArrayList<>();
+    for (int i = 0; i < 120; i++) {
+      StockLedger ledger = i % 2 == 0 ? first : second;
+      String orderNumber = "A" + i;
+      results.add(pool.submit(() -> {
+        start.await();
+        return ledger.reserve(orderNumber, "BOOK-001", 1);
+      }));
+    }
+    start.countDown();
+    int reserved = 0;
+    for (Future<StockLedger.Outcome> result : results) {
+      if (result.get(30, TimeUnit.SECONDS) == StockLedger.Outcome.RESERVED) reserved++;
+    }
+    pool.shutdown();
+
+    assertEquals(50, reserved);
+    assertEquals(0, second.available("BOOK-001"));
+    assertEquals(50L, first.snapshot("BOOK-001").get("reserved"));
+  }
+
+  @Test
+  void ownerWhoseLeaseWasTakenOver_dropsItsChanges_andContinuesWriteThrough() {
+    DriverManagerDataSource ds = new DriverManagerDataSource(
+        "jdbc:h2:mem:stockledger-takeover;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    StockLedger stalled = started(ds, "node-a", Duration.ofSeconds(30));
+    stalled.restock("BOOK-001", 10);
+    // A pause longer than the lease
+    new JdbcTemplate(ds).update("UPDATE INVENTORY_LEDGER_OWNER SET LEASED_UNTIL = ? WHERE ID = 1",
+        Timestamp.from(Instant.now().minusSeconds(1)));
+    StockLedger successor = started(ds, "node-b", Duration.ofSeconds(30));
+    successor.restock("BOOK-001", 3);
+    successor.flush();
+
+    stalled.flush();
+    assertEquals(3, successor.available("BOOK-001"), "the stalled owner's flush must not overwrite the successor");
+
+    successor.flush(); // sees the stalled instance's heartbeat and hands over
+    assertEquals(StockLedger.Outcome.RESERVED, stalled.reserve("A1", "BOOK-001", 1));
+    assertEquals(2, successor.available("BOOK-001"));
+  }
+}
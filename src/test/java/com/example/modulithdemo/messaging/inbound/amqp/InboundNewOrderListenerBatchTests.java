@@ -0,0 +1,75 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.modulithdemo.messaging.inbound.amqp.InboundNewOrderListenerBuilder.listener;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InboundNewOrderListenerBatchTests {
+
+  static class CapturingPublisher implements ApplicationEventPublisher {
+    final List<Object> events = new ArrayList<>();
+    @Override public void publishEvent(Object event) { events.add(event); }
+  }
+
+  static Message message(long tag, String body) {
+    MessageProperties props = new MessageProperties();
+    props.setDeliveryTag(tag);
+    return new Message(body.getBytes(StandardCharsets.UTF_8), props);
+  }
+
+  static String order(String number) {
+    return "{\"orderNumber\":\"" + number + "\",\"productCode\":\"BOOK-001\",\"quantity\":1," +
+        "\"customer\":{\"name\":\"Alice\",\"email\":\"alice@example.com\",\"phone\":\"123\"}}";
+  }
+
+  @Test
+  void processBatch_acksWholeBatchOnce_onHighestTag() {
+    CapturingPublisher publisher = new CapturingPublisher();
+    InboundNewOrderListener listener = listener(publisher).maxAttempts(1).build();
+    List<Long> acks = new ArrayList<>();
+    List<Long> rejects = new ArrayList<>();
+
+    listener.processBatch(List.of(message(1, order("A1")), message(2, order("A2")), message(3, order("A3"))),
+        acks::add, rejects::add);
+
+    assertEquals(3, publisher.events.size());
+    assertEquals(List.of(3L), acks, "should multi-ack once with the last tag");
+    assertTrue(rejects.isEmpty());
+  }
+
+  @Test
+  void processBatch_rejectsPoisonIndividually_andAcksTheRest() {
+    CapturingPublisher publisher = new CapturingPublisher();
+    InboundNewOrderListener listener = listener(publisher).maxAttempts(1).build();
+    List<Long> acks = new ArrayList<>();
+    List<Long> rejects = new ArrayList<>();
+
+    listener.processBatch(List.of(message(1, order("A1")), message(2, "not-json"), message(3, order("A3")),
+        message(4, "also-bad")), acks::add, rejects::add);
+
+    assertEquals(2, publisher.events.size(), "valid orders in the batch are still published");
+    assertEquals(List.of(2L, 4L), rejects);
+    assertEquals(List.of(3L), acks, "should multi-ack up to the highest successful tag");
+  }
+
+  @Test
+  void processBatch_doesNotAck_whenEveryMessageIsPoison() {
+    InboundNewOrderListener listener = listener(new CapturingPublisher()).maxAttempts(1).build();
+    List<Long> acks = new ArrayList<>();
+    List<Long> rejects = new ArrayList<>();
+
+    listener.processBatch(List.of(message(7, "x"), message(8, "y")), acks::add, rejects::add);
+
+    assertTrue(acks.isEmpty());
+    assertEquals(List.of(7L, 8L), rejects);
+  }
+}
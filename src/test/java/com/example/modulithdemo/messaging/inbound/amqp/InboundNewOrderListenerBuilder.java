@@ -0,0 +1,88 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Listeners for tests and benchmarks: every optional stage is off (no delayed retries, dedup or
+ * lanes, no payload or pipeline logging, no-op metrics, no publish transaction) unless the test sets it.
+ */
+final class InboundNewOrderListenerBuilder {
+
+  private final ApplicationEventPublisher events;
+  private ObjectMapper objectMapper = new ObjectMapper();
+  private int maxAttempts = 3;
+  private long maxDecodedBytes = 1 << 20;
+  private NewOrderRetryPublisher retries;
+  private PayloadLogSampler payloadLog = new PayloadLogSampler(0, 0);
+  private NewOrderDeduplicator dedup;
+  private InboundNewOrderMetrics metrics = InboundNewOrderMetrics.noop();
+  private OrderedLaneDispatcher lanes;
+  private OrderPipelineLog pipelineLog = OrderPipelineLog.disabled();
+  private PlatformTransactionManager publishTransactionManager;
+
+  private InboundNewOrderListenerBuilder(ApplicationEventPublisher events) {
+    this.events = events;
+  }
+
+  static InboundNewOrderListenerBuilder listener(ApplicationEventPublisher events) {
+    return new InboundNewOrderListenerBuilder(events);
+  }
+
+  InboundNewOrderListenerBuilder objectMapper(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    return this;
+  }
+
+  InboundNewOrderListenerBuilder maxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+    return this;
+  }
+
+  InboundNewOrderListenerBuilder maxDecodedBytes(long maxDecodedBytes) {
+    this.maxDecodedBytes = maxDecodedBytes;
+    return this;
+  }
+
+  InboundNewOrderListenerBuilder retries(NewOrderRetryPublisher retries) {
+    this.retries = retries;
+    return this;
+  }
+
+  InboundNewOrderListenerBuilder payloadLog(PayloadLogSampler payloadLog) {
+    this.payloadLog = payloadLog;
+    return this;
+  }
+
+  InboundNewOrderListenerBuilder dedup(NewOrderDeduplicator dedup) {
+    this.dedup = dedup;
+    return this;
+  }
+
+  InboundNewOrderListenerBuilder metrics(InboundNewOrderMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
+  InboundNewOrderListenerBuilder lanes(OrderedLaneDispatcher lanes) {
+    this.lanes = lanes;
+    return this;
+  }
+
+  InboundNewOrderListenerBuilder pipelineLog(OrderPipelineLog pipelineLog) {
+    this.pipelineLog = pipelineLog;
+    return this;
+  }
+
+  // Publishes inside a transaction, as with externalized OrderCreatedEvent
+  InboundNewOrderListenerBuilder publishInTransaction(PlatformTransactionManager transactionManager) {
+    this.publishTransactionManager = transactionManager;
+    return this;
+  }
+
+  InboundNewOrderListener build() {
+    return new InboundNewOrderListener(events, objectMapper, maxAttempts, maxDecodedBytes, retries, payloadLog, dedup,
+        metrics, lanes, pipelineLog, publishTransactionManager != null, publishTransactionManager);
+  }
+}
@@ -1,53 +1,167 @@
 package com.example.modulithdemo.messaging.inbound.amqp;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants.*;
+
+import static com.example.modulithdemo.messaging.inbound.amqp.InboundNewOrderListenerBuilder.listener;
 import static org.junit.jupiter.api.Assertions.*;
 
 class InboundNewOrderListenerRetryTests {
 
-  static class NoopPublisher implements ApplicationEventPublisher { public void publishEvent(Object event) { } }
+  // Downstream failure: the first 'failures' publishes throw, so those attempts fail after a successful parse
+  static class FailingPublisher implements ApplicationEventPublisher {
+    final int failures;
+    int calls = 0;
+    FailingPublisher() { this(Integer.MAX_VALUE); }
+    FailingPublisher(int failures) { this.failures = failures; }
+    public void publishEvent(Object event) {
+      if (++calls <= failures) throw new IllegalStateException("nope");
+    }
+  }
+
+  static final String ORDER = "{\"orderNumber\":\"A1\",\"productCode\":\"P\",\"quantity\":1}";
 
   @Test
   void processWithAck_retries_then_acks_onSuccess() {
-    class FlakyListener extends InboundNewOrderListener {
-      int calls = 0;
-      FlakyListener() { super(new NoopPublisher(), new ObjectMapper(), 3); }
-      @Override public void handle(String payload) throws java.io.IOException {
-        calls++;
-        if (calls < 3) throw new java.io.IOException("boom"); // fail twice, then succeed
-      }
-    }
-
-    FlakyListener listener = new FlakyListener();
+    FailingPublisher publisher = new FailingPublisher(2); // fail twice, then succeed
+    InboundNewOrderListener listener = listener(publisher).maxAttempts(3).build();
     int[] ack = {0};
     int[] rej = {0};
 
-    listener.processWithAck("irrelevant", () -> ack[0]++, () -> rej[0]++);
+    listener.processWithAck(ORDER, () -> ack[0]++, () -> rej[0]++);
 
     assertEquals(1, ack[0], "should ack once after success");
     assertEquals(0, rej[0], "should not reject");
-    assertEquals(3, listener.calls, "should attempt up to success");
+    assertEquals(3, publisher.calls, "should attempt up to success");
   }
 
   @Test
   void processWithAck_retries_and_rejects_onExhaustion() {
-    class AlwaysFail extends InboundNewOrderListener {
-      int calls = 0;
-      AlwaysFail() { super(new NoopPublisher(), new ObjectMapper(), 3); }
-      @Override public void handle(String payload) throws java.io.IOException { calls++; throw new java.io.IOException("nope"); }
-    }
-
-    AlwaysFail listener = new AlwaysFail();
+    FailingPublisher publisher = new FailingPublisher();
+    InboundNewOrderListener listener = listener(publisher).maxAttempts(3).build();
     int[] ack = {0};
     int[] rej = {0};
 
-    listener.processWithAck("irrelevant", () -> ack[0]++, () -> rej[0]++);
+    listener.processWithAck(ORDER, () -> ack[0]++, () -> rej[0]++);
 
     assertEquals(0, ack[0], "should not ack");
     assertEquals(1, rej[0], "should reject after retries");
-    assertEquals(3, listener.calls, "should attempt max times");
+    assertEquals(3, publisher.calls, "should attempt max times");
+  }
+
+  // Confirms enabled; each send is confirmed at once with 'ack' (no connection is ever opened)
+  static class CapturingTemplate extends RabbitTemplate {
+    final List<String> routingKeys = new ArrayList<>();
+    final List<Message> sent = new ArrayList<>();
+    boolean ack = true;
+    CapturingTemplate() {
+      CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
+      connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+      setConnectionFactory(connectionFactory);
+    }
+    @Override public void send(String exchange, String routingKey, Message message, CorrelationData correlation) {
+      assertEquals(BOOKSTORE_RETRY_EXCHANGE, exchange);
+      routingKeys.add(routingKey);
+      sent.add(message);
+      correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+    }
+  }
+
+  static class AlwaysFailDelayed {
+    final FailingPublisher publisher = new FailingPublisher();
+    final InboundNewOrderListener listener;
+    AlwaysFailDelayed(NewOrderRetryPublisher retries) { listener = listener(publisher).maxAttempts(3).retries(retries).build(); }
+    void process(Message message, Runnable ack, Runnable reject) { listener.process(message, ack, reject); }
+    int calls() { return publisher.calls; }
+  }
+
+  static Message delivery(Integer attemptsHeader) {
+    MessageProperties props = new MessageProperties();
+    if (attemptsHeader != null) props.setHeader(RETRY_ATTEMPTS_HEADER, attemptsHeader);
+    return new Message(ORDER.getBytes(), props);
+  }
+
+  @Test
+  void delayedRetry_parksFailedMessage_andAcksOriginal_withoutRetryingInThread() {
+    CapturingTemplate template = new CapturingTemplate();
+    AlwaysFailDelayed listener = new AlwaysFailDelayed(new NewOrderRetryPublisher(template, 3, Duration.ofSeconds(1)));
+    int[] ack = {0};
+    int[] rej = {0};
+
+    listener.process(delivery(null), () -> ack[0]++, () -> rej[0]++);
+
+    assertEquals(1, listener.calls(), "should attempt once on the consumer thread");
+    assertEquals(1, ack[0], "original delivery is acked once parked");
+    assertEquals(0, rej[0]);
+    assertEquals(List.of(ORDERS_NEW_RETRY_ROUTING_PREFIX + 1), template.routingKeys);
+    assertEquals(1, NewOrderRetryPublisher.attemptsOf(template.sent.get(0)));
+  }
+
+  @Test
+  void delayedRetry_usesNextBackoffLevel_forLaterAttempts() {
+    CapturingTemplate template = new CapturingTemplate();
+    AlwaysFailDelayed listener = new AlwaysFailDelayed(new NewOrderRetryPublisher(template, 3, Duration.ofSeconds(1)));
+
+    listener.process(delivery(1), () -> { }, () -> fail("should not reject"));
+
+    assertEquals(List.of(ORDERS_NEW_RETRY_ROUTING_PREFIX + 2), template.routingKeys);
+    assertEquals(2, NewOrderRetryPublisher.attemptsOf(template.sent.get(0)));
+  }
+
+  @Test
+  void delayedRetry_deadLetters_whenMaxAttemptsReached() {
+    CapturingTemplate template = new CapturingTemplate();
+    AlwaysFailDelayed listener = new AlwaysFailDelayed(new NewOrderRetryPublisher(template, 3, Duration.ofSeconds(1)));
+    int[] ack = {0};
+    int[] rej = {0};
+
+    listener.process(delivery(2), () -> ack[0]++, () -> rej[0]++);
+
+    assertEquals(0, ack[0]);
+    assertEquals(1, rej[0], "third failure goes to BookStoreDLX");
+    assertTrue(template.sent.isEmpty());
+  }
+
+  @Test
+  void delayedRetry_deadLetters_whenTheParkedCopyIsNotConfirmed() {
+    CapturingTemplate template = new CapturingTemplate();
+    template.ack = false;
+    AlwaysFailDelayed listener = new AlwaysFailDelayed(new NewOrderRetryPublisher(template, 3, Duration.ofSeconds(1)));
+    int[] ack = {0};
+    int[] rej = {0};
+
+    listener.process(delivery(null), () -> ack[0]++, () -> rej[0]++);
+
+    assertEquals(1, template.sent.size(), "the copy was sent");
+    assertEquals(0, ack[0], "the original is not acked without a positive confirm");
+    assertEquals(1, rej[0]);
+  }
+
+  @Test
+  void metrics_countRetriesAndDeadLetters_andTimeSettlement() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    InboundNewOrderListener listener = listener(new FailingPublisher()).maxAttempts(3)
+        .metrics(new InboundNewOrderMetrics(registry)).build();
+    InboundNewOrderMetrics metrics = new InboundNewOrderMetrics(registry);
+
+    var sample = metrics.start();
+    listener.process(delivery(null), metrics.timedAck(sample, () -> { }), metrics.timedReject(sample, () -> { }));
+
+    assertEquals(2.0, registry.get("orders.inbound.retries").tag("mode", "in-thread").counter().count());
+    assertEquals(1.0, registry.get("orders.inbound.dead.lettered").counter().count());
+    assertEquals(1L, registry.get("orders.inbound.processing").tag("outcome", "reject").timer().count());
+    assertEquals(3L, registry.get("orders.inbound.deserialization").timer().count(), "one parse per attempt");
   }
 }
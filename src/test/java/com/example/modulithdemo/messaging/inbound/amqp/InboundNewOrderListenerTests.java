@@ -1,14 +1,34 @@
 package com.example.modulithdemo.messaging.inbound.amqp;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import com.example.modulithdemo.order.domain.Customer;
 import com.example.modulithdemo.order.domain.OrderCreatedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.example.modulithdemo.messaging.inbound.amqp.InboundNewOrderListenerBuilder.listener;
 import static org.junit.jupiter.api.Assertions.*;
 
 class InboundNewOrderListenerTests {
@@ -22,7 +42,7 @@ class InboundNewOrderListenerTests {
   void onMessage_publishesOrderCreatedEvent_onValidJson() throws Exception {
     CapturingPublisher publisher = new CapturingPublisher();
     ObjectMapper objectMapper = new ObjectMapper();
-    InboundNewOrderListener listener = new InboundNewOrderListener(publisher, objectMapper, 3);
+    InboundNewOrderListener listener = listener(publisher).objectMapper(objectMapper).maxAttempts(3).build();
 
     String json = "{" +
         "\"orderNumber\":\"A123\"," +
@@ -52,11 +72,157 @@ class InboundNewOrderListenerTests {
   void onMessage_throws_andDoesNotPublish_onMalformedJson() {
     CapturingPublisher publisher = new CapturingPublisher();
     ObjectMapper objectMapper = new ObjectMapper();
-    InboundNewOrderListener listener = new InboundNewOrderListener(publisher, objectMapper, 3);
+    InboundNewOrderListener listener = listener(publisher).objectMapper(objectMapper).maxAttempts(3).build();
 
     String bad = "not-json";
 
     assertThrows(Exception.class, () -> listener.handle(bad));
     assertTrue(publisher.events.isEmpty(), "should not publish any events");
   }
+
+  @Test
+  void handleBytes_publishesOrderCreatedEvent_withoutIntermediateString() {
+    CapturingPublisher publisher = new CapturingPublisher();
+    InboundNewOrderListener listener = listener(publisher).maxAttempts(3).build();
+
+    byte[] body = ("{\"orderNumber\":\"B7\",\"productCode\":\"BOOK-002\",\"quantity\":1," +
+        "\"customer\":{\"name\":\"Bob\",\"email\":\"bob@example.com\",\"phone\":\"9\"},\"extra\":true}")
+        .getBytes(StandardCharsets.UTF_8);
+
+    assertDoesNotThrow(() -> listener.handle(body));
+
+    OrderCreatedEvent event = (OrderCreatedEvent) publisher.events.get(0);
+    assertEquals("B7", event.orderNumber());
+    assertEquals("bob@example.com", event.customer().email());
+  }
+
+  @Test
+  void process_decodesSmileBody_byContentType() throws Exception {
+    CapturingPublisher publisher = new CapturingPublisher();
+    ObjectMapper objectMapper = new ObjectMapper();
+    InboundNewOrderListener listener = listener(publisher).objectMapper(objectMapper).maxAttempts(1).build();
+
+    NewOrderMessage dto = new NewOrderMessage("S1", "BOOK-003", 4,
+        new NewOrderMessage.NewOrderCustomer("Carol", "carol@example.com", "7"));
+    MessageProperties props = new MessageProperties();
+    props.setContentType(AmqpConstants.CONTENT_TYPE_SMILE);
+    Message message = new Message(objectMapper.copyWith(new SmileFactory()).writeValueAsBytes(dto), props);
+
+    AtomicBoolean acked = new AtomicBoolean();
+    listener.process(message, () -> acked.set(true), () -> fail("should not reject"));
+
+    assertTrue(acked.get());
+    assertEquals("S1", ((OrderCreatedEvent) publisher.events.get(0)).orderNumber());
+  }
+
+  @Test
+  void process_inflatesCompressedBody_byContentEncoding() {
+    CapturingPublisher publisher = new CapturingPublisher();
+    InboundNewOrderListener listener = listener(publisher).maxAttempts(1).build();
+
+    byte[] json = ("{\"orderNumber\":\"Z1\",\"productCode\":\"BOOK-004\",\"quantity\":1," +
+        "\"customer\":{\"name\":\"Dan\",\"email\":\"dan@example.com\",\"phone\":\"5\"}}")
+        .getBytes(StandardCharsets.UTF_8);
+    MessageProperties props = new MessageProperties();
+    props.setContentEncoding(PayloadEncoding.DEFLATE.contentEncoding("UTF-8"));
+    Message message = new Message(PayloadEncoding.DEFLATE.encode(json, 6), props);
+
+    AtomicBoolean acked = new AtomicBoolean();
+    listener.process(message, () -> acked.set(true), () -> fail("should not reject"));
+
+    assertTrue(acked.get());
+    assertEquals("Z1", ((OrderCreatedEvent) publisher.events.get(0)).orderNumber());
+  }
+
+  @Test
+  void onMessage_withLanes_parsesEachBodyOnce_andAcksFromTheLane() throws Exception {
+    CapturingPublisher publisher = new CapturingPublisher();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    OrderedLaneDispatcher lanes = new OrderedLaneDispatcher("product-code", 2, false, registry);
+    InboundNewOrderListener listener = listener(publisher).lanes(lanes)
+        .metrics(new InboundNewOrderMetrics(registry)).maxAttempts(1).build();
+    CountDownLatch acked = new CountDownLatch(1);
+    // Only basicAck is expected on the channel
+    Channel channel = (Channel) Proxy.newProxyInstance(Channel.class.getClassLoader(), new Class<?>[] {Channel.class},
+        (proxy, method, args) -> {
+          assertEquals("basicAck", method.getName());
+          acked.countDown();
+          return null;
+        });
+
+    byte[] json = ("{\"orderNumber\":\"L1\",\"productCode\":\"BOOK-005\",\"quantity\":1}")
+        .getBytes(StandardCharsets.UTF_8);
+    try {
+      listener.onMessage(new Message(json, new MessageProperties()), channel);
+      assertTrue(acked.await(5, TimeUnit.SECONDS));
+    } finally {
+      lanes.destroy();
+    }
+
+    assertEquals("L1", ((OrderCreatedEvent) publisher.events.get(0)).orderNumber());
+    assertEquals(1, registry.get("orders.inbound.deserialization").timer().count(),
+        "the lane key and the handler share one parse");
+  }
+
+  @Test
+  void process_rejectsCompressedBody_thatInflatesPastTheLimit() {
+    CapturingPublisher publisher = new CapturingPublisher();
+    InboundNewOrderListener listener = listener(publisher).maxAttempts(1).maxDecodedBytes(64 * 1024).build();
+
+    // ~1 KB of deflate output, 1 MB once inflated
+    byte[] json = ("{\"orderNumber\":\"B1\",\"productCode\":\"" + " ".repeat(1 << 20) + "\"}")
+        .getBytes(StandardCharsets.UTF_8);
+    MessageProperties props = new MessageProperties();
+    props.setContentEncoding(PayloadEncoding.DEFLATE.contentEncoding("UTF-8"));
+    Message message = new Message(PayloadEncoding.DEFLATE.encode(json, 9), props);
+
+    AtomicBoolean rejected = new AtomicBoolean();
+    listener.process(message, () -> fail("should not ack"), () -> rejected.set(true));
+
+    assertTrue(rejected.get());
+    assertTrue(publisher.events.isEmpty());
+  }
+
+  @Test
+  void payloadLogSampler_showsTextBodies_butOnlySizeAndEncodingOfEncodedOnes() {
+    PayloadLogSampler sampler = new PayloadLogSampler(1, 512);
+    Logger logger = (Logger) LoggerFactory.getLogger("payload-log-test");
+    ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    appender.start();
+    logger.addAppender(appender);
+
+    sampler.log(logger, new Message("{\"orderNumber\":\"T1\"}".getBytes(StandardCharsets.UTF_8), new MessageProperties()));
+    MessageProperties gzip = new MessageProperties();
+    gzip.setContentEncoding(PayloadEncoding.GZIP.contentEncoding("UTF-8"));
+    sampler.log(logger, new Message(PayloadEncoding.GZIP.encode("{\"orderNumber\":\"T2\"}".getBytes(), 1), gzip));
+
+    assertTrue(appender.list.get(0).getFormattedMessage().contains("T1"));
+    assertTrue(appender.list.get(1).getFormattedMessage().contains("not shown, encoded"));
+    assertTrue(appender.list.get(1).getFormattedMessage().contains("gzip:UTF-8"));
+  }
+
+  @Test
+  void externalizedOrderCreated_isPublishedInsideATransaction() throws Exception {
+    EmbeddedDatabase db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    try {
+      List<Boolean> inTransaction = new ArrayList<>();
+      ApplicationEventPublisher publisher =
+          event -> inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+      InboundNewOrderListener listener =
+          listener(publisher).publishInTransaction(new DataSourceTransactionManager(db)).build();
+
+      listener.handle("{\"orderNumber\":\"X1\",\"productCode\":\"BOOK-006\",\"quantity\":1}");
+
+      assertEquals(List.of(true), inTransaction, "Modulith only externalizes events published in a transaction");
+    } finally {
+      db.shutdown();
+    }
+  }
+
+  @Test
+  void payloadLogSampler_capsPreviewSize() {
+    PayloadLogSampler sampler = new PayloadLogSampler(1, 4);
+    assertEquals("abc", sampler.preview("abc".getBytes(StandardCharsets.UTF_8)));
+    assertEquals("abcd...(truncated)", sampler.preview("abcdefgh".getBytes(StandardCharsets.UTF_8)));
+  }
 }
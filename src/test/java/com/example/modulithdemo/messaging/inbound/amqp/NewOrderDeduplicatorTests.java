@@ -0,0 +1,157 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewOrderDeduplicatorTests {
+
+  static class CapturingPublisher implements ApplicationEventPublisher {
+    final List<Object> events = new ArrayList<>();
+    @Override public void publishEvent(Object event) { events.add(event); }
+  }
+
+  static String order(String number) {
+    return "{\"orderNumber\":\"" + number + "\",\"productCode\":\"BOOK-001\",\"quantity\":1," +
+        "\"customer\":{\"name\":\"Alice\",\"email\":\"alice@example.com\",\"phone\":\"123\"}}";
+  }
+
+  static NewOrderDeduplicator dedup(String key, int maxEntries, Duration ttl) {
+    return new NewOrderDeduplicator(key, maxEntries, ttl, false, Duration.ofDays(7), null, null);
+  }
+
+  static InboundNewOrderListener listener(ApplicationEventPublisher publisher, NewOrderDeduplicator dedup) {
+    return InboundNewOrderListenerBuilder.listener(publisher).dedup(dedup).build();
+  }
+
+  @Test
+  void duplicateOrderNumber_isDroppedBeforePublish() throws Exception {
+    CapturingPublisher publisher = new CapturingPublisher();
+    InboundNewOrderListener listener = listener(publisher, dedup("order-number", 100, Duration.ofMinutes(10)));
+
+    listener.handle(order("A1"));
+    listener.handle(order("A1"));
+    listener.handle(order("A2"));
+
+    assertEquals(2, publisher.events.size());
+  }
+
+  @Test
+  void duplicateMessageId_isAckedWithoutPublishing() {
+    CapturingPublisher publisher = new CapturingPublisher();
+    InboundNewOrderListener listener = listener(publisher, dedup("message-id", 100, Duration.ofMinutes(10)));
+    int[] ack = {0};
+
+    for (int i = 0; i < 2; i++) {
+      MessageProperties props = new MessageProperties();
+      props.setMessageId("m-1");
+      listener.process(new Message(order("A" + i).getBytes(StandardCharsets.UTF_8), props), () -> ack[0]++, () -> fail("no reject"));
+    }
+
+    assertEquals(1, publisher.events.size(), "same message-id must be published once");
+    assertEquals(2, ack[0], "the duplicate is still acked");
+  }
+
+  @Test
+  void failedProcessing_releasesKey_soRetryIsNotTreatedAsDuplicate() {
+    NewOrderDeduplicator dedup = dedup("order-number", 100, Duration.ofMinutes(10));
+    int[] calls = {0};
+    ApplicationEventPublisher flaky = event -> { if (calls[0]++ == 0) throw new IllegalStateException("db down"); };
+    InboundNewOrderListener listener = listener(flaky, dedup);
+
+    assertThrows(Exception.class, () -> listener.handle(order("A1")));
+    assertDoesNotThrow(() -> listener.handle(order("A1")));
+    assertEquals(2, calls[0]);
+  }
+
+  @Test
+  void boundedTier_evictsOldest_andExposesMetrics() throws Exception {
+    NewOrderDeduplicator dedup = dedup("order-number", 2, Duration.ofMinutes(10));
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    dedup.bindTo(registry);
+
+    assertTrue(dedup.runOnce("a", () -> { }));
+    assertTrue(dedup.runOnce("b", () -> { }));
+    assertTrue(dedup.runOnce("c", () -> { }));           // evicts "a"
+    assertFalse(dedup.runOnce("c", () -> { }));
+    assertTrue(dedup.runOnce("a", () -> { }), "evicted key is forgotten");
+
+    assertEquals(1.0, registry.get("inbound.dedup.hits").functionCounter().count());
+    assertEquals(4.0, registry.get("inbound.dedup.misses").functionCounter().count());
+    assertEquals(2.0, registry.get("inbound.dedup.evictions").functionCounter().count());
+    assertEquals(2.0, registry.get("inbound.dedup.size").gauge().value());
+  }
+
+  static int count(JdbcTemplate jdbc, String table) {
+    Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    return count == null ? 0 : count;
+  }
+
+  static DriverManagerDataSource database(String name) {
+    DriverManagerDataSource db =
+        new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("db/inbound-message-dedup.sql")).execute(db);
+    return db;
+  }
+
+  static NewOrderDeduplicator jdbcDedup(DriverManagerDataSource db) {
+    return new NewOrderDeduplicator("order-number", 100, Duration.ofMinutes(10), true, Duration.ofDays(7), db,
+        new DataSourceTransactionManager(db));
+  }
+
+  @Test
+  void jdbcTier_recordsKeyInTheProcessingTransaction() throws Exception {
+    DriverManagerDataSource db = database("dedup-tx");
+    JdbcTemplate jdbc = new JdbcTemplate(db);
+    jdbc.execute("CREATE TABLE PUBLICATIONS (ORDER_NUMBER VARCHAR(64))");
+    NewOrderDeduplicator first = jdbcDedup(db);
+
+    // Dies after writing its publication: neither the publication nor the key survive
+    assertThrows(IllegalStateException.class, () -> first.runOnce("A1", () -> {
+      jdbc.update("INSERT INTO PUBLICATIONS VALUES ('A1')");
+      throw new IllegalStateException("crash before commit");
+    }));
+    assertEquals(0, count(jdbc, "PUBLICATIONS"));
+    assertEquals(0, count(jdbc, "INBOUND_MESSAGE_DEDUP"));
+
+    assertTrue(first.runOnce("A1", () -> jdbc.update("INSERT INTO PUBLICATIONS VALUES ('A1')")),
+        "the redelivery is processed");
+
+    // A restarted node (empty in-memory tier) still drops the duplicate
+    NewOrderDeduplicator restarted = jdbcDedup(db);
+    assertFalse(restarted.runOnce("A1", () -> fail("duplicate must not be processed")));
+    assertEquals(1, count(jdbc, "PUBLICATIONS"));
+  }
+
+  @Test
+  void jdbcTier_duplicateFromAnotherNode_isAckedAndDropped() {
+    DriverManagerDataSource db = database("dedup-ack");
+    CapturingPublisher publisher = new CapturingPublisher();
+    int[] acks = {0};
+    byte[] body = order("A1").getBytes(StandardCharsets.UTF_8);
+
+    // Two replicas: the second one's in-memory tier has not seen the key, only the table has
+    listener(publisher, jdbcDedup(db)).process(new Message(body, new MessageProperties()), () -> acks[0]++,
+        () -> fail("no reject"));
+    listener(publisher, jdbcDedup(db)).process(new Message(body, new MessageProperties()), () -> acks[0]++,
+        () -> fail("the duplicate must not be retried or dead-lettered"));
+
+    assertEquals(1, publisher.events.size());
+    assertEquals(2, acks[0], "the duplicate is acked");
+  }
+}
@@ -1,11 +1,13 @@
 package com.example.modulithdemo.messaging.inbound.amqp;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.test.context.support.TestPropertySourceUtils;
 
+import java.util.List;
 import java.util.Map;
 
 import static com.example.modulithdemo.messaging.inbound.amqp.AmqpConstants.*;
@@ -33,4 +35,27 @@ class NewOrderTopologyConfigTests {
       assertEquals(BOOKSTORE_DLX, dlx.getName());
     }
   }
+
+  @Test
+  void delayedRetryMode_declaresTtlWaitQueues_withExponentialBackoff() {
+    try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext()) {
+      TestPropertySourceUtils.addInlinedPropertiesToEnvironment(ctx,
+          "app.amqp.new-orders.retry.mode=delayed",
+          "app.amqp.new-orders.retry.levels=3",
+          "app.amqp.new-orders.retry.initial-delay-ms=1000",
+          "app.amqp.new-orders.retry.multiplier=4");
+      ctx.register(NewOrderTopologyConfig.class);
+      ctx.refresh();
+
+      Declarables retry = ctx.getBean("newOrderRetryTopology", Declarables.class);
+      List<Queue> waits = retry.getDeclarablesByType(Queue.class);
+      assertEquals(3, waits.size());
+      assertEquals(List.of(1000, 4000, 16000), waits.stream().map(q -> q.getArguments().get("x-message-ttl")).toList());
+      for (Queue wait : waits) {
+        assertEquals("", wait.getArguments().get("x-dead-letter-exchange"));
+        assertEquals(NEW_ORDERS_QUEUE, wait.getArguments().get("x-dead-letter-routing-key"));
+      }
+      assertFalse(ctx.containsBean("newOrderQueue"), "inbound queue beans stay governed by bind");
+    }
+  }
 }
@@ -0,0 +1,82 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import com.example.modulithdemo.order.domain.Customer;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderPipelineLogTests {
+
+  private static final OrderCreatedEvent EVENT =
+      new OrderCreatedEvent("A1", "BOOK-1", 2, new Customer("Alice", "alice@example.com", "123"));
+
+  private static Message delivery() {
+    MessageProperties props = new MessageProperties();
+    props.setMessageId("m-1");
+    props.setCorrelationId("c-1");
+    return new Message("{}".getBytes(), props);
+  }
+
+  @Test
+  void outcome_followsSettlement_andThePublishedEvent() {
+    OrderPipelineLog pipelineLog = new OrderPipelineLog(1, false);
+    int[] acks = {0};
+
+    OrderPipelineLog.Delivery published = pipelineLog.begin(delivery());
+    pipelineLog.published(EVENT);
+    published.acked(() -> acks[0]++).run();
+    assertEquals("published", published.outcome());
+    pipelineLog.end(published);
+    assertEquals(1, acks[0], "the wrapped callback still settles the delivery");
+
+    // A duplicate is acked without an event
+    OrderPipelineLog.Delivery duplicate = pipelineLog.begin(delivery());
+    duplicate.acked(() -> { }).run();
+    assertEquals("acked", duplicate.outcome());
+    pipelineLog.end(duplicate);
+
+    OrderPipelineLog.Delivery poison = pipelineLog.begin(delivery());
+    poison.rejected(() -> { }).run();
+    assertEquals("rejected", poison.outcome());
+    pipelineLog.end(poison);
+  }
+
+  @Test
+  void unsampledDeliveries_areNotTracked_andEventsOutsideADeliveryAreIgnored() {
+    OrderPipelineLog pipelineLog = new OrderPipelineLog(2, true);
+    Runnable ack = () -> { };
+
+    OrderPipelineLog.Delivery first = pipelineLog.begin(delivery());
+    assertSame(OrderPipelineLog.Delivery.NONE, first);
+    assertSame(ack, first.acked(ack), "no wrapping for unsampled deliveries");
+    pipelineLog.published(EVENT);
+    pipelineLog.end(first);
+
+    OrderPipelineLog.Delivery second = pipelineLog.begin(delivery());
+    assertNotSame(OrderPipelineLog.Delivery.NONE, second);
+    pipelineLog.end(second);
+    // After end() the thread has no current delivery any more
+    pipelineLog.published(EVENT);
+    assertEquals("pending", second.outcome());
+
+    assertSame(OrderPipelineLog.Delivery.NONE, OrderPipelineLog.disabled().begin(delivery()));
+  }
+
+  @Test
+  void structured_putsTheIdsInTheMdc_forEveryDelivery_andClearsThemAtTheEnd() {
+    OrderPipelineLog pipelineLog = new OrderPipelineLog(0, true);
+
+    OrderPipelineLog.Delivery unsampled = pipelineLog.begin(delivery());
+    assertSame(OrderPipelineLog.Delivery.NONE, unsampled);
+    assertEquals("m-1", MDC.get(OrderPipelineLog.MESSAGE_ID));
+    assertEquals("c-1", MDC.get(OrderPipelineLog.CORRELATION_ID));
+    pipelineLog.end(unsampled);
+
+    assertNull(MDC.get(OrderPipelineLog.MESSAGE_ID));
+    assertNull(MDC.get(OrderPipelineLog.CORRELATION_ID));
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.modulithdemo.messaging.inbound.amqp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedLaneDispatcherTests {
+
+  private final OrderedLaneDispatcher lanes = new OrderedLaneDispatcher("product-code", 4, false, new SimpleMeterRegistry());
+
+  @AfterEach
+  void shutdown() throws InterruptedException {
+    lanes.destroy();
+  }
+
+  private static String keyOnOtherLane(OrderedLaneDispatcher lanes, String key) {
+    for (int i = 0; ; i++) {
+      String other = "BOOK-" + i;
+      if (lanes.laneOf(other) != lanes.laneOf(key)) return other;
+    }
+  }
+
+  @Test
+  void sameKey_runsInDispatchOrder() throws Exception {
+    List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(100);
+    for (int i = 0; i < 100; i++) {
+      int n = i;
+      lanes.dispatch("BOOK-001", () -> { seen.add(n); done.countDown(); });
+    }
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 100; i++) assertEquals(i, (int) seen.get(i));
+  }
+
+  @Test
+  void blockedKey_doesNotHoldBackOtherKeys() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch otherDone = new CountDownLatch(1);
+    lanes.dispatch("BOOK-001", () -> {
+      try { release.await(5, TimeUnit.SECONDS); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    });
+    lanes.dispatch(keyOnOtherLane(lanes, "BOOK-001"), otherDone::countDown);
+    assertTrue(otherDone.await(5, TimeUnit.SECONDS), "an unrelated key must not wait for the blocked lane");
+    release.countDown();
+  }
+
+  @Test
+  void keySource_followsConfiguration() throws Exception {
+    NewOrderMessage msg = new NewOrderMessage("A1", "BOOK-001", 1,
+        new NewOrderMessage.NewOrderCustomer("Alice", "alice@example.com", null));
+    assertEquals("BOOK-001", lanes.keyOf(msg));
+
+    OrderedLaneDispatcher byEmail = new OrderedLaneDispatcher("customer-email", 4, false, new SimpleMeterRegistry());
+    try {
+      assertEquals("alice@example.com", byEmail.keyOf(msg));
+      assertNull(byEmail.keyOf(new NewOrderMessage("A2", "BOOK-001", 1, null)));
+    } finally {
+      byEmail.destroy();
+    }
+  }
+
+  @Test
+  void batchMode_isRejected() {
+    assertThrows(IllegalStateException.class,
+        () -> new OrderedLaneDispatcher("product-code", 4, true, new SimpleMeterRegistry()));
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import com.example.modulithdemo.messaging.inbound.amqp.PayloadEncoding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingMessagePostProcessorTests {
+
+  private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+  private final CompressingMessagePostProcessor gzip =
+      new CompressingMessagePostProcessor(PayloadEncoding.GZIP, 1, 100, Set.of("BookStoreExchange"), meters);
+
+  private static Message json(int bytes) {
+    MessageProperties props = new MessageProperties();
+    props.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+    props.setContentEncoding("UTF-8");
+    String body = "{\"a\":\"" + "x".repeat(Math.max(0, bytes - 8)) + "\"}";
+    return new Message(body.getBytes(StandardCharsets.UTF_8), props);
+  }
+
+  @Test
+  void compressesLargeBodies_toConfiguredExchanges_andRoundTrips() throws Exception {
+    Message original = json(4000);
+    byte[] plain = original.getBody().clone();
+
+    Message sent = gzip.postProcessMessage(original, null, "BookStoreExchange", "orders.new");
+
+    assertEquals("gzip:UTF-8", sent.getMessageProperties().getContentEncoding());
+    assertTrue(sent.getBody().length < plain.length);
+    PayloadEncoding encoding = PayloadEncoding.of(sent.getMessageProperties().getContentEncoding());
+    try (InputStream in = encoding.decoding(new ByteArrayInputStream(sent.getBody()))) {
+      assertArrayEquals(plain, in.readAllBytes());
+    }
+    assertEquals(1, meters.get("amqp.outbound.compression.ratio").summary().count());
+  }
+
+  @Test
+  void leavesSmallBodies_otherExchanges_andEncodedBodiesAlone() {
+    Message small = json(50);
+    assertSame(small, gzip.postProcessMessage(small, null, "BookStoreExchange", "orders.new"));
+    assertEquals(1.0, meters.get("amqp.outbound.compression.skipped").counter().count());
+
+    Message elsewhere = json(4000);
+    assertSame(elsewhere, gzip.postProcessMessage(elsewhere, null, "BookStoreRetryExchange", "orders.new.retry.1"));
+
+    Message compressed = gzip.postProcessMessage(json(4000), null, "BookStoreExchange", "orders.new");
+    assertSame(compressed, gzip.postProcessMessage(compressed, null, "BookStoreExchange", "orders.new"));
+  }
+
+  @Test
+  void resendingTheSameMessage_compressesItAgain() throws Exception {
+    Message original = json(4000);
+    byte[] plain = original.getBody().clone();
+
+    Message first = gzip.postProcessMessage(original, null, "BookStoreExchange", "orders.new");
+    // A nacked, returned or unconfirmed publish is re-sent with the same Message
+    Message retry = gzip.postProcessMessage(original, null, "BookStoreExchange", "orders.new");
+
+    assertEquals("UTF-8", original.getMessageProperties().getContentEncoding(), "the caller's message is untouched");
+    assertArrayEquals(plain, original.getBody());
+    assertEquals("gzip:UTF-8", retry.getMessageProperties().getContentEncoding());
+    assertArrayEquals(first.getBody(), retry.getBody());
+    try (InputStream in = PayloadEncoding.GZIP.decoding(new ByteArrayInputStream(retry.getBody()))) {
+      assertArrayEquals(plain, in.readAllBytes());
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfirmingRabbitEventSenderTests {
+
+  enum Outcome { ACK, NACK, RETURN, NONE }
+
+  // Confirms each send synchronously according to a script; NONE leaves the confirm pending
+  static class ScriptedTemplate extends RabbitTemplate {
+    final Deque<Outcome> script = new ArrayDeque<>();
+    int sends;
+
+    ScriptedTemplate(Outcome... outcomes) {
+      super(confirmingConnectionFactory());
+      script.addAll(List.of(outcomes));
+    }
+
+    @Override
+    public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+      sends++;
+      Outcome outcome = script.isEmpty() ? Outcome.ACK : script.poll();
+      switch (outcome) {
+        case ACK -> correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+        case NACK -> correlationData.getFuture().complete(new CorrelationData.Confirm(false, "test nack"));
+        case RETURN -> {
+          correlationData.setReturned(new ReturnedMessage(message, 312, "NO_ROUTE", exchange, routingKey));
+          correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+        case NONE -> { }
+      }
+    }
+  }
+
+  static CachingConnectionFactory confirmingConnectionFactory() {
+    CachingConnectionFactory cf = new CachingConnectionFactory("localhost");
+    cf.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+    cf.setPublisherReturns(true);
+    return cf;
+  }
+
+  static ConfirmingRabbitEventSender sender(RabbitTemplate template, int maxInFlight, SimpleMeterRegistry meters) {
+    return new ConfirmingRabbitEventSender(template, maxInFlight, Duration.ofMillis(50), Duration.ofSeconds(5), 3,
+        Duration.ofMillis(1), meters);
+  }
+
+  @Test
+  void completesOnPositiveConfirm() throws Exception {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    ScriptedTemplate template = new ScriptedTemplate(Outcome.ACK);
+    ConfirmingRabbitEventSender sender = sender(template, 4, meters);
+
+    sender.send("BookStoreExchange", "orders.new", "payload").get(1, TimeUnit.SECONDS);
+
+    assertEquals(1, template.sends);
+    assertEquals(0, sender.inFlight());
+    assertEquals(1.0, meters.get("events.externalization.confirms").tag("outcome", "ack").counter().count());
+  }
+
+  @Test
+  void nackedAndReturnedMessages_areResent_untilConfirmed() throws Exception {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    ScriptedTemplate template = new ScriptedTemplate(Outcome.NACK, Outcome.RETURN, Outcome.ACK);
+    ConfirmingRabbitEventSender sender = sender(template, 4, meters);
+
+    sender.send("BookStoreExchange", "orders.new", "payload").get(1, TimeUnit.SECONDS);
+
+    assertEquals(3, template.sends);
+    assertEquals(1.0, meters.get("events.externalization.confirms").tag("outcome", "nack").counter().count());
+    assertEquals(1.0, meters.get("events.externalization.confirms").tag("outcome", "returned").counter().count());
+  }
+
+  @Test
+  void failsAfterMaxAttempts_soThePublicationStaysIncomplete() {
+    ScriptedTemplate template = new ScriptedTemplate(Outcome.NACK, Outcome.NACK, Outcome.NACK);
+    ConfirmingRabbitEventSender sender = sender(template, 4, new SimpleMeterRegistry());
+
+    CompletableFuture<Void> result = sender.send("BookStoreExchange", "orders.new", "payload");
+
+    assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+    assertEquals(3, template.sends);
+    assertEquals(0, sender.inFlight(), "slot released after the final failure");
+  }
+
+  @Test
+  void unconfirmedSends_areBoundedByMaxInFlight() throws Exception {
+    ScriptedTemplate template = new ScriptedTemplate(Outcome.NONE, Outcome.NONE);
+    ConfirmingRabbitEventSender sender = sender(template, 2, new SimpleMeterRegistry());
+
+    sender.send("BookStoreExchange", "orders.new", "one");
+    sender.send("BookStoreExchange", "orders.new", "two");
+    CompletableFuture<Void> third = sender.send("BookStoreExchange", "orders.new", "three");
+
+    assertEquals(2, sender.inFlight());
+    assertTrue(third.isCompletedExceptionally(), "no slot within the acquire timeout");
+    assertEquals(2, template.sends);
+  }
+
+  @Test
+  void rejectsConnectionFactoryWithoutConfirms() {
+    RabbitTemplate plain = new RabbitTemplate(new CachingConnectionFactory("localhost"));
+    assertThrows(IllegalStateException.class, () -> sender(plain, 1, new SimpleMeterRegistry()));
+  }
+}
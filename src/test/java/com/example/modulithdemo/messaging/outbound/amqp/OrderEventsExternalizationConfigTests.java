@@ -0,0 +1,88 @@
+package com.example.modulithdemo.messaging.outbound.amqp;
+
+import com.example.modulithdemo.order.domain.Customer;
+import com.example.modulithdemo.order.domain.OrderCompleted;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.modulith.events.EventExternalizationConfiguration;
+import org.springframework.modulith.events.RoutingTarget;
+import org.springframework.test.context.support.TestPropertySourceUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.example.modulithdemo.messaging.outbound.amqp.OrderEventsAmqpConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventsExternalizationConfigTests {
+
+  AnnotationConfigApplicationContext context(String... properties) {
+    AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+    TestPropertySourceUtils.addInlinedPropertiesToEnvironment(ctx, properties);
+    ctx.register(OrderEventsExternalizationConfig.class, OrderEventsTopologyConfig.class);
+    ctx.refresh();
+    return ctx;
+  }
+
+  @Test
+  void orderCompleted_isRoutedToAStableShard_andCreatedStaysInProcessByDefault() {
+    try (AnnotationConfigApplicationContext ctx = context("app.amqp.order-events.enabled=true",
+        "app.amqp.order-events.shards=4")) {
+      EventExternalizationConfiguration config = ctx.getBean(EventExternalizationConfiguration.class);
+      OrderCreatedEvent created = new OrderCreatedEvent("A-1", "BOOK-1", 1, new Customer("n", "e@example.com", "p"));
+      assertFalse(config.supports(created), "OrderCreatedEvent is only externalized on request");
+
+      UUID orderId = UUID.randomUUID();
+      OrderCompleted completed = new OrderCompleted(orderId, "A-1");
+      assertTrue(config.supports(completed));
+      RoutingTarget target = config.determineTarget(completed);
+      assertEquals(ORDER_EVENTS_EXCHANGE, target.getTarget());
+      assertEquals(target.getKey(), config.determineTarget(new OrderCompleted(orderId)).getKey());
+
+      Set<String> keys = new HashSet<>();
+      for (int i = 0; i < 200; i++) {
+        keys.add(config.determineTarget(new OrderCompleted(UUID.randomUUID())).getKey());
+      }
+      assertEquals(Set.of("orders.completed.0", "orders.completed.1", "orders.completed.2", "orders.completed.3"), keys);
+    }
+  }
+
+  @Test
+  void topology_declaresQuorumShardQueues_withDeadLettering_perEventType() {
+    try (AnnotationConfigApplicationContext ctx = context("app.amqp.order-events.enabled=true",
+        "app.amqp.order-events.shards=3", "app.amqp.order-events.created.enabled=true",
+        "app.amqp.order-events.delivery-limit=7")) {
+      EventExternalizationConfiguration config = ctx.getBean(EventExternalizationConfiguration.class);
+      RoutingTarget created = config.determineTarget(
+          new OrderCreatedEvent("A-1", "BOOK-1", 1, new Customer("n", "e@example.com", "p")));
+      assertTrue(created.getKey().startsWith(ORDER_CREATED_ROUTING_PREFIX));
+
+      Declarables topology = ctx.getBean("orderEventsTopology", Declarables.class);
+      List<Queue> queues = topology.getDeclarablesByType(Queue.class);
+      assertEquals(List.of("order-completed-dlq", "order-completed-0", "order-completed-1", "order-completed-2",
+          "order-created-dlq", "order-created-0", "order-created-1", "order-created-2"),
+          queues.stream().map(Queue::getName).toList());
+      Queue shard = queues.get(1);
+      assertEquals("quorum", shard.getArguments().get("x-queue-type"));
+      assertEquals(7, shard.getArguments().get("x-delivery-limit"));
+      assertEquals(ORDER_EVENTS_DLX, shard.getArguments().get("x-dead-letter-exchange"));
+      assertEquals(ORDER_COMPLETED_DLQ_ROUTING, shard.getArguments().get("x-dead-letter-routing-key"));
+      assertTrue(topology.getDeclarablesByType(Binding.class).stream()
+          .anyMatch(b -> b.getDestination().equals("order-created-2") && b.getRoutingKey().equals("orders.created.2")));
+    }
+  }
+
+  @Test
+  void disabled_declaresNothing() {
+    try (AnnotationConfigApplicationContext ctx = context("app.amqp.order-events.enabled=false")) {
+      assertTrue(ctx.getBeansOfType(EventExternalizationConfiguration.class).isEmpty());
+      assertFalse(ctx.containsBean("orderEventsTopology"));
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.modulithdemo.order.api;
+
+import com.example.modulithdemo.order.app.CachingOrderRepository;
+import com.example.modulithdemo.order.app.InMemoryOrderRepository;
+import com.example.modulithdemo.order.app.OrderManagement;
+import com.example.modulithdemo.order.domain.Customer;
+import com.example.modulithdemo.order.domain.Order;
+import com.example.modulithdemo.order.domain.OrderCompleted;
+import com.example.modulithdemo.order.domain.OrderCompletionException;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderControllerBulkTests {
+
+  static final UUID POISON = UUID.fromString("00000000-0000-0000-0000-00000000dead");
+
+  // Records published events; any chunk (or single completion) containing POISON fails
+  static class RecordingOrderManagement extends OrderManagement {
+    final List<Object> events;
+    final List<Integer> chunkSizes = new ArrayList<>();
+
+    RecordingOrderManagement(List<Object> events) {
+      super(events::add, new CachingOrderRepository(new InMemoryOrderRepository(), 100), new SimpleMeterRegistry());
+      this.events = events;
+    }
+
+    UUID create() {
+      String orderNumber = UUID.randomUUID().toString();
+      on(new OrderCreatedEvent(orderNumber, "BOOK-001", 1, new Customer("Alice", "alice@example.com", "123")));
+      return Order.idFor(orderNumber);
+    }
+
+    @Override
+    public void completeAll(List<UUID> orderIds) {
+      chunkSizes.add(orderIds.size());
+      if (orderIds.contains(POISON)) throw new OrderCompletionException("poison");
+      super.completeAll(orderIds);
+    }
+
+    @Override
+    public void complete(UUID orderId) {
+      if (POISON.equals(orderId)) throw new OrderCompletionException("poison");
+      super.complete(orderId);
+    }
+  }
+
+  private static String run(OrderController controller, String body) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    controller.completeAll(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void completesIdsInChunks_andStreamsOneResultPerId() throws Exception {
+    RecordingOrderManagement orders = new RecordingOrderManagement(new ArrayList<>());
+    OrderController controller = new OrderController(orders, new ObjectMapper(), 2);
+
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < 5; i++) body.append(orders.create()).append('\n');
+
+    String[] results = run(controller, body.toString()).split("\n");
+
+    assertEquals(List.of(2, 2, 1), orders.chunkSizes);
+    assertEquals(5, orders.events.size());
+    assertTrue(orders.events.stream().allMatch(OrderCompleted.class::isInstance));
+    assertEquals(5, results.length);
+    assertTrue(results[0].contains("\"status\":\"COMPLETED\""));
+  }
+
+  @Test
+  void failedChunk_isRetriedPerOrder_andInvalidLinesAreReported() throws Exception {
+    RecordingOrderManagement orders = new RecordingOrderManagement(new ArrayList<>());
+    OrderController controller = new OrderController(orders, new ObjectMapper(), 10);
+    UUID good = orders.create();
+    UUID unknown = UUID.randomUUID();
+
+    String output = run(controller, good + "\n\"" + POISON + "\"\n\nnot-a-uuid\n" + unknown + "\n");
+
+    assertEquals(1, orders.events.size(), "only the good order is completed");
+    assertTrue(output.contains("{\"orderId\":\"" + unknown + "\",\"status\":\"FAILED\",\"error\":\"Order not found: " + unknown + "\"}"));
+    assertTrue(output.contains("{\"orderId\":\"" + good + "\",\"status\":\"COMPLETED\"}"));
+    assertTrue(output.contains("{\"orderId\":\"" + POISON + "\",\"status\":\"FAILED\",\"error\":\"poison\"}"));
+    assertTrue(output.contains("{\"orderId\":\"not-a-uuid\",\"status\":\"INVALID\",\"error\":\"not a UUID\"}"));
+    assertEquals(4, output.split("\n").length);
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.modulithdemo.order.app;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.dao.OptimisticLockingFailureException;
+import com.example.modulithdemo.order.domain.Order;
+
+/**
+ * Test stand-in for the JDBC repository with the same optimistic check; counts reads so tests can
+ * tell cache hits from round-trips.
+ */
+public class InMemoryOrderRepository implements OrderRepository {
+
+  final Map<UUID, Order> rows = new ConcurrentHashMap<>();
+  final AtomicInteger reads = new AtomicInteger();
+
+  @Override
+  public boolean insertIfAbsent(Order order) {
+    return rows.putIfAbsent(order.id(), order) == null;
+  }
+
+  @Override
+  public Optional<Order> findById(UUID id) {
+    reads.incrementAndGet();
+    return Optional.ofNullable(rows.get(id));
+  }
+
+  @Override
+  public Map<UUID, Order> findAllById(Collection<UUID> ids) {
+    reads.incrementAndGet();
+    Map<UUID, Order> found = new HashMap<>();
+    ids.forEach(id -> { if (rows.containsKey(id)) found.put(id, rows.get(id)); });
+    return found;
+  }
+
+  @Override
+  public synchronized void saveTransitions(List<Order> orders) {
+    for (Order order : orders) {
+      Order stored = rows.get(order.id());
+      if (stored == null || stored.version() != order.version() - 1) {
+        throw new OptimisticLockingFailureException("Order " + order.id() + " was modified concurrently");
+      }
+    }
+    orders.forEach(order -> rows.put(order.id(), order));
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.modulithdemo.order.app;
+
+import com.example.modulithdemo.order.domain.Customer;
+import com.example.modulithdemo.order.domain.Order;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcOrderRepositoryTests {
+
+  @Test
+  void redeliveredOrder_isSkipped_withoutFailingTheTransaction() {
+    DriverManagerDataSource ds = new DriverManagerDataSource(
+        "jdbc:h2:mem:orders-insert;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("db/orders.sql")).execute(ds);
+    JdbcTemplate jdbc = new JdbcTemplate(ds);
+    JdbcOrderRepository orders = new JdbcOrderRepository(jdbc);
+    Order order = Order.created(
+        new OrderCreatedEvent("A1", "BOOK-001", 1, new Customer("Alice", "alice@example.com", "123")));
+    TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+
+    assertTrue(tx.execute(status -> orders.insertIfAbsent(order)));
+    // The redelivery's transaction (also publishing the event) must still commit
+    assertFalse(tx.execute(status -> orders.insertIfAbsent(order)));
+
+    assertEquals(Long.valueOf(1), jdbc.queryForObject("SELECT COUNT(*) FROM ORDERS", Long.class));
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.modulithdemo.order.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import com.example.modulithdemo.order.domain.Customer;
+import com.example.modulithdemo.order.domain.Order;
+import com.example.modulithdemo.order.domain.OrderAlreadyCompletedException;
+import com.example.modulithdemo.order.domain.OrderCompleted;
+import com.example.modulithdemo.order.domain.OrderCreatedEvent;
+import com.example.modulithdemo.order.domain.OrderNotFoundException;
+import com.example.modulithdemo.order.domain.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderManagementTests {
+
+  private final List<Object> events = new ArrayList<>();
+  private final InMemoryOrderRepository db = new InMemoryOrderRepository();
+  private final CachingOrderRepository cache = new CachingOrderRepository(db, 2);
+  private final OrderManagement orders = new OrderManagement(events::add, cache, new SimpleMeterRegistry());
+
+  private UUID create(String orderNumber) {
+    orders.on(new OrderCreatedEvent(orderNumber, "BOOK-001", 1, new Customer("Alice", "alice@example.com", "123")));
+    return Order.idFor(orderNumber);
+  }
+
+  @Test
+  void recentlyCreatedOrder_isCompletedFromCache_withOrderNumberOnTheEvent() {
+    UUID id = create("A1");
+
+    orders.complete(id);
+
+    assertEquals(0, db.reads.get(), "validation must not go to the database");
+    assertEquals(List.of(new OrderCompleted(id, "A1")), events);
+    assertEquals(OrderStatus.COMPLETED, db.rows.get(id).status());
+    assertEquals(1, db.rows.get(id).version());
+  }
+
+  @Test
+  void unknownAndDuplicateCompletions_areRejected_beforeAnyEvent() {
+    UUID id = create("A1");
+    orders.complete(id);
+    events.clear();
+
+    assertThrows(OrderAlreadyCompletedException.class, () -> orders.complete(id));
+    assertThrows(OrderNotFoundException.class, () -> orders.complete(UUID.randomUUID()));
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  void staleCacheEntry_losesTheOptimisticCheck() {
+    UUID id = create("A1");
+    // Another instance completed the order; this cache still holds CREATED v0
+    db.rows.put(id, db.rows.get(id).completed());
+
+    assertThrows(OrderAlreadyCompletedException.class, () -> orders.complete(id));
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  void completeAll_rejectsTheWholeChunk_whenOneOrderIsInvalid() {
+    UUID a = create("A1");
+    UUID b = create("A2");
+    UUID c = create("A3"); // evicts A1 from the 2-entry cache
+
+    orders.completeAll(List.of(a, b));
+    assertEquals(2, events.size());
+    assertEquals(1, db.reads.get(), "misses are loaded in one query");
+
+    events.clear();
+    assertThrows(OrderAlreadyCompletedException.class, () -> orders.completeAll(List.of(c, a)));
+    assertTrue(events.isEmpty());
+    assertEquals(OrderStatus.CREATED, db.rows.get(c).status());
+  }
+
+  @Test
+  void redeliveredOrderCreatedEvent_recordsTheOrderOnce() {
+    UUID id = create("A1");
+    orders.complete(id);
+    create("A1");
+
+    assertEquals(OrderStatus.COMPLETED, db.rows.get(id).status());
+  }
+
+  @Test
+  void orderCreatedWithoutOrderNumber_isNotRecorded() {
+    orders.on(new OrderCreatedEvent(null, "BOOK-001", 1, new Customer("Alice", "alice@example.com", "123")));
+
+    assertTrue(db.rows.isEmpty());
+  }
+}